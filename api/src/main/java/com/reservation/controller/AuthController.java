@@ -3,15 +3,22 @@ package com.reservation.controller;
 import com.reservation.auth.signin.SignInRequest;
 import com.reservation.auth.signup.SignUpRequest;
 import com.reservation.auth.signup.SignUpResponse;
+import com.reservation.auth.token.RefreshTokenRequest;
+import com.reservation.auth.token.TokenResponse;
+import com.reservation.jwt.JwtAuthenticationFilter;
+import com.reservation.jwt.VerifiedToken;
 import com.reservation.service.auth.AuthService;
+import com.reservation.service.auth.RefreshTokenService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.validation.Valid;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequiredArgsConstructor
@@ -19,26 +26,58 @@ import javax.validation.Valid;
 public class AuthController {
 
     private final AuthService authService;
+    private final RefreshTokenService refreshTokenService;
 
     // HTTP 요청 -> Filter -> ServletDispatcher -> 인터셉터 -> AOP -> Controller
     /**
      * 회원가입
+     * 비밀번호 암호화가 끝나면 응답하며, 그동안 요청 스레드는 반환된다.
      * @param request
      * @return 회원 정보를 반환
      */
     @PostMapping("/signup")
-    public ResponseEntity<SignUpResponse> signUp(
+    public CompletableFuture<ResponseEntity<SignUpResponse>> signUp(
             @Valid @RequestBody SignUpRequest request) {
-        return ResponseEntity.ok(this.authService.register(request));
+        return this.authService.register(request).thenApply(ResponseEntity::ok);
     }
 
     /**
      * 로그인
-     * @return 해당 계정의 토큰을 반환
+     * 비밀번호 확인이 끝나면 응답하며, 그동안 요청 스레드는 반환된다.
+     * @return 해당 계정의 액세스 토큰과 리프레시 토큰을 반환
      */
     @PostMapping("/signin")
-    public ResponseEntity<String> signIn(
+    public CompletableFuture<ResponseEntity<TokenResponse>> signIn(
             @Valid @RequestBody SignInRequest request){
-        return ResponseEntity.ok(this.authService.login(request));
+        return this.authService.login(request).thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * 토큰 재발급
+     * 리프레시 토큰은 한 번만 사용할 수 있으며, 새 리프레시 토큰을 함께 반환
+     * @param request
+     * @return 새 액세스 토큰과 리프레시 토큰을 반환
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<TokenResponse> refresh(
+            @Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(
+                this.refreshTokenService.rotate(request.getRefreshToken()));
+    }
+
+    /**
+     * 로그아웃
+     * 현재 액세스 토큰과 리프레시 토큰을 폐기
+     * @param verifiedToken JwtAuthenticationFilter 가 검증한 액세스 토큰
+     * @param request 리프레시 토큰 (선택)
+     */
+    @PostMapping("/signout")
+    public ResponseEntity<Void> signOut(
+            @RequestAttribute(name = JwtAuthenticationFilter.VERIFIED_TOKEN,
+                    required = false) VerifiedToken verifiedToken,
+            @RequestBody(required = false) RefreshTokenRequest request) {
+        this.refreshTokenService.signOut(verifiedToken,
+                request == null ? null : request.getRefreshToken());
+        return ResponseEntity.ok().build();
     }
 }
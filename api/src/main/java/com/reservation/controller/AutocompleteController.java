@@ -1,6 +1,7 @@
 package com.reservation.controller;
 
 import com.reservation.service.store.AutocompleteService;
+import com.reservation.store.AutocompleteResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -20,13 +21,18 @@ public class AutocompleteController {
     /**
      * 자동완성
      * @param keyword
-     * @return Trie 에 keyword 로 시작하는 매장 이름을 반환
+     * @param limit 최대 개수
+     * @param fuzzy 1 이라면 오타 허용
+     * @return Trie 에 keyword 로 시작하는 매장 이름과 그 이름의 매장 id 를
+     * 평점이 높은 순서로 반환
      */
     @GetMapping
-    public ResponseEntity<List<String>> autocompleteStore(
-            @RequestParam String keyword) {
-        List<String> storeNamesByKeyword =
-                this.autocompleteService.getStoreNamesByKeyword(keyword);
+    public ResponseEntity<List<AutocompleteResponse>> autocompleteStore(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "0") int fuzzy) {
+        List<AutocompleteResponse> storeNamesByKeyword = this.autocompleteService
+                .getStoreNamesByKeyword(keyword, limit, fuzzy == 1);
         return ResponseEntity.ok(storeNamesByKeyword);
     }
 }
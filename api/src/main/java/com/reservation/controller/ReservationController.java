@@ -3,21 +3,32 @@ package com.reservation.controller;
 import com.reservation.entity.user.UserEntity;
 import com.reservation.reservation.ReservationRequest;
 import com.reservation.reservation.ReservationResponse;
+import com.reservation.service.reservation.ReservationExport;
 import com.reservation.service.reservation.ReservationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
-import java.util.List;
+import java.time.LocalDate;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/v1/reservation")
 public class ReservationController {
 
+    private static final MediaType NDJSON =
+            MediaType.parseMediaType("application/x-ndjson");
+
     private final ReservationService reservationService;
 
     /**
@@ -77,34 +88,83 @@ public class ReservationController {
     }
 
     /**
-     * 일반 회원의 본인이 한 모든 예약 read
+     * 일반 회원의 본인이 한 예약 read (최근 예약한 순서, 페이징)
      *
-     * @param userId 로그인된 회원의 유저의 id
+     * @param userId   로그인된 회원의 유저의 id
+     * @param pageable 페이지 번호와 크기
      */
     @PreAuthorize("hasRole('CUSTOMER')")
     @GetMapping("/customer")
-    public ResponseEntity<List<ReservationResponse>> getReservation(
-            @AuthenticationPrincipal(expression = "id") Long userId
+    public ResponseEntity<Page<ReservationResponse>> getReservation(
+            @AuthenticationPrincipal(expression = "id") Long userId,
+            @PageableDefault(page = 0, size = 10) Pageable pageable
     ) {
         return ResponseEntity.ok(
-                this.reservationService.getReservation(userId));
+                this.reservationService.getReservation(userId, pageable));
     }
 
 
     /**
-     * 파트너 회원의 해당 매장의 모든 예약 read
+     * 파트너 회원의 해당 매장의 예약 read (예약 시간 순서, 페이징)
      *
      * @param userEntity 로그인된 유저의 엔티티
      * @param storeId    예약을 확인하려는 매장의 id
+     * @param from       예약 날짜 시작 (yyyy-MM-dd, 포함, 생략 가능)
+     * @param to         예약 날짜 끝 (yyyy-MM-dd, 포함, 생략 가능)
+     * @param status     예약 상태 (생략 가능)
+     * @param pageable   페이지 번호와 크기
      */
     @PreAuthorize("hasRole('PARTNER')")
     @GetMapping("/partner/{storeId}")
-    public ResponseEntity<List<ReservationResponse>> getReservation(
+    public ResponseEntity<Page<ReservationResponse>> getReservation(
             @AuthenticationPrincipal UserEntity userEntity,
-            @PathVariable Long storeId
+            @PathVariable Long storeId,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            @PageableDefault(page = 0, size = 10) Pageable pageable
     ) {
-        return ResponseEntity.ok(
-                this.reservationService.getReservation(userEntity, storeId));
+        return ResponseEntity.ok(this.reservationService.getReservation(
+                userEntity, storeId, from, to, status, pageable));
+    }
+
+    /**
+     * 파트너 회원의 해당 매장의 예약 내보내기 (NDJSON, 한 줄에 예약 하나)
+     * DB 에서 읽는 대로 응답에 쓰므로 예약이 많아도 서버 메모리를 차지하지 않는다.
+     * 비동기로 쓰며, 제한 시간은 내보내기에만 길게 주고 다른 비동기 요청은 기본값을 따른다.
+     *
+     * @param userEntity 로그인된 유저의 엔티티
+     * @param storeId    예약을 내보내려는 매장의 id
+     * @param from       예약 날짜 시작 (yyyy-MM-dd, 포함, 생략 가능)
+     * @param to         예약 날짜 끝 (yyyy-MM-dd, 포함, 생략 가능)
+     * @param status     예약 상태 (생략 가능)
+     * @param response   NDJSON 을 쓸 응답
+     */
+    @PreAuthorize("hasRole('PARTNER')")
+    @GetMapping("/partner/{storeId}/export")
+    public WebAsyncTask<Void> exportReservation(
+            @AuthenticationPrincipal UserEntity userEntity,
+            @PathVariable Long storeId,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            HttpServletResponse response
+    ) {
+        ReservationExport export = this.reservationService.exportReservations(
+                userEntity, storeId, from, to, status);
+        response.setContentType(NDJSON.toString());
+
+        WebAsyncTask<Void> task = new WebAsyncTask<>(export.getTimeoutMillis(), () -> {
+            export.writeTo(response.getOutputStream());
+            return null;
+        });
+        // 시간 초과 등으로 요청이 먼저 끝나면 쓰기 전이라면 permit 을 반납하고, 쓰는 중이라면 DB 읽기를 중단
+        task.onCompletion(export::cancel);
+        return task;
     }
 
     /**
@@ -3,6 +3,7 @@ package com.reservation.controller;
 import com.reservation.entity.user.UserEntity;
 import com.reservation.review.ReviewRequest;
 import com.reservation.review.ReviewResponse;
+import com.reservation.review.ReviewSliceResponse;
 import com.reservation.service.review.ReviewService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Sort;
@@ -85,4 +86,23 @@ public class ReviewController {
                 this.reviewService.getStoreReviews(storeId, pageable)
         );
     }
+
+    /**
+     * 매장의 리뷰 목록을 커서 방식으로 조회
+     * 응답의 nextCursor 를 다음 요청의 cursor 로 전달
+     *
+     * @param storeId 매장 id
+     * @param cursor  이전 응답의 nextCursor (첫 페이지는 생략)
+     * @param size    페이지 크기 (최대 100)
+     */
+    @GetMapping("/stores/{storeId}/scroll")
+    public ResponseEntity<ReviewSliceResponse> getStoreReviewsByCursor(
+            @PathVariable Long storeId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return ResponseEntity.ok(
+                this.reviewService.getStoreReviews(storeId, cursor, size)
+        );
+    }
 }
@@ -2,18 +2,22 @@ package com.reservation.controller;
 
 import com.reservation.entity.user.UserEntity;
 import com.reservation.service.store.StoreService;
+import com.reservation.store.RatingDistributionResponse;
+import com.reservation.store.StoreAvailabilityResponse;
 import com.reservation.store.StoreRequest;
 import com.reservation.store.StoreResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.time.LocalDate;
 
 @RestController
 @RequiredArgsConstructor
@@ -66,6 +70,42 @@ public class StoreController {
         );
     }
 
+    /**
+     * 매장의 예약 가능 시간대 조회
+     * from ~ to 기간의 30분 단위 시간대별 예약 인원과 남은 인원 반환
+     *
+     * @param storeId 조회하려는 매장의 id
+     * @param from    조회 시작 날짜 (yyyy-MM-dd)
+     * @param to      조회 끝 날짜 (yyyy-MM-dd, 포함)
+     */
+    @GetMapping("/{storeId}/availability")
+    public ResponseEntity<StoreAvailabilityResponse> getAvailability(
+            @PathVariable Long storeId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate to
+    ) {
+        return ResponseEntity.ok(
+                this.storeService.getAvailability(storeId, from, to)
+        );
+    }
+
+    /**
+     * 매장의 평점 분포 조회
+     * 0.0 ~ 5.0 (0.5 단위) 평점별 리뷰 수 반환
+     *
+     * @param storeId 조회하려는 매장의 id
+     */
+    @GetMapping("/{storeId}/rating-distribution")
+    public ResponseEntity<RatingDistributionResponse> getRatingDistribution(
+            @PathVariable Long storeId
+    ) {
+        return ResponseEntity.ok(
+                this.storeService.getRatingDistribution(storeId)
+        );
+    }
+
     /**
      * 매장 업데이트
      * 현재 로그인된 아이디의 storeId의 매장 정보 업데이트
@@ -0,0 +1,97 @@
+package com.reservation.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 인증된 사용자(principal) 캐시
+ * 1. 계정(account)으로 조회하여 ttl 이 지나지 않았다면 그대로 반환
+ * 2. 없거나 만료되었다면 loader 로 DB 에서 읽어 저장
+ * 3. 최대 개수에 이르면 만료된 항목부터, 그래도 많다면 임의의 항목을 제거
+ * <p>
+ * JWT 로 인증하는 모든 요청이 USER 를 조회하지 않고 해시 조회 한 번으로 끝난다.
+ * 사용자 정보(권한, 비밀번호 등)를 바꾸거나 삭제하는 곳에서는 evict 를 호출해야 하며,
+ * 다른 서버에서 바뀐 내용도 ttl 이 지나면 다시 읽는다.
+ */
+@Slf4j
+@Component
+public class PrincipalCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxSize;
+
+    public PrincipalCache(
+            @Value("${reservation.auth.principal-cache.ttl-ms:60000}") long ttlMillis,
+            @Value("${reservation.auth.principal-cache.max-size:10000}") int maxSize) {
+
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 캐시된 사용자 반환, 없거나 만료되었다면 loader 로 읽어 저장
+     * 같은 계정을 동시에 읽으면 loader 가 여러 번 호출될 수 있지만 결과는 같다.
+     */
+    public UserDetails get(String account, Function<String, UserDetails> loader) {
+        long now = System.nanoTime();
+
+        Entry entry = this.entries.get(account);
+        if (entry != null && entry.expiresAt - now > 0) {
+            return entry.principal;
+        }
+
+        UserDetails principal = loader.apply(account);
+        if (this.entries.size() >= this.maxSize) {
+            evictOverflow(now);
+        }
+        this.entries.put(account, new Entry(principal, now + this.ttlNanos));
+        return principal;
+    }
+
+    /**
+     * 사용자 정보가 바뀌었을 때 호출, 다음 요청에서 다시 읽는다.
+     */
+    public void evict(String account) {
+        this.entries.remove(account);
+        log.info("\u001B[32mprincipal cache evict -> {}", account + "\u001B[0m");
+    }
+
+    public void clear() {
+        this.entries.clear();
+    }
+
+    public int size() {
+        return this.entries.size();
+    }
+
+    private void evictOverflow(long now) {
+        this.entries.values().removeIf(entry -> entry.expiresAt - now <= 0);
+
+        // 한 번에 10% 여유를 만들어 두어 매 요청마다 전체를 훑지 않도록 한다.
+        int target = this.maxSize - Math.max(1, this.maxSize / 10);
+        Iterator<String> accounts = this.entries.keySet().iterator();
+        while (this.entries.size() > target && accounts.hasNext()) {
+            accounts.next();
+            accounts.remove();
+        }
+    }
+
+    private static final class Entry {
+
+        private final UserDetails principal;
+        private final long expiresAt;
+
+        private Entry(UserDetails principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.reservation.config;
 
 import com.reservation.jwt.JwtAuthenticationFilter;
+import com.reservation.ratelimit.RateLimitFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -19,6 +20,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    private final RateLimitFilter rateLimitFilter;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
     /**
@@ -37,10 +39,13 @@ public class SecurityConfig {
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 .and()
                 .authorizeRequests() // URL 별 권한 설정 시작
-                // 회원가입, 로그인은 모두 허용
+                // 회원가입, 로그인, 토큰 재발급은 모두 허용
                 .antMatchers(
-                        "/**/signup", "/**/signin").permitAll()
+                        "/**/signup", "/**/signin", "/**/refresh").permitAll()
                 .and()
+                // 요청 제한 필터를 가장 먼저, 같은 위치의 필터는 추가한 순서대로 실행
+                .addFilterBefore(this.rateLimitFilter,
+                        UsernamePasswordAuthenticationFilter.class)
                 // JWT 필터를 UsernamePassword 필터 전에 추가
                 .addFilterBefore(this.jwtAuthenticationFilter,
                         UsernamePasswordAuthenticationFilter.class);
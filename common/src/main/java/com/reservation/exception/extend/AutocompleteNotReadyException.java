@@ -0,0 +1,16 @@
+package com.reservation.exception.extend;
+
+import com.reservation.exception.AbstractException;
+import org.springframework.http.HttpStatus;
+
+public class AutocompleteNotReadyException extends AbstractException {
+    @Override
+    public int getStatusCode() {
+        return HttpStatus.SERVICE_UNAVAILABLE.value();
+    }
+
+    @Override
+    public String getMessage() {
+        return "자동완성을 준비 중입니다. 잠시 후 다시 시도해주세요.";
+    }
+}
@@ -0,0 +1,16 @@
+package com.reservation.exception.extend;
+
+import com.reservation.exception.AbstractException;
+import org.springframework.http.HttpStatus;
+
+public class InvalidAvailabilityRangeException extends AbstractException {
+    @Override
+    public int getStatusCode() {
+        return HttpStatus.BAD_REQUEST.value();
+    }
+
+    @Override
+    public String getMessage() {
+        return "조회할 수 없는 예약 가능 기간입니다.";
+    }
+}
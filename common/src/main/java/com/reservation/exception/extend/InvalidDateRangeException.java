@@ -0,0 +1,16 @@
+package com.reservation.exception.extend;
+
+import com.reservation.exception.AbstractException;
+import org.springframework.http.HttpStatus;
+
+public class InvalidDateRangeException extends AbstractException {
+    @Override
+    public int getStatusCode() {
+        return HttpStatus.BAD_REQUEST.value();
+    }
+
+    @Override
+    public String getMessage() {
+        return "조회 시작 날짜가 끝 날짜보다 늦습니다.";
+    }
+}
@@ -0,0 +1,16 @@
+package com.reservation.exception.extend;
+
+import com.reservation.exception.AbstractException;
+import org.springframework.http.HttpStatus;
+
+public class InvalidRefreshTokenException extends AbstractException {
+    @Override
+    public int getStatusCode() {
+        return HttpStatus.UNAUTHORIZED.value();
+    }
+
+    @Override
+    public String getMessage() {
+        return "유효하지 않은 리프레시 토큰입니다. 다시 로그인해주세요.";
+    }
+}
@@ -0,0 +1,16 @@
+package com.reservation.exception.extend;
+
+import com.reservation.exception.AbstractException;
+import org.springframework.http.HttpStatus;
+
+public class PasswordHashBusyException extends AbstractException {
+    @Override
+    public int getStatusCode() {
+        return HttpStatus.SERVICE_UNAVAILABLE.value();
+    }
+
+    @Override
+    public String getMessage() {
+        return "로그인, 회원가입 요청이 몰리고 있습니다. 잠시 후 다시 시도해주세요.";
+    }
+}
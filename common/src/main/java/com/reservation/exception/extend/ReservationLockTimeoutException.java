@@ -0,0 +1,16 @@
+package com.reservation.exception.extend;
+
+import com.reservation.exception.AbstractException;
+import org.springframework.http.HttpStatus;
+
+public class ReservationLockTimeoutException extends AbstractException {
+    @Override
+    public int getStatusCode() {
+        return HttpStatus.CONFLICT.value();
+    }
+
+    @Override
+    public String getMessage() {
+        return "같은 시간대에 예약이 몰리고 있습니다. 잠시 후 다시 시도해주세요.";
+    }
+}
@@ -0,0 +1,22 @@
+package com.reservation.jwt;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 발급한 액세스 토큰과 폐기할 때 필요한 id(jti), 만료 시각
+ */
+@Getter
+public class AccessToken {
+
+    private final String token;
+    private final String tokenId;
+    private final LocalDateTime expiresAt;
+
+    AccessToken(String token, String tokenId, LocalDateTime expiresAt) {
+        this.token = token;
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+    }
+}
@@ -6,7 +6,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
-import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import javax.servlet.FilterChain;
@@ -22,6 +21,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     public static final String TOKEN_HEADER = "Authorization";
     public static final String TOKEN_PREFIX = "Bearer "; // 인증 타입
+    // 검증된 토큰을 담는 요청 속성, 로그아웃에서 토큰 id 를 꺼낼 때 사용
+    public static final String VERIFIED_TOKEN = "verifiedToken";
 
     private final JwtTokenProvider tokenProvider;
 
@@ -41,17 +42,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String token = this.resolveTokenFromRequest(request);
 
-        if (StringUtils.hasText(token) &&
-                this.tokenProvider.validateToken(token)) {
+        // 토큰은 여기서 한 번만 파싱하고, 이후에는 검증 결과만 사용
+        VerifiedToken verified = this.tokenProvider.verify(token);
+        if (verified != null) {
 
             // JWT 토큰에서 사용자 정보 추출
-            Authentication auth = this.tokenProvider.getAuthentication(token);
+            Authentication auth = this.tokenProvider.getAuthentication(verified);
             // SecurityContext 에 저장
             SecurityContextHolder.getContext().setAuthentication(auth);
+            request.setAttribute(VERIFIED_TOKEN, verified);
 
-            log.info(String.format(
-                    "\u001B[32[%s] -> %s", this.tokenProvider.getUsername(token),
-                    request.getRequestURI() + "\u001B[0m"));
+            log.info("\u001B[32m[{}] -> {}", verified.getUsername(),
+                    request.getRequestURI() + "\u001B[0m");
         }
         filterChain.doFilter(request, response);
     }
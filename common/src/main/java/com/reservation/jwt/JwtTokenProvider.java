@@ -1,5 +1,6 @@
 package com.reservation.jwt;
 
+import com.reservation.cache.PrincipalCache;
 import com.reservation.entity.user.UserRole;
 import com.reservation.service.CustomUserDetailService;
 import io.jsonwebtoken.Claims;
@@ -14,7 +15,10 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
@@ -23,59 +27,91 @@ public class JwtTokenProvider {
     private static final long TOKEN_EXPIRE_TIME = 1000 * 60 * 60; // 1 hour
     private static final String KEY_ROLES = "userRole";
     private final CustomUserDetailService customUserDetailService;
+    private final PrincipalCache principalCache;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationList tokenRevocationList;
 
     @Value("{spring.jwt.secret}")
     private String secretKey;
 
     /**
      * 토큰 생성(발급)
+     * 토큰마다 id(jti)를 넣어 만료 전에도 TokenRevocationList 로 폐기할 수 있다.
      * @param username
      * @param userRole
      * @return
      */
-    public String generateToken(String username, UserRole userRole) {
+    public AccessToken generateToken(String username, UserRole userRole) {
 
         Claims claims = Jwts.claims().setSubject(username);
         claims.put(KEY_ROLES, userRole);
 
         Date now = new Date();
         Date expiredDate = new Date(now.getTime() + TOKEN_EXPIRE_TIME); // 만료 시간
+        String tokenId = UUID.randomUUID().toString();
 
-        return Jwts.builder()
+        String token = Jwts.builder()
                 .setClaims(claims)
+                .setId(tokenId) // 폐기할 때 사용할 토큰 id
                 .setIssuedAt(now) // 토큰 생성 시간
                 .setExpiration(expiredDate) // 토큰 만료 시간
                 .signWith(SignatureAlgorithm.HS512, this.secretKey) // 사용할 암호화 알고리즘, 비밀키
                 .compact();
+
+        return new AccessToken(token, tokenId, LocalDateTime.ofInstant(
+                expiredDate.toInstant(), ZoneId.systemDefault()));
     }
 
     /**
-     * JWT 토큰으로 부터 인증 정보를 가져오는 메서드
-     * @param jwt
-     * @return
+     * 토큰을 한 번만 파싱하여 서명과 만료 시간을 확인
+     * 1. 최근에 검증한 토큰이라면 캐시된 결과를 사용
+     * 2. 아니라면 서명을 확인하고 claims 를 읽어 캐시에 저장
+     * 3. 폐기된 토큰인지 메모리의 TokenRevocationList 로 확인 (캐시된 토큰도 매번 확인)
+     * 필터는 이 결과로 인증과 로그까지 처리하므로 다시 파싱하지 않는다.
+     *
+     * @param token
+     * @return 유효한 토큰이라면 검증 결과, 비어 있거나 만료, 폐기되었다면 null
      */
-    public Authentication getAuthentication(String jwt) {
-        UserDetails userDetails = this.customUserDetailService
-                .loadUserByUsername(this.getUsername(jwt));
+    public VerifiedToken verify(String token) {
+        // 토큰의 값이 빈 값이라면 (null 이거나, 비어 있거나, 공백으로만 구성된 경우)
+        if (!StringUtils.hasText(token)) {
+            return null;
+        }
 
-        return new UsernamePasswordAuthenticationToken(
-                userDetails, "", userDetails.getAuthorities()
-        );
-    }
+        long now = System.currentTimeMillis();
+        VerifiedToken verified = this.verifiedTokenCache.get(token, now);
+        if (verified == null) {
+            Claims claims = this.parseClaims(token);
+            verified = new VerifiedToken(claims.getId(), claims.getSubject(),
+                    String.valueOf(claims.get(KEY_ROLES)), claims.getExpiration());
 
-    public String getUsername(String token) {
-        return this.parseClaims(token).getSubject();
-    }
+            // 토큰의 만료 시간이 현재 시간보다 이전인지 확인
+            if (verified.isExpired(now)) {
+                return null;
+            }
+            this.verifiedTokenCache.put(token, verified, now);
+        }
 
-    public boolean validateToken(String token) {
-        // 토큰의 값이 빈 값이라면 (null 이거나, 비어 있거나, 공백으로만 구성된 경우)
-        if (!StringUtils.hasText(token)) {
-            return false;
+        if (this.tokenRevocationList.isRevoked(verified.getTokenId())) {
+            return null;
         }
-        Claims claims = this.parseClaims(token);
+        return verified;
+    }
+
+    /**
+     * 검증된 토큰으로 부터 인증 정보를 가져오는 메서드
+     * 사용자는 PrincipalCache 에서 먼저 찾으므로 요청마다 USER 를 조회하지 않는다.
+     * @param verified
+     * @return
+     */
+    public Authentication getAuthentication(VerifiedToken verified) {
+        UserDetails userDetails = this.principalCache.get(
+                verified.getUsername(),
+                this.customUserDetailService::loadUserByUsername);
 
-        // 토큰의 만료 시간이 현재 시간보다 이전인지 확인
-        return !claims.getExpiration().before(new Date());
+        return new UsernamePasswordAuthenticationToken(
+                userDetails, "", userDetails.getAuthorities()
+        );
     }
 
     private Claims parseClaims(String token) {
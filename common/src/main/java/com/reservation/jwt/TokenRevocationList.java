@@ -0,0 +1,192 @@
+package com.reservation.jwt;
+
+import com.reservation.entity.auth.RevokedTokenEntity;
+import com.reservation.repository.auth.RevokedTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 폐기된 액세스 토큰 목록
+ * 1. 폐기하면 REVOKED_TOKEN 에 저장하고, 이 서버의 메모리에도 바로 반영
+ * 2. 주기적으로 REVOKED_TOKEN 의 새 행을 읽어 다른 서버에서 폐기한 토큰도 반영
+ * 3. 토큰 검증은 Bloom filter 로 먼저 거르고, 있을 수도 있는 경우에만 정확한 목록을 확인
+ * 4. 만료된 토큰은 정확한 목록에서 지우고 Bloom filter 를 다시 만들며, 이 때 DB 에서 전부 다시 읽음
+ * <p>
+ * 대부분의 토큰은 폐기되지 않았으므로 Bloom filter 에서 바로 통과하며,
+ * 검증 중에는 DB 를 조회하지 않는다.
+ * 다른 서버에서 폐기한 토큰은 sync 주기만큼 늦게 반영될 수 있다.
+ */
+@Slf4j
+@Component
+public class TokenRevocationList {
+
+    private static final int SYNC_CHUNK_SIZE = 1000;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int expectedInsertions;
+
+    // jti -> 토큰 만료 시각(ms), 만료되기 전까지만 유지
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    private long lastId;
+
+    public TokenRevocationList(
+            RevokedTokenRepository revokedTokenRepository,
+            @Value("${reservation.auth.revocation.expected-insertions:100000}")
+            int expectedInsertions) {
+
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.filter = new BloomFilter(expectedInsertions);
+    }
+
+    /**
+     * 토큰 폐기
+     *
+     * @param tokenId   액세스 토큰의 jti
+     * @param expiresAt 액세스 토큰의 만료 시각, 이후에는 확인할 필요가 없다.
+     */
+    public void revoke(String tokenId, LocalDateTime expiresAt) {
+        this.revokedTokenRepository.save(RevokedTokenEntity.builder()
+                .tokenId(tokenId)
+                .expiresAt(expiresAt)
+                .build());
+        add(tokenId, toMillis(expiresAt));
+        log.info("\u001B[32mtoken revoke -> {}", tokenId + "\u001B[0m");
+    }
+
+    /**
+     * 폐기된 토큰인지 확인, DB 를 조회하지 않는다.
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !this.filter.mightContain(tokenId)) {
+            return false;
+        }
+        return this.revoked.containsKey(tokenId);
+    }
+
+    /**
+     * 마지막으로 읽은 뒤에 폐기된 토큰을 반영
+     */
+    @Scheduled(fixedDelayString = "${reservation.auth.revocation.sync-interval-ms:5000}")
+    public synchronized void sync() {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<RevokedTokenEntity> rows;
+        do {
+            rows = this.revokedTokenRepository.findRevokedAfter(
+                    this.lastId, now, PageRequest.of(0, SYNC_CHUNK_SIZE));
+            for (RevokedTokenEntity row : rows) {
+                add(row.getTokenId(), toMillis(row.getExpiresAt()));
+                this.lastId = row.getId();
+            }
+        } while (rows.size() == SYNC_CHUNK_SIZE);
+    }
+
+    /**
+     * 만료된 토큰을 지우고 Bloom filter 를 새로 만듦
+     * DB 에서 모두 다시 읽으므로 id 순서와 커밋 순서가 달라 sync 가 놓친 행도 반영된다.
+     */
+    @Scheduled(fixedDelayString = "${reservation.auth.revocation.rebuild-interval-ms:600000}",
+            initialDelayString = "${reservation.auth.revocation.rebuild-interval-ms:600000}")
+    public synchronized void rebuild() {
+        int deleted = this.revokedTokenRepository.deleteExpired(LocalDateTime.now());
+
+        long now = System.currentTimeMillis();
+        this.revoked.values().removeIf(expiresAt -> expiresAt <= now);
+
+        // 다 채운 뒤에 교체해야 조회가 빈 filter 를 보지 않는다.
+        BloomFilter rebuilt = new BloomFilter(
+                Math.max(this.expectedInsertions, this.revoked.size() * 2));
+        this.revoked.keySet().forEach(rebuilt::put);
+        this.filter = rebuilt;
+
+        this.lastId = 0L;
+        sync();
+        log.info("\u001B[32mtoken revocation rebuild -> {}, deleted -> {}",
+                this.revoked.size(), deleted + "\u001B[0m");
+    }
+
+    private synchronized void add(String tokenId, long expiresAt) {
+        // 정확한 목록에 먼저 넣어야 filter 를 통과한 조회가 놓치지 않는다.
+        this.revoked.put(tokenId, expiresAt);
+        this.filter.put(tokenId);
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 오탐률 약 1% 의 Bloom filter (원소당 약 10 bit, 해시 7 개)
+     * 넣기는 TokenRevocationList 의 락 안에서만 하고, 조회는 락 없이 한다.
+     */
+    private static final class BloomFilter {
+
+        private static final int BITS_PER_ELEMENT = 10;
+        private static final int HASHES = 7;
+
+        private final AtomicLongArray words;
+        private final long bitCount;
+
+        private BloomFilter(int expectedInsertions) {
+            int wordCount = Math.max(1,
+                    (int) (((long) expectedInsertions * BITS_PER_ELEMENT + 63) / 64));
+            this.words = new AtomicLongArray(wordCount);
+            this.bitCount = wordCount * 64L;
+        }
+
+        private void put(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+
+            for (int i = 1; i <= HASHES; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % this.bitCount;
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                this.words.getAndAccumulate(word, mask, (a, b) -> a | b);
+            }
+        }
+
+        private boolean mightContain(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+
+            for (int i = 1; i <= HASHES; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % this.bitCount;
+                if ((this.words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * 64bit FNV-1a 후 비트를 섞어 상위, 하위 32bit 를 두 해시로 사용
+         */
+        private static long hash(String key) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b & 0xff;
+                hash *= 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
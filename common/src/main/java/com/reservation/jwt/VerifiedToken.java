@@ -0,0 +1,37 @@
+package com.reservation.jwt;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * 서명과 만료 시간을 확인한 JWT 토큰의 내용
+ * 한 번 검증한 뒤에는 다시 파싱하지 않고 이 객체를 그대로 사용한다.
+ */
+@Getter
+public class VerifiedToken {
+
+    // 토큰 id(jti), 폐기 여부 확인에 사용
+    private final String tokenId;
+    private final String username;
+    private final String userRole;
+    private final Date expiration;
+
+    VerifiedToken(String tokenId, String username, String userRole, Date expiration) {
+        this.tokenId = tokenId;
+        this.username = username;
+        this.userRole = userRole;
+        this.expiration = expiration;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return this.expiration.getTime() <= nowMillis;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return LocalDateTime.ofInstant(
+                this.expiration.toInstant(), ZoneId.systemDefault());
+    }
+}
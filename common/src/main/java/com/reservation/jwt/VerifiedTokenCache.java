@@ -0,0 +1,88 @@
+package com.reservation.jwt;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 검증을 마친 JWT 토큰 캐시
+ * 1. 토큰 문자열의 해시로 찾아 검증 결과를 그대로 재사용
+ * 2. 토큰의 만료 시간과 ttl 중 먼저 오는 시간까지만 유지
+ * 3. 최대 개수에 이르면 만료된 항목부터, 그래도 많다면 임의의 항목을 제거
+ * <p>
+ * 같은 토큰으로 요청이 몰려도 HS512 서명 검증과 claims 디코딩은 한 번만 한다.
+ * 키는 토큰 전체이므로 해시가 충돌해도 다른 토큰의 결과를 돌려주지 않는다.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxSize;
+
+    public VerifiedTokenCache(
+            @Value("${reservation.auth.token-cache.ttl-ms:60000}") long ttlMillis,
+            @Value("${reservation.auth.token-cache.max-size:10000}") int maxSize) {
+
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 캐시된 검증 결과, 없거나 만료되었다면 null
+     */
+    public VerifiedToken get(String token, long nowMillis) {
+        Entry entry = this.entries.get(token);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= nowMillis) {
+            this.entries.remove(token, entry);
+            return null;
+        }
+        return entry.verified;
+    }
+
+    public void put(String token, VerifiedToken verified, long nowMillis) {
+        if (this.maxSize <= 0) {
+            return;
+        }
+        if (this.entries.size() >= this.maxSize) {
+            evictOverflow(nowMillis);
+        }
+
+        long expiresAt = Math.min(
+                verified.getExpiration().getTime(), nowMillis + this.ttlMillis);
+        this.entries.put(token, new Entry(verified, expiresAt));
+    }
+
+    public void clear() {
+        this.entries.clear();
+    }
+
+    private void evictOverflow(long nowMillis) {
+        this.entries.values().removeIf(entry -> entry.expiresAt <= nowMillis);
+
+        // 한 번에 10% 여유를 만들어 두어 매 요청마다 전체를 훑지 않도록 한다.
+        int target = this.maxSize - Math.max(1, this.maxSize / 10);
+        Iterator<String> tokens = this.entries.keySet().iterator();
+        while (this.entries.size() > target && tokens.hasNext()) {
+            tokens.next();
+            tokens.remove();
+        }
+    }
+
+    private static final class Entry {
+
+        private final VerifiedToken verified;
+        private final long expiresAt;
+
+        private Entry(VerifiedToken verified, long expiresAt) {
+            this.verified = verified;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
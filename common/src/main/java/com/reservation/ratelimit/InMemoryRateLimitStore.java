@@ -0,0 +1,166 @@
+package com.reservation.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 서버 메모리의 token bucket
+ * 1. bucket 마다 long 하나(다음 토큰이 비는 시각, GCRA)를 CAS 로 갱신하므로 락이 없다.
+ * 2. 토큰이 모두 채워진 bucket 은 새 bucket 과 같으므로 지워도 결과가 달라지지 않는다.
+ * 3. bucket 은 종류(key 의 첫 ':' 앞, 예: ip, account)마다 따로 최대 maxBuckets 개까지 둔다.
+ * 4. 최대값에 이르면 가득 찬 bucket 만 지우며, 지울 것이 없다면 새 key 를 거절한다.
+ * <p>
+ * 토큰을 쓴 bucket 은 지우지 않으므로 임의의 계정 이름을 대량으로 보내도
+ * 다른 계정의 제한을 풀 수 없고, 계정 bucket 이 IP bucket 자리를 차지하지도 않는다.
+ * 가득 찬 종류의 새 key 는 가장 먼저 채워질 bucket 이 채워질 때까지 거절된다.
+ */
+@Component
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    // 지우기로 한 bucket 의 값, 이 값을 본 요청은 bucket 을 다시 찾는다.
+    private static final long REMOVED = Long.MIN_VALUE;
+
+    private final Map<String, Partition> partitions = new ConcurrentHashMap<>();
+    private final int maxBuckets;
+
+    public InMemoryRateLimitStore(
+            @Value("${reservation.rate-limit.max-buckets:100000}") int maxBuckets) {
+        this.maxBuckets = maxBuckets;
+    }
+
+    @Override
+    public long tryAcquire(String key, int capacity, long refillInterval) {
+        long now = System.nanoTime();
+        Partition partition = this.partitions.computeIfAbsent(
+                kind(key), kind -> new Partition());
+
+        while (true) {
+            AtomicLong bucket = partition.buckets.get(key);
+            if (bucket == null) {
+                long wait = partition.reserve(now, this.maxBuckets);
+                if (wait > 0L) {
+                    return wait;
+                }
+                bucket = partition.buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+            }
+
+            long wait = acquire(bucket, now, capacity, refillInterval);
+            if (wait != REMOVED) {
+                return wait;
+            }
+        }
+    }
+
+    /**
+     * bucket 에서 토큰 하나를 꺼냄
+     *
+     * @return 허용되면 0, 아니면 기다려야 하는 시간(ns), 지워진 bucket 이라면 REMOVED
+     */
+    private static long acquire(AtomicLong bucket, long now, int capacity, long refillInterval) {
+        // 모든 토큰을 쓰면 이 시각에서 capacity 개의 간격만큼 앞까지 차 있는 것으로 본다.
+        long tolerance = (capacity - 1) * refillInterval;
+        while (true) {
+            long current = bucket.get();
+            if (current == REMOVED) {
+                return REMOVED;
+            }
+            long theoretical = current - now > 0 ? current : now;
+
+            if (theoretical - now > tolerance) {
+                return theoretical - now - tolerance;
+            }
+            if (bucket.compareAndSet(current, theoretical + refillInterval)) {
+                return 0L;
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Partition partition : this.partitions.values()) {
+            size += partition.buckets.size();
+        }
+        return size;
+    }
+
+    /**
+     * 가득 찬 bucket 을 주기적으로 정리
+     */
+    @Scheduled(fixedDelayString = "${reservation.rate-limit.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        this.partitions.values().forEach(partition -> partition.sweep(now));
+    }
+
+    private static String kind(String key) {
+        int separator = key.indexOf(':');
+        return separator < 0 ? "" : key.substring(0, separator);
+    }
+
+    /**
+     * 한 종류의 bucket 들
+     */
+    private static final class Partition {
+
+        private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        // 가득 찬 bucket 이 없어 새 key 를 거절하는 기한, 그 전에는 다시 훑지 않는다.
+        private volatile long fullUntil;
+        private volatile boolean full;
+
+        /**
+         * 새 bucket 을 둘 자리가 있는지 확인
+         *
+         * @return 자리가 있다면 0, 없다면 가장 먼저 채워질 bucket 이 채워질 때까지의 시간(ns)
+         */
+        private long reserve(long now, int maxBuckets) {
+            if (this.buckets.size() < maxBuckets) {
+                return 0L;
+            }
+            if (this.full && this.fullUntil - now > 0) {
+                return this.fullUntil - now;
+            }
+
+            synchronized (this) {
+                long nextFull = sweep(now);
+                if (this.buckets.size() < maxBuckets) {
+                    this.full = false;
+                    return 0L;
+                }
+
+                this.fullUntil = nextFull;
+                this.full = true;
+                return Math.max(1L, nextFull - now);
+            }
+        }
+
+        /**
+         * 가득 찬 bucket 을 지움
+         *
+         * @return 남은 bucket 중 가장 먼저 가득 차는 시각
+         */
+        private long sweep(long now) {
+            long nextFull = now;
+            boolean remaining = false;
+
+            for (Map.Entry<String, AtomicLong> entry : this.buckets.entrySet()) {
+                AtomicLong bucket = entry.getValue();
+                long refilledAt = bucket.get();
+
+                // 지우는 사이에 토큰을 꺼낸 요청이 있다면 CAS 가 실패하므로 남겨둔다.
+                if (refilledAt - now <= 0 && bucket.compareAndSet(refilledAt, REMOVED)) {
+                    this.buckets.remove(entry.getKey(), bucket);
+                } else if (refilledAt != REMOVED
+                        && (!remaining || refilledAt - nextFull < 0)) {
+                    nextFull = refilledAt;
+                    remaining = true;
+                }
+            }
+            return nextFull;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.reservation.ratelimit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reservation.ratelimit.RateLimitProperties.Route;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 로그인 등 비용이 큰 요청의 횟수 제한
+ * 1. 설정된 route 와 일치하는 요청만 검사
+ * 2. IP 별 bucket 에서 토큰을 꺼내고, 없다면 429
+ * 3. 계정 기준 제한이 있다면 요청 본문의 account 로 bucket 을 찾아 같은 방식으로 검사
+ *    본문은 maxBodyBytes 까지만 읽으며, 더 크다면 읽지 않고 413
+ * 4. 거절할 때는 다음 토큰이 채워질 때까지의 시간을 Retry-After(초)로 알려줌
+ * <p>
+ * JwtAuthenticationFilter 보다 먼저 실행되어 거절된 요청은 토큰 검증이나 BCrypt 계산을 하지 않는다.
+ * IP 는 request.getRemoteAddr() 이므로 프록시 뒤에서는
+ * server.forward-headers-strategy 로 원래 주소를 받도록 설정해야 한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String ACCOUNT_FIELD = "account";
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final RateLimitProperties properties;
+    private final RateLimitStore rateLimitStore;
+    private final ObjectMapper objectMapper;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        Route route = this.properties.isEnabled() ? match(request) : null;
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long wait = acquire("ip:" + route.getName() + ":" + request.getRemoteAddr(),
+                route.getIpCapacity(), route.getIpRefillPerMinute());
+
+        if (wait == 0L && route.getAccountCapacity() > 0) {
+            // 본문은 한 번만 읽을 수 있으므로 읽은 내용을 담아 컨트롤러에 넘긴다.
+            CachedBodyRequest cached = CachedBodyRequest.of(
+                    request, this.properties.getMaxBodyBytes());
+            if (cached == null) {
+                log.warn("request body too large -> {} {}",
+                        request.getRemoteAddr(), request.getRequestURI());
+                writeError(response, HttpStatus.PAYLOAD_TOO_LARGE,
+                        "요청 본문이 너무 큽니다.");
+                return;
+            }
+            request = cached;
+
+            String account = readAccount(cached.body);
+            if (account != null) {
+                wait = acquire("account:" + route.getName() + ":" + account,
+                        route.getAccountCapacity(), route.getAccountRefillPerMinute());
+            }
+        }
+
+        if (wait > 0L) {
+            reject(request, response, wait);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private Route match(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+
+        for (Route route : this.properties.getRoutes()) {
+            if (route.getMethod() != null
+                    && !route.getMethod().equalsIgnoreCase(request.getMethod())) {
+                continue;
+            }
+            if (this.pathMatcher.match(route.getPath(), uri)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private long acquire(String key, int capacity, int refillPerMinute) {
+        if (capacity <= 0 || refillPerMinute <= 0) {
+            return 0L;
+        }
+        return this.rateLimitStore.tryAcquire(
+                key, capacity, NANOS_PER_MINUTE / refillPerMinute);
+    }
+
+    private String readAccount(byte[] body) {
+        try {
+            JsonNode root = this.objectMapper.readTree(body);
+            JsonNode account = root == null ? null : root.get(ACCOUNT_FIELD);
+            return account == null || !account.isTextual() ? null : account.asText();
+        } catch (IOException e) {
+            // 형식이 잘못된 본문은 컨트롤러에서 400 으로 처리
+            return null;
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response,
+                        long waitNanos) throws IOException {
+        long retryAfter = Math.max(1L,
+                (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+
+        log.warn("rate limited -> {} {}, retry after {}s",
+                request.getRemoteAddr(), request.getRequestURI(), retryAfter);
+
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        writeError(response, HttpStatus.TOO_MANY_REQUESTS,
+                "요청이 너무 많습니다. 잠시 후 다시 시도해주세요.");
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status,
+                            String message) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("code", status.value());
+        body.put("message", message);
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        this.objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    /**
+     * 이미 읽은 본문을 다시 읽을 수 있도록 담아두는 요청
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        /**
+         * 본문을 최대 maxBytes 까지 읽어 담음
+         * Content-Length 가 크다면 읽지 않고, 없거나 속인 경우에도 maxBytes 를 넘게 담지 않는다.
+         *
+         * @return 본문이 maxBytes 보다 크다면 null
+         */
+        private static CachedBodyRequest of(HttpServletRequest request, int maxBytes)
+                throws IOException {
+            if (request.getContentLengthLong() > maxBytes) {
+                return null;
+            }
+
+            byte[] body = request.getInputStream().readNBytes(maxBytes + 1);
+            return body.length > maxBytes ? null : new CachedBodyRequest(request, body);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(this.body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * 본문이 이미 메모리에 있으므로 바로 읽을 수 있다고 알리고,
+                 * 다 읽었다면 이어서 onAllDataRead 호출
+                 */
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    Objects.requireNonNull(listener, "listener");
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding == null ? StandardCharsets.UTF_8
+                            : Charset.forName(encoding)));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.reservation.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * route 별 요청 제한 설정 (reservation.rate-limit.routes[n].*)
+ * capacity 개까지 한 번에 허용하고, 그 뒤로는 분당 refill-per-minute 개씩 허용한다.
+ * capacity 가 0 이라면 그 기준으로는 제한하지 않는다.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "reservation.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    // 계정 기준 제한을 위해 읽어 둘 수 있는 요청 본문의 최대 크기, 넘으면 413
+    private int maxBodyBytes = 4096;
+    private List<Route> routes = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Route {
+
+        private String name;
+        private String path;
+        // 비워두면 모든 HTTP 메서드
+        private String method;
+
+        private int ipCapacity;
+        private int ipRefillPerMinute;
+
+        // 요청 본문의 account 로 구분
+        private int accountCapacity;
+        private int accountRefillPerMinute;
+    }
+}
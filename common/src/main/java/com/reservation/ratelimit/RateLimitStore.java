@@ -0,0 +1,22 @@
+package com.reservation.ratelimit;
+
+/**
+ * 요청 제한용 token bucket 저장소
+ * 기본 구현은 서버마다 따로 세는 InMemoryRateLimitStore 이며,
+ * 여러 서버가 한도를 함께 쓰려면 Redis 등에 bucket 을 두는 구현을
+ * '@Primary' 빈으로 등록하여 교체한다.
+ * <p>
+ * 구현은 확인과 차감을 원자적으로 해야 한다. (예: Redis Lua 스크립트)
+ */
+public interface RateLimitStore {
+
+    /**
+     * key 의 bucket 에서 토큰 하나를 꺼냄
+     *
+     * @param key            bucket 이름 (route, IP 또는 계정 포함)
+     * @param capacity       bucket 크기, 한 번에 몰아서 보낼 수 있는 요청 수
+     * @param refillInterval 토큰 하나가 다시 채워지는 간격(ns)
+     * @return 허용되면 0, 아니면 다음 토큰이 채워질 때까지 기다려야 하는 시간(ns)
+     */
+    long tryAcquire(String key, int capacity, long refillInterval);
+}
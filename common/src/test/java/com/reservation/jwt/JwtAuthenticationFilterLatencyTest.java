@@ -0,0 +1,191 @@
+package com.reservation.jwt;
+
+import ch.qos.logback.classic.Level;
+import com.reservation.cache.PrincipalCache;
+import com.reservation.entity.user.UserRole;
+import com.reservation.repository.auth.RevokedTokenRepository;
+import com.reservation.service.CustomUserDetailService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.servlet.FilterChain;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 요청마다 토큰을 세 번 파싱하던 이전 필터와 한 번만 파싱하는 필터의 지연 시간 비교
+ * 1. before: 검증, 인증 정보 조회, 로그에서 각각 서명 검증과 claims 디코딩
+ * 2. after (miss): 검증 결과를 캐시하지 않고 한 번만 파싱
+ * 3. after (hit): 같은 토큰으로 다시 요청하여 캐시된 검증 결과 사용
+ * 충분히 예열한 뒤 p50, p99 를 로그로 남기고, 중간값이 이 순서대로 줄어드는지 확인한다.
+ * 요청마다 남기는 필터 로그는 세 경우 모두 같으므로 측정하는 동안에는 끈다.
+ * 장비에 따라 결과가 달라지므로 기본 test 에서는 제외하고 ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+class JwtAuthenticationFilterLatencyTest {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilterLatencyTest.class);
+    private static final Logger filterLog = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    private static final String SECRET = "test-secret";
+    private static final int TOKENS = 200;
+    private static final int REQUESTS = 20_000;
+    private static final int WARMUP_ROUNDS = 3;
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private final CustomUserDetailService customUserDetailService =
+            mock(CustomUserDetailService.class);
+    // 모의 객체는 호출을 모두 기록하므로 요청마다 호출되는 폐기 목록은 실제 객체를 사용
+    private final TokenRevocationList tokenRevocationList =
+            new TokenRevocationList(mock(RevokedTokenRepository.class), 1_000);
+    private final PrincipalCache principalCache = new PrincipalCache(60_000L, 1_000);
+
+    private final ch.qos.logback.classic.Logger filterLogger =
+            (ch.qos.logback.classic.Logger) filterLog;
+
+    private String[] tokens;
+
+    @BeforeEach
+    void setUp() {
+        this.filterLogger.setLevel(Level.WARN);
+
+        when(this.customUserDetailService.loadUserByUsername(anyString()))
+                .thenAnswer(invocation -> new User(invocation.getArgument(0), "password",
+                        Collections.singletonList(new SimpleGrantedAuthority("CUSTOMER"))));
+
+        JwtTokenProvider issuer = tokenProvider(new VerifiedTokenCache(60_000L, 0));
+        this.tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            this.tokens[i] = issuer.generateToken("customer" + i, UserRole.CUSTOMER).getToken();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.filterLogger.setLevel(null);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void parsingOncePerRequestIsFasterThanParsingThreeTimes() throws Exception {
+        JwtTokenProvider uncached = tokenProvider(new VerifiedTokenCache(60_000L, 0));
+        JwtTokenProvider cached = tokenProvider(new VerifiedTokenCache(60_000L, TOKENS * 2));
+
+        JwtAuthenticationFilter uncachedFilter = new JwtAuthenticationFilter(uncached);
+        JwtAuthenticationFilter cachedFilter = new JwtAuthenticationFilter(cached);
+
+        long[] before = measure(request -> legacyFilter(uncached, request));
+        long[] miss = measure(request -> filter(uncachedFilter, request));
+        long[] hit = measure(request -> filter(cachedFilter, request));
+
+        report("before", before);
+        report("after (miss)", miss);
+        report("after (hit)", hit);
+
+        assertThat(percentile(miss, 50)).isLessThan(percentile(before, 50));
+        assertThat(percentile(hit, 50)).isLessThan(percentile(miss, 50));
+    }
+
+    private JwtTokenProvider tokenProvider(VerifiedTokenCache verifiedTokenCache) {
+        JwtTokenProvider tokenProvider = new JwtTokenProvider(this.customUserDetailService,
+                this.principalCache, verifiedTokenCache, this.tokenRevocationList);
+        ReflectionTestUtils.setField(tokenProvider, "secretKey", SECRET);
+        return tokenProvider;
+    }
+
+    /**
+     * 요청을 미리 만들어 두고 예열 후 한 번씩 처리한 시간(ns)
+     */
+    private long[] measure(RequestHandler handler) throws Exception {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (int i = 0; i < REQUESTS; i++) {
+                handler.handle(request(this.tokens[i % TOKENS]));
+            }
+        }
+
+        MockHttpServletRequest[] requests = new MockHttpServletRequest[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            requests[i] = request(this.tokens[i % TOKENS]);
+        }
+
+        long[] nanos = new long[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            long start = System.nanoTime();
+            handler.handle(requests[i]);
+            nanos[i] = System.nanoTime() - start;
+        }
+        SecurityContextHolder.clearContext();
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static void filter(JwtAuthenticationFilter filter,
+                               MockHttpServletRequest request) throws Exception {
+        filter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+    }
+
+    /**
+     * 이전 필터와 같은 순서로 토큰을 세 번 파싱
+     */
+    private void legacyFilter(JwtTokenProvider tokenProvider, MockHttpServletRequest request) {
+        String token = request.getHeader(JwtAuthenticationFilter.TOKEN_HEADER)
+                .substring(JwtAuthenticationFilter.TOKEN_PREFIX.length());
+
+        // validateToken
+        if (parse(token).getExpiration().before(new Date())) {
+            return;
+        }
+        // getAuthentication -> getUsername
+        VerifiedToken verified = new VerifiedToken(
+                null, parse(token).getSubject(), null, null);
+        SecurityContextHolder.getContext()
+                .setAuthentication(tokenProvider.getAuthentication(verified));
+        // 로그 -> getUsername
+        filterLog.info("\u001B[32m[{}] -> {}", parse(token).getSubject(),
+                request.getRequestURI() + "\u001B[0m");
+    }
+
+    private static Claims parse(String token) {
+        return Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token).getBody();
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/store/1");
+        request.addHeader(JwtAuthenticationFilter.TOKEN_HEADER,
+                JwtAuthenticationFilter.TOKEN_PREFIX + token);
+        return request;
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+
+    private static void report(String name, long[] sorted) {
+        log.info(String.format("jwt filter %s -> p50 %.1fus, p99 %.1fus",
+                name, percentile(sorted, 50) / 1_000.0, percentile(sorted, 99) / 1_000.0));
+    }
+
+    private interface RequestHandler {
+
+        void handle(MockHttpServletRequest request) throws Exception;
+    }
+}
@@ -0,0 +1,67 @@
+package com.reservation.jwt;
+
+import com.reservation.cache.PrincipalCache;
+import com.reservation.entity.user.UserRole;
+import com.reservation.service.CustomUserDetailService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.servlet.FilterChain;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "test-secret";
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private final CustomUserDetailService customUserDetailService =
+            mock(CustomUserDetailService.class);
+    private JwtTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        when(this.customUserDetailService.loadUserByUsername(anyString()))
+                .thenAnswer(invocation -> new User(invocation.getArgument(0), "password",
+                        Collections.singletonList(new SimpleGrantedAuthority("CUSTOMER"))));
+
+        this.tokenProvider = new JwtTokenProvider(this.customUserDetailService,
+                new PrincipalCache(60_000L, 100), new VerifiedTokenCache(60_000L, 100),
+                mock(TokenRevocationList.class));
+        ReflectionTestUtils.setField(this.tokenProvider, "secretKey", SECRET);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void filterAuthenticatesWithSingleVerification() throws Exception {
+        String token = this.tokenProvider.generateToken("customer0", UserRole.CUSTOMER).getToken();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/store/1");
+        request.addHeader(JwtAuthenticationFilter.TOKEN_HEADER,
+                JwtAuthenticationFilter.TOKEN_PREFIX + token);
+
+        new JwtAuthenticationFilter(this.tokenProvider)
+                .doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getName()).isEqualTo("customer0");
+        assertThat(request.getAttribute(JwtAuthenticationFilter.VERIFIED_TOKEN))
+                .isSameAs(this.tokenProvider.verify(token));
+    }
+}
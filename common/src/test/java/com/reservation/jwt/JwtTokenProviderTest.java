@@ -0,0 +1,87 @@
+package com.reservation.jwt;
+
+import com.reservation.cache.PrincipalCache;
+import com.reservation.entity.user.UserRole;
+import com.reservation.service.CustomUserDetailService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "test-secret";
+
+    private final TokenRevocationList tokenRevocationList = mock(TokenRevocationList.class);
+    private VerifiedTokenCache verifiedTokenCache;
+    private JwtTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        this.verifiedTokenCache = new VerifiedTokenCache(60_000L, 100);
+        this.tokenProvider = new JwtTokenProvider(
+                mock(CustomUserDetailService.class), new PrincipalCache(60_000L, 100),
+                this.verifiedTokenCache, this.tokenRevocationList);
+        ReflectionTestUtils.setField(this.tokenProvider, "secretKey", SECRET);
+    }
+
+    @Test
+    void verifyReadsClaimsOfIssuedToken() {
+        AccessToken issued = this.tokenProvider.generateToken("partner", UserRole.PARTNER);
+
+        VerifiedToken verified = this.tokenProvider.verify(issued.getToken());
+
+        assertThat(verified.getUsername()).isEqualTo("partner");
+        assertThat(verified.getUserRole()).isEqualTo(UserRole.PARTNER.toString());
+        assertThat(verified.getTokenId()).isEqualTo(issued.getTokenId());
+    }
+
+    @Test
+    void repeatedVerifyReusesCachedResult() {
+        String token = this.tokenProvider.generateToken("customer", UserRole.CUSTOMER).getToken();
+
+        VerifiedToken first = this.tokenProvider.verify(token);
+
+        assertThat(this.tokenProvider.verify(token)).isSameAs(first);
+        assertThat(this.verifiedTokenCache.get(token, System.currentTimeMillis()))
+                .isSameAs(first);
+    }
+
+    @Test
+    void expiredTokenIsNotVerifiedOrCached() {
+        Claims claims = Jwts.claims().setSubject("customer");
+        String token = Jwts.builder()
+                .setClaims(claims)
+                .setExpiration(new Date(System.currentTimeMillis() - 1_000L))
+                .signWith(SignatureAlgorithm.HS512, SECRET)
+                .compact();
+
+        assertThat(this.tokenProvider.verify(token)).isNull();
+        assertThat(this.verifiedTokenCache.get(token, System.currentTimeMillis())).isNull();
+    }
+
+    @Test
+    void revokedTokenIsRejectedEvenWhenCached() {
+        String token = this.tokenProvider.generateToken("customer", UserRole.CUSTOMER).getToken();
+        assertThat(this.tokenProvider.verify(token)).isNotNull();
+
+        when(this.tokenRevocationList.isRevoked(any())).thenReturn(true);
+
+        assertThat(this.tokenProvider.verify(token)).isNull();
+    }
+
+    @Test
+    void emptyTokenIsNotVerified() {
+        assertThat(this.tokenProvider.verify(null)).isNull();
+        assertThat(this.tokenProvider.verify(" ")).isNull();
+    }
+}
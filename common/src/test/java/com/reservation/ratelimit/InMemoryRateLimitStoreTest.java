@@ -0,0 +1,79 @@
+package com.reservation.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRateLimitStoreTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+    // 한 번 쓰고 나면 바로 가득 차는 bucket
+    private static final long INSTANT = 1L;
+
+    @Test
+    void capacityIsAllowedThenRejectedWithWait() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(100);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(store.tryAcquire("account:signin:victim", 5, MINUTE)).isZero();
+        }
+
+        long wait = store.tryAcquire("account:signin:victim", 5, MINUTE);
+        assertThat(wait).isPositive().isLessThanOrEqualTo(MINUTE);
+    }
+
+    @Test
+    void floodingNewAccountsDoesNotResetLimitedAccount() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(100);
+        for (int i = 0; i < 5; i++) {
+            store.tryAcquire("account:signin:victim", 5, MINUTE);
+        }
+
+        int rejected = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (store.tryAcquire("account:signin:random-" + i, 5, MINUTE) > 0L) {
+                rejected++;
+            }
+        }
+
+        assertThat(rejected).isEqualTo(10_000 - 99);
+        assertThat(store.size()).isEqualTo(100);
+        assertThat(store.tryAcquire("account:signin:victim", 5, MINUTE)).isPositive();
+    }
+
+    @Test
+    void fullAccountBucketsDoNotTakeIpBuckets() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(10);
+        for (int i = 0; i < 10; i++) {
+            store.tryAcquire("account:signin:random-" + i, 5, MINUTE);
+        }
+
+        assertThat(store.tryAcquire("account:signin:another", 5, MINUTE)).isPositive();
+        assertThat(store.tryAcquire("ip:signin:10.0.0.1", 20, MINUTE)).isZero();
+    }
+
+    @Test
+    void refilledBucketsAreEvictedToMakeRoom() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(10);
+        for (int i = 0; i < 10; i++) {
+            store.tryAcquire("ip:signin:10.0.0." + i, 1, INSTANT);
+        }
+
+        assertThat(store.tryAcquire("ip:signin:10.0.1.1", 1, INSTANT)).isZero();
+        assertThat(store.size()).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void sweepRemovesOnlyRefilledBuckets() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(100);
+        store.tryAcquire("ip:signin:refilled", 1, INSTANT);
+        store.tryAcquire("ip:signin:limited", 1, MINUTE);
+
+        store.sweep();
+
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.tryAcquire("ip:signin:limited", 1, MINUTE)).isPositive();
+    }
+}
@@ -0,0 +1,232 @@
+package com.reservation.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reservation.ratelimit.RateLimitProperties.Route;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private static final String SIGNIN = "/api/v1/auth/signin";
+    private static final int MAX_BODY_BYTES = 256;
+
+    private final AtomicReference<String> forwardedBody = new AtomicReference<>();
+    private final FilterChain chain = (request, response) -> this.forwardedBody.set(
+            StreamUtils.copyToString(request.getInputStream(), StandardCharsets.UTF_8));
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        Route route = new Route();
+        route.setName("signin");
+        route.setPath(SIGNIN);
+        route.setMethod("POST");
+        route.setIpCapacity(3);
+        route.setIpRefillPerMinute(3);
+        route.setAccountCapacity(2);
+        route.setAccountRefillPerMinute(2);
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRoutes(Collections.singletonList(route));
+        properties.setMaxBodyBytes(MAX_BODY_BYTES);
+
+        this.filter = new RateLimitFilter(
+                properties, new InMemoryRateLimitStore(100), new ObjectMapper());
+    }
+
+    @Test
+    void ipOverCapacityIsRejectedWithRetryAfter() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(signin("10.0.0.1", "user" + i).getStatus()).isEqualTo(200);
+        }
+
+        MockHttpServletResponse response = signin("10.0.0.1", "user3");
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(Long.parseLong(response.getHeader(HttpHeaders.RETRY_AFTER))).isPositive();
+    }
+
+    @Test
+    void accountIsLimitedAcrossIps() throws Exception {
+        assertThat(signin("10.0.0.1", "victim").getStatus()).isEqualTo(200);
+        assertThat(signin("10.0.0.2", "victim").getStatus()).isEqualTo(200);
+
+        assertThat(signin("10.0.0.3", "victim").getStatus())
+                .isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(signin("10.0.0.3", "someone").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void bufferedBodyIsForwardedToController() throws Exception {
+        signin("10.0.0.1", "customer");
+
+        assertThat(this.forwardedBody.get()).isEqualTo(body("customer"));
+    }
+
+    @Test
+    void declaredOversizedBodyIsRejectedWithoutReading() throws Exception {
+        HttpServletRequest request = new HttpServletRequestWrapper(
+                request("10.0.0.1", oversizedBody())) {
+            @Override
+            public ServletInputStream getInputStream() {
+                throw new AssertionError("body must not be read");
+            }
+        };
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        this.filter.doFilter(request, response, this.chain);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE.value());
+        assertThat(this.forwardedBody.get()).isNull();
+    }
+
+    @Test
+    void undeclaredOversizedBodyIsRejected() throws Exception {
+        // Content-Length 없이 보낸 chunked 본문
+        HttpServletRequest request = new HttpServletRequestWrapper(
+                request("10.0.0.1", oversizedBody())) {
+            @Override
+            public int getContentLength() {
+                return -1;
+            }
+
+            @Override
+            public long getContentLengthLong() {
+                return -1L;
+            }
+        };
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        this.filter.doFilter(request, response, this.chain);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE.value());
+        assertThat(this.forwardedBody.get()).isNull();
+    }
+
+    @Test
+    void bufferedBodyIsReadThroughReadListener() throws Exception {
+        ServletInputStream input = forwardedInputStream(body("customer"));
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> events = new ArrayList<>();
+
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.add("data");
+                byte[] buffer = new byte[8];
+                while (input.isReady() && !input.isFinished()) {
+                    int length = input.read(buffer);
+                    read.write(buffer, 0, length);
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+
+        assertThat(events).containsExactly("data", "done");
+        assertThat(read.toString(StandardCharsets.UTF_8.name())).isEqualTo(body("customer"));
+    }
+
+    @Test
+    void readListenerErrorIsReportedToListener() throws Exception {
+        ServletInputStream input = forwardedInputStream(body("customer"));
+        List<Throwable> errors = new ArrayList<>();
+
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                throw new IOException("closed");
+            }
+
+            @Override
+            public void onAllDataRead() {
+                throw new AssertionError("body was not read");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                errors.add(t);
+            }
+        });
+
+        assertThat(errors).singleElement().isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void otherRoutesAreNotLimited() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/store/1");
+            request.setRemoteAddr("10.0.0.1");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            this.filter.doFilter(request, response, this.chain);
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+    }
+
+    /**
+     * 필터를 통과하여 컨트롤러가 받는 요청의 본문 스트림
+     */
+    private ServletInputStream forwardedInputStream(String body) throws Exception {
+        AtomicReference<ServletRequest> forwarded = new AtomicReference<>();
+        this.filter.doFilter(request("10.0.0.1", body), new MockHttpServletResponse(),
+                (request, response) -> forwarded.set(request));
+        return forwarded.get().getInputStream();
+    }
+
+    private MockHttpServletResponse signin(String ip, String account) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        this.filter.doFilter(request(ip, body(account)), response, this.chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String ip, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", SIGNIN);
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static String oversizedBody() {
+        StringBuilder password = new StringBuilder();
+        while (password.length() <= MAX_BODY_BYTES) {
+            password.append("password");
+        }
+        return "{\"account\":\"customer\",\"password\":\"" + password + "\"}";
+    }
+
+    private static String body(String account) {
+        return "{\"account\":\"" + account + "\",\"password\":\"password\"}";
+    }
+}
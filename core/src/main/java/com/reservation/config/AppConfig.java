@@ -1,15 +0,0 @@
-package com.reservation.config;
-
-import org.apache.commons.collections4.Trie;
-import org.apache.commons.collections4.trie.PatriciaTrie;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-
-@Configuration
-public class AppConfig {
-
-    @Bean
-    public Trie<String, String> trie(){
-        return new PatriciaTrie<>();
-    }
-}
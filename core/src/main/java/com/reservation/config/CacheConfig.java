@@ -0,0 +1,30 @@
+package com.reservation.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+@Configuration
+@EnableCaching
+@RequiredArgsConstructor
+public class CacheConfig {
+
+    // 매장별 평점 분포
+    public static final String RATING_DISTRIBUTION = "ratingDistribution";
+
+    private final CacheManager cacheManager;
+
+    /**
+     * 다른 서버에서 반영된 평점이 오래 남지 않도록 주기적으로 비움
+     */
+    @Scheduled(fixedDelayString = "${reservation.rating.cache-ttl-ms:60000}")
+    public void clearRatingDistribution() {
+        Cache cache = this.cacheManager.getCache(RATING_DISTRIBUTION);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.reservation.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * '@Scheduled' 작업 실행
+ * 스케줄러는 Spring Boot 가 만드는 ThreadPoolTaskScheduler 를 사용하며,
+ * 기본 스레드 수는 1 이므로 spring.task.scheduling.pool.size 를 작업 수 이상으로 설정한다.
+ * 그래야 노쇼 처리, 평점 검증처럼 오래 걸리는 작업이 평점 반영(1초), 토큰 폐기 반영(5초) 같은
+ * 짧은 주기의 작업을 밀리게 하지 않는다.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,68 @@
+package com.reservation.scheduler;
+
+import com.reservation.repository.scheduler.SchedulerLockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DB 기반 스케줄 작업 락
+ * 1. 락이 풀려 있거나(lockedUntil 경과) 이미 이 서버의 락이라면 조건부 UPDATE 로 가져감
+ * 2. 작업 이름의 행이 아직 없다면 INSERT 로 만들며, 동시에 만든 서버 중 하나만 성공
+ * 3. 작업이 끝나면 lockedUntil 을 현재 시각으로 돌려 해제
+ * <p>
+ * 만료 여부는 각 서버의 시계로 판단하므로 서버 간 시계 차이는 lease 보다 충분히 작아야 한다.
+ */
+@Slf4j
+@Component
+public class JpaSchedulerLock implements SchedulerLock {
+
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final String owner;
+
+    public JpaSchedulerLock(SchedulerLockRepository schedulerLockRepository) {
+        this.schedulerLockRepository = schedulerLockRepository;
+        this.owner = hostName() + ":" + UUID.randomUUID();
+    }
+
+    @Override
+    public boolean tryLock(String name, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(lease);
+
+        if (this.schedulerLockRepository.acquire(name, this.owner, now, until) == 1) {
+            return true;
+        }
+        if (this.schedulerLockRepository.existsById(name)) {
+            return false;
+        }
+
+        try {
+            this.schedulerLockRepository.insert(name, this.owner, until);
+            log.info("\u001B[32mscheduler lock created -> {}", name + "\u001B[0m");
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // 다른 서버가 먼저 만들었다면 그 서버가 실행
+            return false;
+        }
+    }
+
+    @Override
+    public void unlock(String name) {
+        this.schedulerLockRepository.release(name, this.owner, LocalDateTime.now());
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.reservation.scheduler;
+
+import java.time.Duration;
+
+/**
+ * 여러 서버 중 한 곳에서만 스케줄 작업을 실행하기 위한 락
+ * 기본 구현은 DB 의 SCHEDULER_LOCK 행을 조건부 UPDATE 로 가져가는 JpaSchedulerLock 이며,
+ * 다른 저장소(예: Redis 의 SET NX PX)를 사용할 때는 해당 구현을
+ * '@Primary' 빈으로 등록하여 교체한다.
+ * <p>
+ * 락은 lease 가 지나면 저절로 풀리므로, lease 는 작업이 끝나는 데 걸리는 시간보다 길거나
+ * 오래 걸리는 작업이라면 중간중간 tryLock 을 다시 호출하여 연장해야 한다.
+ */
+public interface SchedulerLock {
+
+    /**
+     * 작업의 락 획득 시도, 기다리지 않는다.
+     * 이미 이 서버가 가진 락이라면 지금부터 lease 만큼 연장한다.
+     *
+     * @param name  작업 이름
+     * @param lease 락을 유지할 최대 시간
+     * @return 획득했다면 true, 다른 서버가 실행 중이라면 false
+     */
+    boolean tryLock(String name, Duration lease);
+
+    /**
+     * 작업이 끝난 뒤 락 해제, 다른 서버가 바로 가져갈 수 있다.
+     */
+    void unlock(String name);
+}
@@ -3,71 +3,85 @@ package com.reservation.service.auth;
 import com.reservation.auth.signin.SignInRequest;
 import com.reservation.auth.signup.SignUpRequest;
 import com.reservation.auth.signup.SignUpResponse;
+import com.reservation.auth.token.TokenResponse;
+import com.reservation.cache.PrincipalCache;
 import com.reservation.entity.user.UserEntity;
 import com.reservation.exception.extend.AlreadyExistAccountException;
 import com.reservation.exception.extend.MismatchPasswordException;
 import com.reservation.exception.extend.NonExistAccountException;
-import com.reservation.jwt.JwtTokenProvider;
 import com.reservation.repository.user.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
-    private final JwtTokenProvider jwtTokenProvider;
+    private final PasswordHashExecutor passwordHashExecutor;
+    private final RefreshTokenService refreshTokenService;
+    private final PrincipalCache principalCache;
 
     /**
      * 로그인 메서드
      * 1. 계정이 존재하는지 체크
-     * 2. 비밀번호가 일치하는지 체크
-     * 3. 토큰 생성하여 반환
+     * 2. 비밀번호가 일치하는지 PasswordHashExecutor 에서 체크
+     * 3. 액세스 토큰과 리프레시 토큰을 생성하여 반환
+     * 해시 계산은 요청 스레드를 점유하지 않으며, 대기열이 가득 차면 바로 503 을 던진다.
+     * 리프레시 토큰 저장은 해시 스레드가 아닌 afterHash 실행기에서 처리한다.
      *
      * @param request
-     * @return
+     * @return 토큰, 비밀번호가 다르다면 MismatchPasswordException 으로 완료
      */
-    public String login(SignInRequest request) {
+    public CompletableFuture<TokenResponse> login(SignInRequest request) {
         UserEntity userEntity = this.userRepository.findByAccount(
                 request.getAccount()).orElseThrow(NonExistAccountException::new);
 
-        if (!this.passwordEncoder.matches(
-                request.getPassword(), userEntity.getPassword())
-        ) {
-            throw new MismatchPasswordException();
-        }
+        return this.passwordHashExecutor
+                .matches(request.getPassword(), userEntity.getPassword())
+                .thenApplyAsync(matched -> {
+                    if (!matched) {
+                        throw new MismatchPasswordException();
+                    }
 
-        String token = this.jwtTokenProvider.generateToken(
-                userEntity.getAccount(), userEntity.getUserRole());
+                    TokenResponse token =
+                            this.refreshTokenService.issue(userEntity);
 
-        log.info("\u001B[32muser login -> {}", userEntity.getAccount() +
-                "\u001B[0m");
-        return token;
+                    log.info("\u001B[32muser login -> {}", userEntity.getAccount() +
+                            "\u001B[0m");
+                    return token;
+                }, this.passwordHashExecutor.afterHash());
     }
 
     /**
      * 회원가입 메서드
      * 1. 계정 중복 체크
-     * 2. 비밀번호 암호화하여 userEntity 저장
+     * 2. 비밀번호를 PasswordHashExecutor 에서 암호화하여 userEntity 저장
+     * 3. 같은 계정으로 캐시된 사용자가 남아 있지 않도록 제거
+     * 2, 3 의 저장은 해시 스레드가 아닌 afterHash 실행기에서 처리한다.
      *
      * @param request
      * @return
      */
-    public SignUpResponse register(SignUpRequest request) {
+    public CompletableFuture<SignUpResponse> register(SignUpRequest request) {
         String account = request.getAccount();
 
         checkDuplicateAccount(account);
-        UserEntity userEntity = buildUserEntity(request);
-        this.userRepository.save(userEntity);
+        return this.passwordHashExecutor.encode(request.getPassword())
+                .thenApplyAsync(encodedPassword -> {
+                    UserEntity userEntity =
+                            buildUserEntity(request, encodedPassword);
+                    this.userRepository.save(userEntity);
+                    this.principalCache.evict(account);
 
-        log.info("\u001B[32muser register -> {}", userEntity.getAccount() +
-                "\u001B[0m");
-        return SignUpResponse.from(userEntity);
+                    log.info("\u001B[32muser register -> {}", userEntity.getAccount() +
+                            "\u001B[0m");
+                    return SignUpResponse.from(userEntity);
+                }, this.passwordHashExecutor.afterHash());
     }
 
     private void checkDuplicateAccount(String account) {
@@ -78,11 +92,11 @@ public class AuthService {
         }
     }
 
-    private UserEntity buildUserEntity(SignUpRequest signUpRequest) {
+    private UserEntity buildUserEntity(
+            SignUpRequest signUpRequest, String encodedPassword) {
         return UserEntity.builder()
                 .account(signUpRequest.getAccount())
-                .password(this.passwordEncoder
-                        .encode(signUpRequest.getPassword()))
+                .password(encodedPassword)
                 .name(signUpRequest.getName())
                 .userRole(signUpRequest.getUserRole())
                 .build();
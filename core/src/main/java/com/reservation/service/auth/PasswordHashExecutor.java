@@ -0,0 +1,143 @@
+package com.reservation.service.auth;
+
+import com.reservation.exception.extend.PasswordHashBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 비밀번호 해시(BCrypt) 전용 실행기
+ * 1. 정해진 수의 스레드와 크기가 제한된 대기열에서만 해시를 계산
+ * 2. 대기열이 가득 차면 기다리지 않고 PasswordHashBusyException(503)
+ * 3. 해시 소요 시간, 대기열 길이, 거절 수를 기록
+ * <p>
+ * 해시 한 번에 약 100ms 가 걸리므로 요청 스레드에서 계산하면
+ * 로그인이 몰릴 때 톰캣 스레드가 모두 묶여 다른 요청까지 처리하지 못한다.
+ * <p>
+ * 해시가 끝난 뒤의 작업(토큰 저장, 회원 저장 등 DB 쓰기)은 afterHash 실행기에서 처리한다.
+ * 해시 스레드에서 DB 를 기다리면 코어 수만큼뿐인 해시 스레드가 I/O 에 묶여 대기열이 밀린다.
+ * afterHash 대기열은 크기를 제한하지 않지만, 들어오는 작업 수는 해시 대기열이 이미 제한한다.
+ */
+@Slf4j
+@Component
+public class PasswordHashExecutor {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor afterHashExecutor;
+
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashExecutor(
+            PasswordEncoder passwordEncoder,
+            MeterRegistry meterRegistry,
+            @Value("${reservation.auth.hash-threads:0}") int threads,
+            @Value("${reservation.auth.hash-queue-capacity:100}") int queueCapacity,
+            @Value("${reservation.auth.after-hash-threads:10}") int afterHashThreads) {
+
+        this.passwordEncoder = passwordEncoder;
+
+        // 0 이라면 코어 수만큼, 해시는 CPU 만 사용하므로 그 이상은 의미가 없다.
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable,
+                            "password-hash-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        AtomicInteger afterHashSequence = new AtomicInteger();
+        this.afterHashExecutor = new ThreadPoolExecutor(
+                afterHashThreads, afterHashThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable,
+                            "password-after-hash-" + afterHashSequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        Gauge.builder("auth.password.queue.depth", this.executor.getQueue(),
+                        BlockingQueue::size)
+                .description("해시 계산을 기다리는 요청 수")
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder("auth.password.hash")
+                .tag("operation", "encode")
+                .description("비밀번호 해시 소요 시간")
+                .register(meterRegistry);
+        this.matchTimer = Timer.builder("auth.password.hash")
+                .tag("operation", "matches")
+                .description("비밀번호 해시 소요 시간")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.rejected")
+                .description("대기열이 가득 차 거절한 요청 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 비밀번호 암호화
+     *
+     * @throws PasswordHashBusyException 대기열이 가득 찬 경우, 호출한 스레드에서 바로 던진다.
+     */
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(this.encodeTimer,
+                () -> this.passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * 비밀번호 일치 여부
+     *
+     * @throws PasswordHashBusyException 대기열이 가득 찬 경우, 호출한 스레드에서 바로 던진다.
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(this.matchTimer,
+                () -> this.passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * 해시가 끝난 뒤의 작업을 실행할 실행기, thenApplyAsync 등에 넘긴다.
+     */
+    public Executor afterHash() {
+        return this.afterHashExecutor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.executor.shutdown();
+        this.afterHashExecutor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(
+                    () -> timer.record(task), this.executor);
+        } catch (RejectedExecutionException e) {
+            this.rejectedCounter.increment();
+            log.warn("password hash rejected -> {}", this.executor.getQueue().size());
+            throw new PasswordHashBusyException();
+        }
+    }
+}
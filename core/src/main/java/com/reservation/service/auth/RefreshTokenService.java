@@ -0,0 +1,179 @@
+package com.reservation.service.auth;
+
+import com.reservation.auth.token.TokenResponse;
+import com.reservation.entity.auth.RefreshTokenEntity;
+import com.reservation.entity.user.UserEntity;
+import com.reservation.exception.extend.InvalidRefreshTokenException;
+import com.reservation.jwt.AccessToken;
+import com.reservation.jwt.JwtTokenProvider;
+import com.reservation.jwt.TokenRevocationList;
+import com.reservation.jwt.VerifiedToken;
+import com.reservation.repository.auth.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * 리프레시 토큰 발급, 교체(rotate), 폐기
+ * 1. 로그인하면 액세스 토큰과 함께 임의의 리프레시 토큰을 발급하고 해시만 저장
+ * 2. 리프레시 토큰으로 요청하면 그 토큰을 사용 처리하고 새 액세스/리프레시 토큰을 발급
+ * 3. 이미 사용한 토큰이 다시 들어오면 탈취로 보고 같은 family 의 토큰과 액세스 토큰을 모두 폐기
+ * <p>
+ * 액세스 토큰이 만료될 때마다 BCrypt 로 다시 로그인하지 않아도 되며,
+ * 교체는 해시 계산 없이 DB 조회 몇 번으로 끝난다.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationList tokenRevocationList;
+    private final Duration refreshTokenTtl;
+
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(
+            RefreshTokenRepository refreshTokenRepository,
+            JwtTokenProvider jwtTokenProvider,
+            TokenRevocationList tokenRevocationList,
+            @Value("${reservation.auth.refresh-token-ttl-days:14}") long ttlDays) {
+
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.tokenRevocationList = tokenRevocationList;
+        this.refreshTokenTtl = Duration.ofDays(ttlDays);
+    }
+
+    /**
+     * 로그인 후 새 family 로 토큰 발급
+     */
+    @Transactional
+    public TokenResponse issue(UserEntity userEntity) {
+        return issue(userEntity, UUID.randomUUID().toString());
+    }
+
+    /**
+     * 리프레시 토큰 교체
+     * 1. 해시로 토큰을 찾고, 없거나 만료되었다면 InvalidRefreshTokenException
+     * 2. 이미 사용한 토큰이라면 family 전체를 폐기하고 InvalidRefreshTokenException
+     * 3. 사용 처리한 뒤 같은 family 로 새 토큰 발급
+     * 폐기한 내용은 예외를 던져도 커밋한다.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public TokenResponse rotate(String refreshToken) {
+        RefreshTokenEntity current = this.refreshTokenRepository
+                .findByTokenHash(hash(refreshToken))
+                .orElseThrow(InvalidRefreshTokenException::new);
+
+        // 동시에 같은 토큰으로 요청했다면 하나만 사용 처리에 성공한다.
+        if (current.isRevoked()
+                || this.refreshTokenRepository.revokeIfActive(current.getId()) == 0) {
+            log.warn("refresh token reuse -> {}", current.getFamilyId());
+            revokeFamily(current.getFamilyId());
+            throw new InvalidRefreshTokenException();
+        }
+
+        if (current.isExpired(LocalDateTime.now())) {
+            throw new InvalidRefreshTokenException();
+        }
+
+        log.info("\u001B[32mrefresh token rotate -> {}",
+                current.getUserEntity().getAccount() + "\u001B[0m");
+        return issue(current.getUserEntity(), current.getFamilyId());
+    }
+
+    /**
+     * 로그아웃
+     * 현재 액세스 토큰과, 전달받았다면 리프레시 토큰의 family 를 폐기
+     */
+    @Transactional
+    public void signOut(VerifiedToken accessToken, String refreshToken) {
+        if (accessToken != null && accessToken.getTokenId() != null) {
+            this.tokenRevocationList.revoke(
+                    accessToken.getTokenId(), accessToken.getExpiresAt());
+        }
+
+        if (refreshToken != null) {
+            this.refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                    .ifPresent(token -> revokeFamily(token.getFamilyId()));
+        }
+    }
+
+    /**
+     * 만료된 리프레시 토큰 삭제
+     */
+    @Scheduled(fixedDelayString = "${reservation.auth.refresh-token-cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        int deleted = this.refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        log.info("\u001B[32mrefresh token cleanup -> {}", deleted + "\u001B[0m");
+    }
+
+    private TokenResponse issue(UserEntity userEntity, String familyId) {
+        AccessToken accessToken = this.jwtTokenProvider.generateToken(
+                userEntity.getAccount(), userEntity.getUserRole());
+
+        byte[] bytes = new byte[TOKEN_BYTES];
+        this.random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(bytes);
+
+        this.refreshTokenRepository.save(RefreshTokenEntity.builder()
+                .tokenHash(hash(refreshToken))
+                .familyId(familyId)
+                .userEntity(userEntity)
+                .accessTokenId(accessToken.getTokenId())
+                .accessTokenExpiresAt(accessToken.getExpiresAt())
+                .expiresAt(LocalDateTime.now().plus(this.refreshTokenTtl))
+                .revoked(false)
+                .build());
+
+        return TokenResponse.builder()
+                .accessToken(accessToken.getToken())
+                .refreshToken(refreshToken)
+                .build();
+    }
+
+    /**
+     * family 의 리프레시 토큰과 아직 만료되지 않은 액세스 토큰을 모두 폐기
+     */
+    private void revokeFamily(String familyId) {
+        this.refreshTokenRepository.revokeFamily(familyId);
+        this.refreshTokenRepository
+                .findLiveAccessTokens(familyId, LocalDateTime.now())
+                .forEach(token -> this.tokenRevocationList.revoke(
+                        token.getAccessTokenId(), token.getAccessTokenExpiresAt()));
+    }
+
+    /**
+     * 리프레시 토큰은 충분히 긴 임의의 값이므로 솔트 없는 SHA-256 으로 저장해도 된다.
+     */
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16))
+                        .append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.reservation.service.reservation;
+
+import com.reservation.entity.reservation.ReservationStatus;
+import com.reservation.repository.reservation.ReservationRepository;
+import com.reservation.repository.reservation.ReservationSweepView;
+import com.reservation.scheduler.SchedulerLock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 예약 시간이 지나도록 방문 확인하지 않은 'APPROVED' 예약을 'NO_SHOW' 로 변경
+ * 1. 여러 서버 중 SchedulerLock 을 획득한 한 곳에서만 실행
+ * 2. 예약 시간 + grace 가 지난 'APPROVED' 예약을 batchSize 개씩 잠그며 조회
+ * 3. 조회한 예약을 UPDATE 한 번으로 'NO_SHOW' 로 변경하고 커밋
+ * 4. 커밋한 예약의 인원을 시간대 점유 현황에서 뺌
+ * 5. 조회한 개수가 batchSize 보다 적거나 maxBatches 번 반복하면 종료
+ * 6. 다음 배치 전에 락을 lease 만큼 연장하고, 이미 다른 서버가 가져갔다면 종료
+ * <p>
+ * 배치마다 트랜잭션을 나누므로 밀린 예약이 많아도 행 락을 오래 잡지 않으며,
+ * 남은 예약은 다음 실행에서 이어서 처리한다.
+ * 체크인은 예약 시간까지만 가능하므로 grace 동안은 checkIn 이 직접 'NO_SHOW' 로 바꿀 수 있다.
+ */
+@Slf4j
+@Component
+public class NoShowSweeper {
+
+    private static final String LOCK_NAME = "reservation-no-show-sweep";
+
+    private final ReservationRepository reservationRepository;
+    private final SlotOccupancyIndex slotOccupancyIndex;
+    private final SchedulerLock schedulerLock;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration grace;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Duration lockLease;
+
+    private final Timer sweepTimer;
+    private final DistributionSummary sweptSummary;
+    private final Counter skippedCounter;
+
+    public NoShowSweeper(
+            ReservationRepository reservationRepository,
+            SlotOccupancyIndex slotOccupancyIndex,
+            SchedulerLock schedulerLock,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${reservation.no-show.grace-minutes:10}") long graceMinutes,
+            @Value("${reservation.no-show.batch-size:500}") int batchSize,
+            @Value("${reservation.no-show.max-batches:20}") int maxBatches,
+            @Value("${reservation.no-show.lock-lease-ms:300000}") long lockLeaseMillis) {
+
+        this.reservationRepository = reservationRepository;
+        this.slotOccupancyIndex = slotOccupancyIndex;
+        this.schedulerLock = schedulerLock;
+        this.grace = Duration.ofMinutes(graceMinutes);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatches = Math.max(1, maxBatches);
+        this.lockLease = Duration.ofMillis(lockLeaseMillis);
+
+        // 배치마다 커밋하여 잠근 행을 바로 놓아준다.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.sweepTimer = Timer.builder("reservation.no-show.sweep")
+                .description("노쇼 예약 일괄 변경 소요 시간")
+                .register(meterRegistry);
+        this.sweptSummary = DistributionSummary.builder("reservation.no-show.swept")
+                .description("실행마다 'NO_SHOW' 로 변경한 예약 수")
+                .register(meterRegistry);
+        this.skippedCounter = Counter.builder("reservation.no-show.skipped")
+                .description("다른 서버가 실행 중이라 건너뛴 횟수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 이전 실행이 끝난 뒤 sweep-interval 만큼 기다렸다가 다시 실행
+     */
+    @Scheduled(fixedDelayString = "${reservation.no-show.sweep-interval-ms:60000}",
+            initialDelayString = "${reservation.no-show.sweep-interval-ms:60000}")
+    public void sweep() {
+        if (!this.schedulerLock.tryLock(LOCK_NAME, this.lockLease)) {
+            this.skippedCounter.increment();
+            return;
+        }
+
+        try {
+            int swept = this.sweepTimer.record(this::sweepBatches);
+            this.sweptSummary.record(swept);
+
+            if (swept > 0) {
+                log.info("\u001B[32mno-show sweep -> {}", swept + "\u001B[0m");
+            }
+        } finally {
+            this.schedulerLock.unlock(LOCK_NAME);
+        }
+    }
+
+    private int sweepBatches() {
+        // 한 번 실행하는 동안 기준 시각을 고정해야 같은 예약을 다시 읽지 않는다.
+        LocalDateTime before = LocalDateTime.now().minus(this.grace);
+
+        int swept = 0;
+        for (int batch = 0; batch < this.maxBatches; batch++) {
+            List<ReservationSweepView> rows = sweepBatch(before);
+
+            // 커밋된 뒤에 빼야 롤백된 변경이 점유 현황에 남지 않는다.
+            rows.forEach(row -> this.slotOccupancyIndex.release(
+                    row.getStoreId(), row.getReservationTime(), row.getNumberOfPeople()));
+            swept += rows.size();
+
+            if (rows.size() < this.batchSize) {
+                break;
+            }
+            // 배치가 오래 걸려 lease 가 지났다면 다른 서버와 같은 예약을 처리하지 않도록 멈춘다.
+            if (batch + 1 < this.maxBatches
+                    && !this.schedulerLock.tryLock(LOCK_NAME, this.lockLease)) {
+                log.warn("no-show sweep lost lock -> {}", swept);
+                break;
+            }
+        }
+        return swept;
+    }
+
+    /**
+     * 한 배치를 새 트랜잭션에서 변경
+     * 조회한 행은 커밋할 때까지 잠겨 있으므로 조회한 예약이 모두 변경된다.
+     *
+     * @return 'NO_SHOW' 로 변경한 예약
+     */
+    private List<ReservationSweepView> sweepBatch(LocalDateTime before) {
+        List<ReservationSweepView> rows = this.transactionTemplate.execute(status -> {
+            List<ReservationSweepView> overdue = this.reservationRepository
+                    .findSweepViewsForUpdate(ReservationStatus.APPROVED, before,
+                            PageRequest.of(0, this.batchSize));
+            if (overdue.isEmpty()) {
+                return overdue;
+            }
+
+            List<Long> ids = new ArrayList<>(overdue.size());
+            overdue.forEach(row -> ids.add(row.getId()));
+
+            this.reservationRepository.updateStatus(ids,
+                    ReservationStatus.APPROVED, ReservationStatus.NO_SHOW,
+                    LocalDateTime.now());
+            return overdue;
+        });
+        return rows == null ? Collections.emptyList() : rows;
+    }
+}
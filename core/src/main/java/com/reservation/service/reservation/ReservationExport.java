@@ -0,0 +1,101 @@
+package com.reservation.service.reservation;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 예약 내보내기 한 건
+ * 동시 실행 permit 은 writeTo 가 끝날 때, 즉 DB 커서와 커넥션을 모두 돌려준 뒤에 반납한다.
+ * <p>
+ * 요청이 먼저 끝나면(시간 초과, 연결 끊김) cancel 을 호출한다.
+ * 1. 아직 쓰기 전이라면 쓰지 않고 바로 permit 반납
+ * 2. 쓰는 중이라면 등록된 취소 작업(커넥션 중단)을 실행하여 막혀 있는 DB 읽기를 끝내고,
+ *    permit 은 writeTo 가 정리를 마친 뒤 반납
+ * 3. 이미 다 썼다면 아무것도 하지 않음
+ */
+public class ReservationExport {
+
+    private final Writer writer;
+    private final Runnable release;
+    // 이 시간이 지나면 응답을 끊는다.
+    @Getter
+    private final long timeoutMillis;
+
+    private State state = State.READY;
+    private Runnable cancelAction;
+
+    ReservationExport(Writer writer, Runnable release, long timeoutMillis) {
+        this.writer = writer;
+        this.release = release;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        synchronized (this) {
+            if (this.state != State.READY) {
+                return;
+            }
+            this.state = State.WRITING;
+        }
+
+        try {
+            this.writer.write(out, this);
+        } finally {
+            synchronized (this) {
+                this.state = State.DONE;
+                this.cancelAction = null;
+            }
+            this.release.run();
+        }
+    }
+
+    /**
+     * 요청이 끝났을 때 호출, 여러 번 호출해도 된다.
+     */
+    public void cancel() {
+        Runnable action;
+        synchronized (this) {
+            if (this.state == State.READY) {
+                this.state = State.CANCELLED;
+                action = this.release;
+            } else if (this.state == State.WRITING) {
+                this.state = State.CANCELLING;
+                action = this.cancelAction;
+            } else {
+                return;
+            }
+        }
+
+        if (action != null) {
+            action.run();
+        }
+    }
+
+    public synchronized boolean isCancelled() {
+        return this.state == State.CANCELLED || this.state == State.CANCELLING;
+    }
+
+    /**
+     * 쓰는 중에 취소되면 실행할 작업 등록, 이미 취소되었다면 바로 실행
+     */
+    void onCancel(Runnable action) {
+        synchronized (this) {
+            if (this.state != State.CANCELLING) {
+                this.cancelAction = action;
+                return;
+            }
+        }
+        action.run();
+    }
+
+    private enum State {
+        READY, WRITING, CANCELLING, CANCELLED, DONE
+    }
+
+    interface Writer {
+
+        void write(OutputStream out, ReservationExport export) throws IOException;
+    }
+}
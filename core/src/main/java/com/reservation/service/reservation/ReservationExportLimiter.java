@@ -0,0 +1,72 @@
+package com.reservation.service.reservation;
+
+import com.reservation.exception.extend.ReservationExportBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 예약 내보내기 동시 실행 수 제한
+ * 1. 내보내기마다 permit 하나를 얻고, 남은 permit 이 없다면 기다리지 않고 503
+ * 2. 내보내기가 끝나거나 시간 초과로 끊기면 반납
+ * <p>
+ * 내보내기는 클라이언트가 다 받을 때까지 DB 커넥션과 스트리밍 커서를 잡고 있으므로
+ * 동시에 maxConcurrent 개까지만 허용하여 예약 생성 등 다른 요청이 쓸 커넥션을 남겨 둔다.
+ * maxConcurrent 는 커넥션 풀 크기보다 충분히 작게 설정해야 한다.
+ */
+@Component
+public class ReservationExportLimiter {
+
+    private final Semaphore permits;
+    private final long timeoutMillis;
+    private final Counter rejectedCounter;
+
+    public ReservationExportLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${reservation.export.max-concurrent:4}") int maxConcurrent,
+            @Value("${reservation.export.timeout-ms:600000}") long timeoutMillis) {
+
+        int limit = Math.max(1, maxConcurrent);
+        this.permits = new Semaphore(limit);
+        this.timeoutMillis = timeoutMillis;
+
+        Gauge.builder("reservation.export.active", this.permits,
+                        permits -> limit - permits.availablePermits())
+                .description("실행 중인 예약 내보내기 수")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("reservation.export.rejected")
+                .description("동시 실행 수를 넘어 거절한 내보내기 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * permit 하나를 얻음
+     *
+     * @return permit 을 반납하는 작업, 여러 번 실행해도 한 번만 반납한다.
+     */
+    public Runnable acquire() {
+        if (!this.permits.tryAcquire()) {
+            this.rejectedCounter.increment();
+            throw new ReservationExportBusyException();
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                this.permits.release();
+            }
+        };
+    }
+
+    /**
+     * 내보내기 한 건의 최대 시간(ms), 지나면 응답을 끊는다.
+     */
+    public long getTimeoutMillis() {
+        return this.timeoutMillis;
+    }
+}
@@ -1,5 +1,6 @@
 package com.reservation.service.reservation;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.reservation.entity.reservation.ReservationEntity;
 import com.reservation.entity.reservation.ReservationStatus;
 import com.reservation.entity.store.StoreEntity;
@@ -7,19 +8,41 @@ import com.reservation.entity.user.UserEntity;
 import com.reservation.exception.NonExistReservationException;
 import com.reservation.exception.extend.*;
 import com.reservation.repository.reservation.ReservationRepository;
+import com.reservation.repository.reservation.ReservationView;
 import com.reservation.repository.store.StoreRepository;
-import com.reservation.repository.user.UserRepository;
 import com.reservation.reservation.ReservationRequest;
 import com.reservation.reservation.ReservationResponse;
+import com.reservation.service.reservation.lock.BookingLockProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.core.Ordered;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-
-import java.util.Comparator;
-import java.util.List;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -27,24 +50,57 @@ import java.util.stream.Collectors;
 @Transactional
 public class ReservationService {
 
-    private final UserRepository userRepository;
+    private static final long LOCK_WAIT_SECONDS = 3;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int EXPORT_FLUSH_ROWS = 100;
+
     private final StoreRepository storeRepository;
     private final ReservationRepository reservationRepository;
+    private final SlotOccupancyIndex slotOccupancyIndex;
+    private final BookingLockProvider bookingLockProvider;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final ReservationExportLimiter reservationExportLimiter;
+    private final EntityManager entityManager;
 
     /**
      * 예약 생성
+     * 0. 같은 매장, 같은 시간대의 예약 생성을 직렬화하기 위해 락 획득
      * 1. 존재하는 매장인지 체크
      * 2. 예약정보를 담은 엔티티 생성
-     * 3. 같은 이름으로 예약한 게 있는지 체크
+     * 3. 해당 시간대에 예약 인원이 들어갈 수 있는지 체크
      * 4. 예약 저장
+     * 5. 시간대 점유 현황 반영
+     * 6. 커밋한 뒤 락 해제
+     * <p>
+     * 락을 기다리는 동안에는 트랜잭션을 시작하지 않아 DB 커넥션을 잡지 않으므로
+     * 인기 시간대에 요청이 몰려도 다른 매장의 예약은 커넥션을 기다리지 않는다.
      *
      * @param userEntity 예약하려는 유저의 엔티티
      * @param request    요청된 예약 정보
      * @return 예약 정보 반환
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ReservationResponse createReservation(
             UserEntity userEntity, ReservationRequest request) {
 
+        Lock lock = lockSlot(request.getStoreId(), request.getReservationTime());
+        try {
+            // 락을 잡은 뒤 트랜잭션을 시작해야
+            // 앞서 락을 잡았던 예약의 커밋 결과를 조회할 수 있다.
+            return new TransactionTemplate(this.transactionManager).execute(
+                    status -> insertReservation(userEntity, request));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 시간대 락을 잡은 상태에서 트랜잭션 안에서 실행
+     */
+    private ReservationResponse insertReservation(
+            UserEntity userEntity, ReservationRequest request) {
+
         StoreEntity storeEntity =
                 this.storeRepository.findById(request.getStoreId())
                         .orElseThrow(NonExistStoreException::new);
@@ -52,17 +108,147 @@ public class ReservationService {
         ReservationEntity reservationEntity = buildReservationEntity(
                 request, userEntity, storeEntity);
 
-        if (storeEntity.getReservationEntities().contains(reservationEntity)) {
-            throw new AlreadyExistReservationException();
-        }
+        validateTimeSlot(storeEntity.getId(), request.getReservationTime(),
+                request.getNumberOfPeople());
 
         reservationRepository.save(reservationEntity);
+        occupySlot(reservationEntity);
 
         log.info("\u001B[32mreservation create -> {}",
                 reservationEntity.getName() + "\u001B[0m");
         return ReservationResponse.from(reservationEntity);
     }
 
+    /**
+     * 매장의 시간대 락 획득
+     * 호출한 곳에서 트랜잭션이 끝난 뒤(커밋 또는 롤백) 해제해야 한다.
+     *
+     * @param storeId         예약하려는 매장의 id
+     * @param reservationTime 예약하려는 시간
+     */
+    private Lock lockSlot(Long storeId, LocalDateTime reservationTime) {
+        Lock lock = this.bookingLockProvider.getLock(
+                storeId, SlotOccupancyIndex.slotOf(reservationTime));
+
+        try {
+            if (!lock.tryLock(LOCK_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                throw new ReservationLockTimeoutException();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReservationLockTimeoutException();
+        }
+        return lock;
+    }
+
+    /**
+     * 해당 시간대에 예약 인원이 들어갈 수 있는지 확인
+     * 1. 메모리의 점유 현황이 자리가 있다고 답하면 DB 를 조회하지 않고 통과
+     * 2. 자리가 없다고 답했거나 인덱스 범위 밖이라면 30분 시간대의 예약 인원 합계를 DB 에서 확인
+     * 3. DB 에도 자리가 없으면 거절하고, 자리가 있으면 인덱스를 DB 값으로 바로잡음
+     * 인덱스가 어긋나 실제보다 많이 세고 있더라도 예약을 잘못 거절하지 않는다.
+     *
+     * @param storeId         예약하려는 매장의 id
+     * @param reservationTime 예약하려는 시간
+     * @param numberOfPeople  예약 인원
+     */
+    private void validateTimeSlot(
+            Long storeId, LocalDateTime reservationTime, int numberOfPeople) {
+
+        if (this.slotOccupancyIndex.hasCapacity(
+                storeId, reservationTime, numberOfPeople)) {
+            return;
+        }
+
+        LocalDateTime slotStart =
+                SlotOccupancyIndex.slotStart(reservationTime);
+        long reservedPeople = this.reservationRepository.sumNumberOfPeople(
+                storeId,
+                slotStart,
+                slotStart.plusMinutes(SlotOccupancyIndex.SLOT_MINUTES),
+                ReservationStatus.slotOccupying());
+
+        if (reservedPeople + numberOfPeople >
+                this.slotOccupancyIndex.getCapacity()) {
+            throw new AlreadyExistReservationException();
+        }
+
+        this.slotOccupancyIndex.correct(
+                storeId, reservationTime, (int) reservedPeople);
+    }
+
+    /**
+     * 예약 상태 변경과 함께 시간대 점유 현황 반영
+     * 시간대를 점유하지 않던 예약이 점유하게 되면 인원을 더하고,
+     * 점유하던 예약이 거절, 취소 등으로 점유하지 않게 되면 인원을 뺀다.
+     */
+    private void changeStatus(
+            ReservationEntity reservationEntity, ReservationStatus status) {
+
+        boolean wasOccupying =
+                reservationEntity.getReservationStatus().isSlotOccupying();
+
+        reservationEntity.patchStatus(status);
+
+        if (!wasOccupying && status.isSlotOccupying()) {
+            occupySlot(reservationEntity);
+        }
+        if (wasOccupying && !status.isSlotOccupying()) {
+            releaseSlot(reservationEntity);
+        }
+    }
+
+    /**
+     * 시간대 점유 인원 증가
+     * 트랜잭션이 롤백되면 다시 감소
+     */
+    private void occupySlot(ReservationEntity reservationEntity) {
+        Long storeId = reservationEntity.getStoreEntity().getId();
+        LocalDateTime time = reservationEntity.getReservationTime();
+        int people = reservationEntity.getNumberOfPeople();
+
+        this.slotOccupancyIndex.occupy(storeId, time, people);
+        afterCompletion(committed -> {
+            if (!committed) {
+                this.slotOccupancyIndex.release(storeId, time, people);
+            }
+        });
+    }
+
+    /**
+     * 시간대 점유 인원 감소
+     * 트랜잭션이 커밋된 후에 반영
+     */
+    private void releaseSlot(ReservationEntity reservationEntity) {
+        Long storeId = reservationEntity.getStoreEntity().getId();
+        LocalDateTime time = reservationEntity.getReservationTime();
+        int people = reservationEntity.getNumberOfPeople();
+
+        afterCompletion(committed -> {
+            if (committed) {
+                this.slotOccupancyIndex.release(storeId, time, people);
+            }
+        });
+    }
+
+    /**
+     * 현재 트랜잭션이 끝난 뒤 커밋 여부와 함께 callback 호출
+     */
+    private void afterCompletion(Consumer<Boolean> callback) {
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        callback.accept(status == STATUS_COMMITTED);
+                    }
+
+                    @Override
+                    public int getOrder() {
+                        return Ordered.HIGHEST_PRECEDENCE;
+                    }
+                });
+    }
+
     /**
      * ReservationEntity 빌더 패턴으로 생성
      */
@@ -100,7 +286,7 @@ public class ReservationService {
         if (reservationStatus == null) {
             throw new NoExistStatusException();
         }
-        reservationEntity.patchStatus(reservationStatus);
+        changeStatus(reservationEntity, reservationStatus);
 
         log.info("\u001B[32mstatus -> {}",
                 reservationEntity.getReservationStatus() + "\u001B[0m");
@@ -142,7 +328,7 @@ public class ReservationService {
         ReservationEntity reservationEntity =
                 validatePatchCustomer(userId, reservationId);
 
-        reservationEntity.customUserChangeStatusToCanceled();
+        changeStatus(reservationEntity, ReservationStatus.CANCELED);
 
         log.info("\u001B[32m customer status change -> {}",
                 reservationEntity.getReservationStatus() + "\u001B[0m");
@@ -172,57 +358,183 @@ public class ReservationService {
     }
 
     /**
-     * 일반 회원의 모든 예약 가져오기
+     * 일반 회원의 예약 목록 가져오기
+     * 응답에 필요한 컬럼만 최근 예약한 순서대로 페이지 단위로 조회하며,
+     * 예약 엔티티를 영속성 컨텍스트에 올리지 않는다.
      *
-     * @param userId 로그인된 회원의 id
+     * @param userId   로그인된 회원의 id
+     * @param pageable 페이지 번호와 크기 (정렬은 무시)
      */
     @Transactional(readOnly = true)
-    public List<ReservationResponse> getReservation(Long userId) {
-
-        // Security 에서 UserEntity 를 가져오고 getReservationEntities 에 접근하면
-        // Laze 로딩 설정 때문에 접근이 불가.
-        // 이 때문에 id만 가져와서 현재 트랜잭션에서 다시 조회.
-        UserEntity userEntity = this.userRepository.findById(userId)
-                .orElseThrow(NonExistUserException::new);
-
+    public Page<ReservationResponse> getReservation(Long userId, Pageable pageable) {
         log.info("\u001B[32mget reservation customer -> {}",
                 userId + "\u001B[0m");
 
-        // Set -> List 변환하면서 정렬도 함께 처리(예약한 날짜 순서)
-        return userEntity.getReservationEntities().stream()
-                .sorted(Comparator.comparing(ReservationEntity::getCreatedAt)
-                        .reversed())
-                .map(ReservationResponse::from)
-                .collect(Collectors.toList());
+        return this.reservationRepository
+                .findViewsByUserId(userId, limit(pageable))
+                .map(ReservationResponse::from);
     }
 
     /**
-     * 로그인된 파트너 회원이 지정한 매장에 예약돼 있는 모든 정보 가져오기
-     * 1. 매장 검색
-     * 2. 로그인된 유저가 해당 매장의 점주인지 확인
+     * 로그인된 파트너 회원이 지정한 매장의 예약 목록 가져오기
+     * 1. 로그인된 유저가 해당 매장의 점주인지 확인 (점주 id 만 조회)
+     * 2. 기간, 상태 조건에 맞는 예약을 예약 시간 순서대로 페이지 단위로 조회
+     * 응답에 필요한 컬럼만 읽으며, 예약 엔티티를 영속성 컨텍스트에 올리지 않는다.
      *
      * @param userEntity 로그인된 유저의 엔티티
      * @param storeId    확인하려는 매장의 아이디
+     * @param from       예약 날짜 시작 (포함, 생략 가능)
+     * @param to         예약 날짜 끝 (포함, 생략 가능)
+     * @param status     예약 상태 (생략 가능)
+     * @param pageable   페이지 번호와 크기 (정렬은 무시)
+     */
+    @Transactional(readOnly = true)
+    public Page<ReservationResponse> getReservation(
+            UserEntity userEntity, Long storeId,
+            LocalDate from, LocalDate to, String status, Pageable pageable) {
+
+        validateStoreOwner(userEntity, storeId);
+        validateDateRange(from, to);
+
+        log.info("\u001B[32mget partner reservation -> {}", storeId + "\u001B[0m");
+
+        return this.reservationRepository
+                .findViewsByStoreId(storeId, startOf(from), endOf(to),
+                        parseStatus(status), limit(pageable))
+                .map(ReservationResponse::from);
+    }
+
+    /**
+     * 매장의 예약을 NDJSON(한 줄에 예약 하나)으로 내보내기
+     * 1. 요청 스레드에서 점주인지, 조건이 올바른지 먼저 확인
+     * 2. 동시 실행 permit 을 얻고, 없다면 ReservationExportBusyException(503)
+     * 3. 응답을 쓸 때 읽기 전용 트랜잭션을 열고 DB 커서로 예약을 하나씩 읽어 바로 씀
+     * 4. 쓰는 중에 요청이 끝나면(시간 초과 등) 트랜잭션의 커넥션을 중단하여 막혀 있는 커서 읽기를 끝냄
+     * 전체 목록을 메모리에 만들지 않으므로 매장의 예약 이력이 많아도 메모리 사용량이 일정하다.
+     *
+     * @param userEntity 로그인된 유저의 엔티티
+     * @param storeId    내보내려는 매장의 아이디
+     * @param from       예약 날짜 시작 (포함, 생략 가능)
+     * @param to         예약 날짜 끝 (포함, 생략 가능)
+     * @param status     예약 상태 (생략 가능)
+     * @return 응답 본문을 쓰는 ReservationExport, 요청이 끝나면 cancel 해야 한다.
      */
     @Transactional(readOnly = true)
-    public List<ReservationResponse> getReservation(
-            UserEntity userEntity, Long storeId) {
+    public ReservationExport exportReservations(
+            UserEntity userEntity, Long storeId,
+            LocalDate from, LocalDate to, String status) {
+
+        validateStoreOwner(userEntity, storeId);
+        validateDateRange(from, to);
+        ReservationStatus reservationStatus = parseStatus(status);
+
+        TransactionTemplate readOnly =
+                new TransactionTemplate(this.transactionManager);
+        readOnly.setReadOnly(true);
+
+        Runnable release = this.reservationExportLimiter.acquire();
+        log.info("\u001B[32mexport partner reservation -> {}", storeId + "\u001B[0m");
+
+        return new ReservationExport((out, export) -> {
+            try {
+                readOnly.executeWithoutResult(transaction -> {
+                    Connection connection = this.entityManager.unwrap(Session.class)
+                            .doReturningWork(jdbcConnection -> jdbcConnection);
+                    export.onCancel(() -> abort(connection, storeId));
+
+                    try (Stream<ReservationView> views = this.reservationRepository
+                            .streamViewsByStoreId(storeId, startOf(from), endOf(to),
+                                    reservationStatus)) {
+                        writeNdjson(views, out, export);
+                    } catch (IOException e) {
+                        // 클라이언트가 연결을 끊은 경우, 커서를 닫고 트랜잭션을 끝낸다.
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }, release, this.reservationExportLimiter.getTimeoutMillis());
+    }
+
+    private void writeNdjson(Stream<ReservationView> views, OutputStream out,
+                             ReservationExport export) throws IOException {
+        int written = 0;
+
+        for (Iterator<ReservationView> it = views.iterator(); it.hasNext(); ) {
+            if (export.isCancelled()) {
+                throw new InterruptedIOException("export cancelled");
+            }
+            out.write(this.objectMapper.writeValueAsBytes(
+                    ReservationResponse.from(it.next())));
+            out.write('\n');
+
+            if (++written % EXPORT_FLUSH_ROWS == 0) {
+                out.flush();
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * 다른 스레드에서 커서를 읽고 있는 커넥션 중단
+     * 읽던 스레드는 SQLException 으로 트랜잭션을 끝내고, 커넥션 풀은 중단된 커넥션을 버린다.
+     */
+    private static void abort(Connection connection, Long storeId) {
+        try {
+            connection.abort(Runnable::run);
+            log.warn("export cancelled -> {}", storeId);
+        } catch (SQLException e) {
+            log.error("export abort failed -> {}", storeId, e);
+        }
+    }
 
-        StoreEntity storeEntity = this.storeRepository.findById(storeId)
+    private static void validateDateRange(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidDateRangeException();
+        }
+    }
+
+    private static ReservationStatus parseStatus(String status) {
+        if (status == null) {
+            return null;
+        }
+        ReservationStatus reservationStatus = ReservationStatus.from(status);
+        if (reservationStatus == null) {
+            throw new NoExistStatusException();
+        }
+        return reservationStatus;
+    }
+
+    private static LocalDateTime startOf(LocalDate from) {
+        return from == null ? null : from.atStartOfDay();
+    }
+
+    /**
+     * 끝 날짜를 포함하도록 다음 날 0시 (미포함)
+     */
+    private static LocalDateTime endOf(LocalDate to) {
+        return to == null ? null : to.plusDays(1).atStartOfDay();
+    }
+
+    /**
+     * 매장이 존재하고 로그인된 유저가 점주인지 확인
+     */
+    private void validateStoreOwner(UserEntity userEntity, Long storeId) {
+        Long ownerId = this.storeRepository.findOwnerIdById(storeId)
                 .orElseThrow(NonExistStoreException::new);
 
-        if (!storeEntity.getUserEntity().equals(userEntity)) {
+        if (!Objects.equals(ownerId, userEntity.getId())) {
             throw new NoStoreOwnerException();
         }
+    }
 
-        log.info("\u001B[32mget partner reservation -> {}", storeId + "\u001B[0m");
-
-        return storeEntity
-                .getReservationEntities()
-                .stream()
-                .sorted(Comparator.comparing(ReservationEntity::getCreatedAt))
-                .map(ReservationResponse::from)
-                .collect(Collectors.toList());
+    /**
+     * 정렬은 쿼리의 인덱스 순서를 따르므로 버리고, 크기는 MAX_PAGE_SIZE 이하로 제한
+     */
+    private static Pageable limit(Pageable pageable) {
+        return PageRequest.of(pageable.getPageNumber(),
+                Math.min(Math.max(pageable.getPageSize(), 1), MAX_PAGE_SIZE));
     }
 
     /**
@@ -242,10 +554,10 @@ public class ReservationService {
 
         // 유효한 예약인지 검증
         if (!reservationEntity.isValidReservation()) {
-            reservationEntity.patchStatus(ReservationStatus.NO_SHOW);
+            changeStatus(reservationEntity, ReservationStatus.NO_SHOW);
             throw new NonValidReservationException();
         }
-        reservationEntity.patchStatus(ReservationStatus.VISITED);
+        changeStatus(reservationEntity, ReservationStatus.VISITED);
 
         log.info("\u001B[32mcheck-in -> {}", reservationId + "\u001B[0m");
         return ReservationResponse.from(reservationEntity);
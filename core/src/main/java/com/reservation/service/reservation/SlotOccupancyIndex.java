@@ -0,0 +1,295 @@
+package com.reservation.service.reservation;
+
+import com.reservation.entity.reservation.ReservationStatus;
+import com.reservation.repository.reservation.ReservationRepository;
+import com.reservation.repository.reservation.ReservationSlotView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 매장별 30분 단위 시간대의 예약 인원을 메모리에 유지하는 인덱스
+ * 1. 매장에 처음 접근할 때 오늘부터 horizonDays 일 동안의 예약을 DB 에서 읽어 적재
+ * 2. 예약 생성, 취소, 거절 시 ReservationService 가 인원을 더하거나 뺀다.
+ * 3. 적재한 지 하루가 지난 매장은 다음 접근 시 다시 적재
+ * <p>
+ * 예약 생성은 인덱스가 자리가 있다고 답하면 DB 를 조회하지 않고 진행하며,
+ * 자리가 없다고 답한 경우에만 DB 에서 다시 확인하고 어긋난 시간대는 correct 로 바로잡는다.
+ * 인덱스가 실제보다 많이 세고 있더라도 잘못된 거절은 생기지 않는다.
+ * 다른 서버에서 생성한 예약은 다음 적재 때 반영되므로 매장별 예약은 한 서버로 보내야 한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SlotOccupancyIndex {
+
+    public static final int SLOT_MINUTES = 30;
+    private static final int SLOT_SECONDS = SLOT_MINUTES * 60;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    private final ReservationRepository reservationRepository;
+    private final ConcurrentMap<Long, CompletableFuture<StoreSlots>> stores =
+            new ConcurrentHashMap<>();
+
+    @Value("${reservation.slot.capacity:10}")
+    private int capacity;
+
+    @Value("${reservation.slot.horizon-days:14}")
+    private int horizonDays;
+
+    /**
+     * 시간대당 수용 가능한 최대 인원
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * 해당 시간대에 people 명이 더 들어갈 수 있는지 확인
+     * 인덱스 범위 밖의 시간대는 판단할 수 없으므로 false 를 반환하여 DB 에서 확인하게 한다.
+     *
+     * @param storeId 매장 id
+     * @param time    예약 시간
+     * @param people  예약 인원
+     */
+    public boolean hasCapacity(Long storeId, LocalDateTime time, int people) {
+        long slot = slotOf(time);
+        StoreSlots slots = slots(storeId);
+
+        return slots.covers(slot) &&
+                slots.seats(slot) + people <= this.capacity;
+    }
+
+    /**
+     * 해당 시간대의 예약 인원 증가
+     */
+    public void occupy(Long storeId, LocalDateTime time, int people) {
+        long slot = slotOf(time);
+        StoreSlots slots = slots(storeId);
+
+        if (slots.covers(slot)) {
+            slots.add(slot, people);
+        }
+    }
+
+    /**
+     * 해당 시간대의 예약 인원 감소
+     */
+    public void release(Long storeId, LocalDateTime time, int people) {
+        long slot = slotOf(time);
+        StoreSlots slots = loaded(storeId);
+
+        if (slots != null && slots.covers(slot)) {
+            slots.add(slot, -people);
+        }
+    }
+
+    /**
+     * DB 에서 확인한 시간대의 예약 인원으로 인덱스를 바로잡음
+     *
+     * @param storeId 매장 id
+     * @param time    예약 시간
+     * @param seats   DB 에서 확인한 시간대의 예약 인원
+     */
+    public void correct(Long storeId, LocalDateTime time, int seats) {
+        long slot = slotOf(time);
+        StoreSlots slots = loaded(storeId);
+
+        if (slots != null && slots.covers(slot) && slots.seats(slot) != seats) {
+            log.warn("slot index drift -> {} {}", storeId, slotStart(time));
+            slots.set(slot, seats);
+        }
+    }
+
+    /**
+     * [from, to] 날짜 범위가 인덱스가 유지하는 범위(오늘부터 horizonDays 일) 안인지 확인
+     */
+    public boolean covers(LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now();
+
+        return !from.isBefore(today) && !to.isBefore(from) &&
+                !to.isAfter(today.plusDays(this.horizonDays));
+    }
+
+    /**
+     * from 날짜부터 days 일 동안의 시간대별 예약 인원
+     * 날짜 하나당 48개의 시간대가 순서대로 담긴다.
+     * 범위는 covers 로 먼저 확인해야 하며, 그 사이 날짜가 바뀌어 범위를 벗어난 시간대는 0 이다.
+     *
+     * @param storeId 매장 id
+     * @param from    시작 날짜
+     * @param days    조회할 일 수
+     */
+    public int[] getSeats(Long storeId, LocalDate from, int days) {
+        return slots(storeId).copy(
+                slotOf(from.atStartOfDay()), days * SLOTS_PER_DAY);
+    }
+
+    /**
+     * 삭제된 매장의 점유 현황 제거
+     */
+    public void evict(Long storeId) {
+        this.stores.remove(storeId);
+    }
+
+    /**
+     * time 이 속한 30분 단위 시간대의 시작 시간
+     */
+    public static LocalDateTime slotStart(LocalDateTime time) {
+        return toTime(slotOf(time));
+    }
+
+    /**
+     * time 이 속한 30분 단위 시간대 번호
+     */
+    public static long slotOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), SLOT_SECONDS);
+    }
+
+    private static LocalDateTime toTime(long slot) {
+        return LocalDateTime.ofEpochSecond(
+                slot * SLOT_SECONDS, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * 매장의 점유 현황을 가져오고, 없거나 오래됐다면 DB 에서 적재
+     * 1. 적재 중인 future 를 먼저 맵에 올려 같은 매장을 동시에 처음 조회해도 한 번만 적재
+     * 2. DB 조회는 맵 밖에서 하므로 같은 버킷의 다른 매장 조회를 막지 않는다.
+     * 3. 같은 매장을 기다리던 요청은 적재가 끝나면 모두 같은 점유 현황을 사용
+     */
+    private StoreSlots slots(Long storeId) {
+        long today = slotOf(LocalDateTime.now().toLocalDate().atStartOfDay());
+
+        while (true) {
+            CompletableFuture<StoreSlots> current = this.stores.get(storeId);
+            StoreSlots slots = current == null ? null : loaded(current);
+
+            if (current != null && (slots == null || slots.from >= today)) {
+                return slots != null ? slots : await(current);
+            }
+
+            CompletableFuture<StoreSlots> loading = new CompletableFuture<>();
+            boolean claimed = current == null
+                    ? this.stores.putIfAbsent(storeId, loading) == null
+                    : this.stores.replace(storeId, current, loading);
+            if (!claimed) {
+                continue;
+            }
+
+            try {
+                StoreSlots loadedSlots = load(storeId, today);
+                loading.complete(loadedSlots);
+                return loadedSlots;
+            } catch (RuntimeException e) {
+                this.stores.remove(storeId, loading);
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 적재가 끝난 매장의 점유 현황, 적재 전이거나 적재 중이라면 null
+     */
+    private StoreSlots loaded(Long storeId) {
+        CompletableFuture<StoreSlots> slots = this.stores.get(storeId);
+        return slots == null ? null : loaded(slots);
+    }
+
+    private static StoreSlots loaded(CompletableFuture<StoreSlots> slots) {
+        return slots.isDone() && !slots.isCompletedExceptionally()
+                ? slots.join()
+                : null;
+    }
+
+    /**
+     * 다른 요청이 적재 중인 점유 현황을 기다림
+     * 적재가 실패했다면 그 예외를 그대로 던진다.
+     */
+    private static StoreSlots await(CompletableFuture<StoreSlots> slots) {
+        try {
+            return slots.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private StoreSlots load(Long storeId, long from) {
+        // 오늘 하루를 더해 하루 동안은 horizonDays 범위를 모두 덮도록 한다.
+        int size = (this.horizonDays + 1) * SLOTS_PER_DAY;
+        StoreSlots slots = new StoreSlots(from, size);
+
+        List<ReservationSlotView> views = this.reservationRepository
+                .findSlotViews(storeId, toTime(from), toTime(from + size),
+                        ReservationStatus.slotOccupying());
+
+        for (ReservationSlotView view : views) {
+            slots.add(slotOf(view.getReservationTime()),
+                    view.getNumberOfPeople());
+        }
+
+        log.info("\u001B[32mslot index load -> {}", storeId + "\u001B[0m");
+        return slots;
+    }
+
+    /**
+     * 한 매장의 시간대별 예약 인원
+     * seats[i] 는 from + i 번째 시간대의 예약 인원
+     */
+    private static final class StoreSlots {
+
+        private final long from;
+        private final int[] seats;
+
+        private StoreSlots(long from, int size) {
+            this.from = from;
+            this.seats = new int[size];
+        }
+
+        private boolean covers(long slot) {
+            return slot >= this.from && slot < this.from + this.seats.length;
+        }
+
+        private synchronized int seats(long slot) {
+            return this.seats[(int) (slot - this.from)];
+        }
+
+        /**
+         * 범위를 벗어난 시간대는 0 으로 채움
+         * covers 로 확인한 뒤 자정이 지나 다시 적재되었다면 범위가 하루 밀려 있을 수 있다.
+         */
+        private synchronized int[] copy(long slot, int count) {
+            int[] copied = new int[count];
+            long start = Math.max(slot, this.from);
+            long end = Math.min(slot + count, this.from + this.seats.length);
+
+            if (start < end) {
+                System.arraycopy(this.seats, (int) (start - this.from),
+                        copied, (int) (start - slot), (int) (end - start));
+            }
+            return copied;
+        }
+
+        private synchronized void add(long slot, int people) {
+            int index = (int) (slot - this.from);
+            this.seats[index] = Math.max(0, this.seats[index] + people);
+        }
+
+        private synchronized void set(long slot, int people) {
+            this.seats[(int) (slot - this.from)] = Math.max(0, people);
+        }
+    }
+}
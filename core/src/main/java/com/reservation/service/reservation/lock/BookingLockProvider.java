@@ -0,0 +1,22 @@
+package com.reservation.service.reservation.lock;
+
+import java.util.concurrent.locks.Lock;
+
+/**
+ * 같은 매장, 같은 시간대의 예약 생성을 직렬화하기 위한 락 제공자
+ * 기본 구현은 단일 서버용 StripedBookingLockProvider 이며,
+ * 여러 서버로 운영할 때는 분산 락(예: Redisson 의 RLock)을 반환하는 구현을
+ * '@Primary' 빈으로 등록하여 교체한다.
+ * <p>
+ * 반환된 락은 획득한 스레드에서 해제할 수 있어야 한다.
+ */
+public interface BookingLockProvider {
+
+    /**
+     * 매장의 시간대에 해당하는 락 반환
+     *
+     * @param storeId 매장 id
+     * @param slot    30분 단위 시간대 번호
+     */
+    Lock getLock(Long storeId, long slot);
+}
@@ -0,0 +1,39 @@
+package com.reservation.service.reservation.lock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 단일 서버용 락 제공자
+ * (매장, 시간대) 마다 락을 만들지 않고 고정된 개수의 락을 나누어 쓴다.
+ * 서로 다른 매장의 예약은 대부분 다른 락을 사용하므로 병렬로 처리된다.
+ */
+@Component
+public class StripedBookingLockProvider implements BookingLockProvider {
+
+    private final Lock[] stripes;
+    private final int mask;
+
+    public StripedBookingLockProvider(
+            @Value("${reservation.lock.stripes:256}") int stripes) {
+
+        // 비트 연산으로 stripe 를 고르기 위해 2의 거듭제곱으로 맞춤
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new Lock[size];
+        this.mask = size - 1;
+
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public Lock getLock(Long storeId, long slot) {
+        long hash = storeId * 0x9E3779B97F4A7C15L ^ slot;
+        hash ^= hash >>> 32;
+        return this.stripes[(int) hash & this.mask];
+    }
+}
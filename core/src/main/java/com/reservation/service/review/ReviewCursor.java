@@ -0,0 +1,47 @@
+package com.reservation.service.review;
+
+import com.reservation.entity.review.ReviewEntity;
+import com.reservation.exception.extend.InvalidCursorException;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 리뷰 목록의 다음 페이지 위치 (마지막 리뷰의 작성 시간, id)
+ * 클라이언트에는 내용을 알 수 없는 문자열로 전달
+ */
+@Getter
+public class ReviewCursor {
+
+    private static final String DELIMITER = "|";
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    private ReviewCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static String encode(ReviewEntity reviewEntity) {
+        String raw = reviewEntity.getCreatedAt() + DELIMITER + reviewEntity.getId();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ReviewCursor decode(String cursor) {
+        try {
+            String raw = new String(
+                    Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(DELIMITER);
+
+            return new ReviewCursor(
+                    LocalDateTime.parse(raw.substring(0, index)),
+                    Long.parseLong(raw.substring(index + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException();
+        }
+    }
+}
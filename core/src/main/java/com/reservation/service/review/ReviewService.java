@@ -4,22 +4,25 @@ import com.reservation.entity.reservation.ReservationEntity;
 import com.reservation.entity.reservation.ReservationStatus;
 import com.reservation.entity.review.Rating;
 import com.reservation.entity.review.ReviewEntity;
-import com.reservation.entity.store.StoreEntity;
 import com.reservation.entity.user.UserEntity;
 import com.reservation.exception.NonExistReservationException;
 import com.reservation.exception.extend.*;
 import com.reservation.repository.reservation.ReservationRepository;
 import com.reservation.repository.review.ReviewRepository;
-import com.reservation.repository.store.StoreRepository;
 import com.reservation.review.ReviewRequest;
 import com.reservation.review.ReviewResponse;
+import com.reservation.review.ReviewSliceResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 
 @Slf4j
 @Service
@@ -29,7 +32,9 @@ public class ReviewService {
 
     private final ReviewRepository reviewRepository;
     private final ReservationRepository reservationRepository;
-    private final StoreRepository storeRepository;
+    private final StoreRatingAggregator storeRatingAggregator;
+
+    private static final int MAX_SLICE_SIZE = 100;
 
     /**
      * 새로운 리뷰를 작성
@@ -37,7 +42,7 @@ public class ReviewService {
      * 2. 평점이 0.5점 단위인지 확인
      * 3. 중복 리뷰 확인
      * 5. 리뷰 정보 저장
-     * 6. 해당 매장의 평균 별점 업데이트
+     * 6. 해당 매장의 평점 정보(평점별 리뷰 수, 합계, 리뷰 수) 업데이트
      *
      * @param userEntity 리뷰 작성자의 엔티티
      * @param request    리뷰 작성 요청 정보
@@ -59,8 +64,10 @@ public class ReviewService {
         ReviewEntity reviewEntity = this.reviewRepository.save(
                 buildReviewEntity(userEntity, reservationEntity, request)
         );
-        // 매장의 평균 평점 업데이트
-        updateStoreAverageRating(reviewEntity.getStoreEntity().getId());
+        // 매장의 평점 정보 업데이트
+        this.storeRatingAggregator.ratingAdded(
+                reviewEntity.getStoreEntity().getId(),
+                reviewEntity.getRatingValue());
 
         log.info("\u001B[32mcreate review  -> {}",
                 reviewEntity.getId() + "\u001B[0m");
@@ -72,7 +79,7 @@ public class ReviewService {
      * 1. 유효한 리뷰인지 확인
      * 2. 평점이 0.5점 단위인지 확인
      * 2. 리뷰 업데이트
-     * 3. 해당 매장의 평점 업데이트
+     * 3. 해당 매장의 평점 정보를 이전 평점과의 차이만큼 업데이트
      *
      * @param userEntity 리뷰를 수정하려는 작성자의 엔티티
      * @param reviewId   수정하려는 리뷰의 id
@@ -86,10 +93,13 @@ public class ReviewService {
         // 평점이 0.5점 단위인지 확인
         isValidRatingIncrement(request.getRating());
 
+        int previousRating = reviewEntity.getRatingValue();
         // 리뷰 정보 업데이트
         reviewEntity.update(request.getContent(), request.getRating());
-        // 리뷰를 작성한 매장의 평균 평점 업데이트
-        updateStoreAverageRating(reviewEntity.getStoreEntity().getId());
+        // 리뷰를 작성한 매장의 평점 정보 업데이트
+        this.storeRatingAggregator.ratingChanged(
+                reviewEntity.getStoreEntity().getId(),
+                previousRating, reviewEntity.getRatingValue());
 
         return ReviewResponse.from(reviewEntity);
     }
@@ -99,7 +109,7 @@ public class ReviewService {
      * 1. 리뷰 존재하는지 확인
      * 2. 리뷰 자격 확인
      * 3. 리뷰 삭제
-     * 4. 리뷰를 작성했던 매장의 평균 평점 업데이트
+     * 4. 리뷰를 작성했던 매장의 평점 정보에서 제외
      *
      * @param userEntity 리뷰 삭제를 요청한 회원
      * @param reviewId   삭제할 리뷰 id
@@ -112,8 +122,10 @@ public class ReviewService {
         validateDeleteReview(userEntity, reviewEntity);
         // 리뷰 삭제
         this.reviewRepository.delete(reviewEntity);
-        // 매장의 평균 평점 업데이트
-        updateStoreAverageRating(reviewEntity.getStoreEntity().getId());
+        // 매장의 평점 정보에서 제외
+        this.storeRatingAggregator.ratingRemoved(
+                reviewEntity.getStoreEntity().getId(),
+                reviewEntity.getRatingValue());
 
         return reviewId;
     }
@@ -129,6 +141,49 @@ public class ReviewService {
                 .map(ReviewResponse::from);
     }
 
+    /**
+     * 매장의 리뷰 목록을 커서 방식으로 조회
+     * 1. 커서가 없다면 최신 리뷰부터, 있다면 커서 이후의 리뷰를 size + 1 개 조회
+     * 2. size 보다 많이 조회됐다면 다음 페이지가 있으므로 마지막 리뷰로 다음 커서 생성
+     * 전체 개수를 세지 않으며, 페이지가 깊어져도 조회 비용이 일정하다.
+     *
+     * @param storeId 매장 id
+     * @param cursor  이전 응답의 nextCursor (첫 페이지는 null)
+     * @param size    페이지 크기
+     */
+    @Transactional(readOnly = true)
+    public ReviewSliceResponse getStoreReviews(
+            Long storeId, String cursor, int size) {
+
+        int pageSize = Math.min(Math.max(size, 1), MAX_SLICE_SIZE);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<ReviewEntity> reviewEntities;
+        if (cursor == null || cursor.isEmpty()) {
+            reviewEntities = this.reviewRepository
+                    .findLatestByStoreId(storeId, limit);
+        } else {
+            ReviewCursor reviewCursor = ReviewCursor.decode(cursor);
+            reviewEntities = this.reviewRepository.findByStoreIdAfterCursor(
+                    storeId, reviewCursor.getCreatedAt(),
+                    reviewCursor.getId(), limit);
+        }
+
+        String nextCursor = null;
+        if (reviewEntities.size() > pageSize) {
+            reviewEntities = reviewEntities.subList(0, pageSize);
+            nextCursor = ReviewCursor.encode(
+                    reviewEntities.get(pageSize - 1));
+        }
+
+        return ReviewSliceResponse.builder()
+                .reviews(reviewEntities.stream()
+                        .map(ReviewResponse::from)
+                        .collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
     /**
      * 리뷰 작성 자격 검증
      * 1. 예약자 본인인지 확인
@@ -163,25 +218,6 @@ public class ReviewService {
         }
     }
 
-    /**
-     * 매장의 평균 평점 업데이트
-     *
-     * @param storeId 리뷰를 작성한 매장의 id
-     */
-    private void updateStoreAverageRating(Long storeId) {
-        Double rating =
-                this.reviewRepository.calculateStoreAverageRating(storeId);
-
-        StoreEntity storeEntity = this.storeRepository.findById(storeId)
-                .orElseThrow(NonExistStoreException::new);
-
-        // 현재 데이터베이스의 review 평점은 TINYINT 사용을 위해 0부터 10의 값이 사용됨
-        // 그러나 ReviewRequest, ReviewResponse, StoreEntity 는 0~5의 값을 사용
-        // 이 때문에 원래의 평균에서 2를 나눔
-        storeEntity.updateRating(rating / 2);
-        log.info("\u001B[32mrating update  -> {}", rating + "\u001B[0m");
-    }
-
     /**
      * 리뷰 엔티티를 빌드 패턴으로 생성
      * 1. rating null 체크
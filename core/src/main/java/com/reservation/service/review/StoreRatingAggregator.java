@@ -0,0 +1,288 @@
+package com.reservation.service.review;
+
+import com.reservation.config.CacheConfig;
+import com.reservation.entity.review.Rating;
+import com.reservation.entity.store.StoreEntity;
+import com.reservation.repository.store.StoreRepository;
+import com.reservation.service.store.feed.StoreChangePublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 매장 평점 변화량을 모아서 한 번에 반영하는 write-behind 집계기
+ * 1. 리뷰 트랜잭션에서 매장 행을 읽기 락으로 조회하여 ratingEpoch 를 읽음
+ * 2. 리뷰 트랜잭션이 커밋되면 (매장 id, ratingEpoch, 평점(0~10)별 리뷰 수 변화량)을 큐에 넣음
+ * 3. flush 주기마다 큐를 비우면서 매장, ratingEpoch 별로 변화량을 합산
+ * 4. 매장마다 쓰기 락을 잡고 ratingEpoch 가 같다면 평점별 리뷰 수, 평점 합계, 리뷰 수를 UPDATE 한 번으로 반영
+ * 5. 반영한 매장의 평점 분포 캐시 삭제
+ * 6. 평균 평점이 바뀐 매장은 커밋 후 매장 변경 피드로 발행하여 각 서버의 자동완성 순위에 반영
+ *    변화량을 합산한 뒤 발행하므로 리뷰가 몰려도 flush 마다 매장당 한 번만 발행된다.
+ * <p>
+ * 인기 매장에 리뷰가 몰려도 읽기 락끼리는 서로 기다리지 않으므로 리뷰 트랜잭션이 직렬화되지 않는다.
+ * 큐가 가득 차면 잠시 기다린 뒤, 그래도 자리가 없으면 요청 스레드에서 바로 반영한다.
+ * <p>
+ * StoreRatingRecalculator 는 매장 행의 쓰기 락을 잡은 뒤 review 를 읽고 ratingEpoch 를 올린다.
+ * 읽기 락을 잡은 리뷰 트랜잭션은 다시 계산보다 먼저 커밋되어 계산에 포함되므로,
+ * 이전 ratingEpoch 를 가진 변화량은 어느 서버의 큐에 있든 반영하지 않고 버린다.
+ */
+@Slf4j
+@Component
+public class StoreRatingAggregator {
+
+    private final StoreRepository storeRepository;
+    private final StoreChangePublisher storeChangePublisher;
+    private final Cache ratingDistributionCache;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<RatingDelta> queue;
+    private final long offerTimeoutMillis;
+
+    private final Timer flushTimer;
+    private final Counter appliedCounter;
+    private final Counter discardedCounter;
+
+    public StoreRatingAggregator(
+            StoreRepository storeRepository,
+            StoreChangePublisher storeChangePublisher,
+            PlatformTransactionManager transactionManager,
+            CacheManager cacheManager,
+            MeterRegistry meterRegistry,
+            @Value("${reservation.rating.queue-capacity:10000}") int queueCapacity,
+            @Value("${reservation.rating.offer-timeout-ms:50}") long offerTimeoutMillis) {
+
+        this.storeRepository = storeRepository;
+        this.storeChangePublisher = storeChangePublisher;
+        this.ratingDistributionCache = Objects.requireNonNull(
+                cacheManager.getCache(CacheConfig.RATING_DISTRIBUTION));
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.offerTimeoutMillis = offerTimeoutMillis;
+
+        // 커밋 후 콜백이나 스케줄러 스레드에서도 항상 새 트랜잭션으로 반영
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Gauge.builder("store.rating.queue.depth", this.queue, BlockingQueue::size)
+                .description("반영을 기다리는 매장 평점 변화량 수")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("store.rating.flush")
+                .description("매장 평점 변화량 반영 소요 시간")
+                .register(meterRegistry);
+        this.appliedCounter = Counter.builder("store.rating.flush.updates")
+                .description("매장 평점 반영 UPDATE 수")
+                .register(meterRegistry);
+        this.discardedCounter = Counter.builder("store.rating.flush.discarded")
+                .description("다시 계산에 이미 포함되어 버린 변화량 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 리뷰 작성으로 평점 추가
+     *
+     * @param storeId 매장 id
+     * @param rating  리뷰 평점(0~10)
+     */
+    public void ratingAdded(Long storeId, int rating) {
+        int[] histogramDelta = new int[Rating.values().length];
+        histogramDelta[rating]++;
+        enqueue(storeId, histogramDelta);
+    }
+
+    /**
+     * 리뷰 수정으로 평점 변경
+     *
+     * @param storeId 매장 id
+     * @param before  변경 전 평점(0~10)
+     * @param after   변경 후 평점(0~10)
+     */
+    public void ratingChanged(Long storeId, int before, int after) {
+        if (before == after) {
+            return;
+        }
+        int[] histogramDelta = new int[Rating.values().length];
+        histogramDelta[before]--;
+        histogramDelta[after]++;
+        enqueue(storeId, histogramDelta);
+    }
+
+    /**
+     * 리뷰 삭제로 평점 제거
+     *
+     * @param storeId 매장 id
+     * @param rating  리뷰 평점(0~10)
+     */
+    public void ratingRemoved(Long storeId, int rating) {
+        int[] histogramDelta = new int[Rating.values().length];
+        histogramDelta[rating]--;
+        enqueue(storeId, histogramDelta);
+    }
+
+    /**
+     * 변화량 등록
+     * 현재 트랜잭션이 커밋된 경우에만 큐에 넣는다.
+     * 매장 행의 읽기 락은 커밋할 때까지 유지되어, 그동안 다시 계산이 ratingEpoch 를 올리지 못한다.
+     */
+    private void enqueue(Long storeId, int[] histogramDelta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            long epoch = this.storeRepository.findRatingEpochById(storeId)
+                    .orElse(0L);
+            offer(new RatingDelta(storeId, epoch, histogramDelta));
+            return;
+        }
+
+        long epoch = this.storeRepository.findByIdForShare(storeId)
+                .map(StoreEntity::getRatingEpoch)
+                .orElse(0L);
+        RatingDelta delta = new RatingDelta(storeId, epoch, histogramDelta);
+
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        offer(delta);
+                    }
+                });
+    }
+
+    /**
+     * 큐에 쌓인 변화량을 매장별로 합산하여 반영
+     */
+    @Scheduled(fixedDelayString = "${reservation.rating.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        List<RatingDelta> drained = new ArrayList<>();
+        this.queue.drainTo(drained);
+
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        this.flushTimer.record(() -> {
+            for (RatingDelta delta : coalesce(drained).values()) {
+                apply(delta);
+            }
+        });
+
+        log.info("\u001B[32mrating flush -> {}", drained.size() + "\u001B[0m");
+    }
+
+    /**
+     * 종료 시 남은 변화량 반영
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void offer(RatingDelta delta) {
+        try {
+            if (this.queue.offer(
+                    delta, this.offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // 큐가 가득 찼다면 요청 스레드에서 바로 반영하여 생산 속도를 늦춤
+        apply(delta);
+    }
+
+    /**
+     * 매장, ratingEpoch 가 같은 변화량끼리 합산
+     */
+    private Map<List<Long>, RatingDelta> coalesce(List<RatingDelta> deltas) {
+        Map<List<Long>, RatingDelta> coalesced = new LinkedHashMap<>();
+
+        for (RatingDelta delta : deltas) {
+            coalesced.merge(Arrays.asList(delta.storeId, delta.epoch),
+                    delta, RatingDelta::plus);
+        }
+        return coalesced;
+    }
+
+    private void apply(RatingDelta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+
+        try {
+            Boolean applied = this.transactionTemplate.execute(status ->
+                    this.storeRepository.findByIdForUpdate(delta.storeId)
+                            .filter(storeEntity ->
+                                    storeEntity.getRatingEpoch() == delta.epoch)
+                            .map(storeEntity -> {
+                                Double before = storeEntity.getRating();
+                                storeEntity.applyRatingDelta(delta.histogramDelta);
+                                if (!Objects.equals(before, storeEntity.getRating())) {
+                                    this.storeChangePublisher.stored(storeEntity);
+                                }
+                                return true;
+                            })
+                            .orElse(false));
+
+            if (Boolean.TRUE.equals(applied)) {
+                this.ratingDistributionCache.evict(delta.storeId);
+                this.appliedCounter.increment();
+            } else {
+                // 삭제된 매장이거나 이 변화량의 리뷰가 다시 계산에 이미 포함된 경우
+                this.discardedCounter.increment();
+            }
+        } catch (RuntimeException e) {
+            // 반영하지 못한 변화량은 StoreRatingVerifier 가 다시 맞춘다.
+            log.error("rating flush failed -> {}", delta.storeId, e);
+        }
+    }
+
+    private static final class RatingDelta {
+
+        private final Long storeId;
+        private final long epoch;
+        private final int[] histogramDelta;
+
+        private RatingDelta(Long storeId, long epoch, int[] histogramDelta) {
+            this.storeId = storeId;
+            this.epoch = epoch;
+            this.histogramDelta = histogramDelta;
+        }
+
+        private boolean isEmpty() {
+            for (int count : this.histogramDelta) {
+                if (count != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private RatingDelta plus(RatingDelta other) {
+            int[] merged = this.histogramDelta.clone();
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] += other.histogramDelta[i];
+            }
+            return new RatingDelta(this.storeId, this.epoch, merged);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.reservation.service.review;
+
+import com.reservation.repository.store.StoreRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 매장의 평점 정보를 review 테이블로부터 채우는 작업
+ * 평점 관련 컬럼을 처음 추가했을 때 한 번만 실행
+ * reservation.rating.backfill=true 로 기동하면 애플리케이션 시작 시 실행된다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "reservation.rating.backfill", havingValue = "true")
+public class StoreRatingBackfillJob implements ApplicationRunner {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final StoreRepository storeRepository;
+    private final StoreRatingRecalculator storeRatingRecalculator;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long lastId = 0L;
+        int updated = 0;
+
+        // 매장 id 순서대로 CHUNK_SIZE 개씩 나누어 각각의 트랜잭션으로 계산
+        List<Long> storeIds;
+        do {
+            storeIds = this.storeRepository.findIdsAfter(
+                    lastId, PageRequest.of(0, CHUNK_SIZE));
+            if (storeIds.isEmpty()) {
+                break;
+            }
+
+            this.storeRatingRecalculator.recalculate(storeIds);
+            lastId = storeIds.get(storeIds.size() - 1);
+            updated += storeIds.size();
+        } while (storeIds.size() == CHUNK_SIZE);
+
+        log.info("\u001B[32mrating backfill -> {}", updated + "\u001B[0m");
+    }
+}
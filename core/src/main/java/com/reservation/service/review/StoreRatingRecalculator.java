@@ -0,0 +1,72 @@
+package com.reservation.service.review;
+
+import com.reservation.config.CacheConfig;
+import com.reservation.entity.review.Rating;
+import com.reservation.entity.store.StoreEntity;
+import com.reservation.repository.review.RatingCountView;
+import com.reservation.repository.review.ReviewRepository;
+import com.reservation.repository.store.StoreRepository;
+import com.reservation.service.store.feed.StoreChangePublisher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * review 테이블로부터 매장의 평점 정보(평점별 리뷰 수, 합계, 리뷰 수)를 다시 계산
+ * 최초 채우기(StoreRatingBackfillJob)와 어긋남 보정(StoreRatingVerifier)에 사용
+ * 1. 매장 행을 id 순서대로 쓰기 락과 함께 조회, 리뷰 트랜잭션이 잡은 읽기 락이 풀릴 때까지 기다림
+ * 2. 락을 잡은 뒤 review 테이블을 집계하므로 그 전에 커밋된 리뷰는 모두 포함된다.
+ * 3. 평점 정보를 덮어쓰고 ratingEpoch 를 올려, 집계에 포함된 리뷰의 변화량이 반영되지 않도록 함
+ * 4. 평균 평점이 바뀐 매장은 커밋 후 매장 변경 피드로 발행
+ */
+@Component
+@RequiredArgsConstructor
+public class StoreRatingRecalculator {
+
+    private final StoreRepository storeRepository;
+    private final ReviewRepository reviewRepository;
+    private final StoreChangePublisher storeChangePublisher;
+    private final CacheManager cacheManager;
+
+    /**
+     * 지정한 매장들의 평점 정보를 다시 계산
+     *
+     * @param storeIds 다시 계산할 매장 id
+     */
+    @Transactional
+    public void recalculate(Collection<Long> storeIds) {
+        List<StoreEntity> storeEntities =
+                this.storeRepository.findAllByIdForUpdate(storeIds);
+        Map<Long, int[]> histograms = new HashMap<>();
+
+        for (RatingCountView view :
+                this.reviewRepository.countRatingsByStoreIds(storeIds)) {
+            histograms.computeIfAbsent(view.getStoreId(),
+                            id -> new int[Rating.values().length])
+                    [view.getRating()] = view.getReviewCount().intValue();
+        }
+
+        for (StoreEntity storeEntity : storeEntities) {
+            Double before = storeEntity.getRating();
+            storeEntity.resetRating(histograms.getOrDefault(
+                    storeEntity.getId(), new int[Rating.values().length]));
+
+            if (!Objects.equals(before, storeEntity.getRating())) {
+                this.storeChangePublisher.stored(storeEntity);
+            }
+        }
+
+        Cache cache = this.cacheManager.getCache(CacheConfig.RATING_DISTRIBUTION);
+        if (cache != null) {
+            storeIds.forEach(cache::evict);
+        }
+    }
+}
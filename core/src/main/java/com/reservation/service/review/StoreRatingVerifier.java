@@ -0,0 +1,65 @@
+package com.reservation.service.review;
+
+import com.reservation.repository.store.StoreRepository;
+import com.reservation.scheduler.SchedulerLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 매장의 평점별 리뷰 수, 평점 합계와 리뷰 수가 review 테이블과 일치하는지 주기적으로 검사
+ * 어긋난 매장이 있다면 해당 매장만 다시 계산하여 맞춘다.
+ * 여러 서버 중 SchedulerLock 을 획득한 한 곳에서만 실행
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StoreRatingVerifier {
+
+    private static final String LOCK_NAME = "store-rating-verify";
+
+    private final StoreRepository storeRepository;
+    private final StoreRatingAggregator storeRatingAggregator;
+    private final StoreRatingRecalculator storeRatingRecalculator;
+    private final SchedulerLock schedulerLock;
+
+    @Value("${reservation.rating.verify-lock-lease-ms:600000}")
+    private long lockLeaseMillis;
+
+    @Scheduled(
+            initialDelayString = "${reservation.rating.verify-interval-ms:3600000}",
+            fixedDelayString = "${reservation.rating.verify-interval-ms:3600000}")
+    public void verify() {
+        if (!this.schedulerLock.tryLock(
+                LOCK_NAME, Duration.ofMillis(this.lockLeaseMillis))) {
+            return;
+        }
+
+        try {
+            verifyAndRepair();
+        } finally {
+            this.schedulerLock.unlock(LOCK_NAME);
+        }
+    }
+
+    private void verifyAndRepair() {
+        // 아직 반영되지 않은 변화량을 먼저 반영해야 어긋남으로 오인하지 않음
+        // 다른 서버의 큐에 남은 변화량은 다시 계산으로 ratingEpoch 가 올라가 버려진다.
+        this.storeRatingAggregator.flush();
+
+        List<Long> driftedStoreIds =
+                this.storeRepository.findRatingDriftedStoreIds();
+
+        if (driftedStoreIds.isEmpty()) {
+            return;
+        }
+
+        this.storeRatingRecalculator.recalculate(driftedStoreIds);
+        log.warn("rating drift corrected -> {}", driftedStoreIds);
+    }
+}
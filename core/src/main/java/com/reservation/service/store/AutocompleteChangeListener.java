@@ -0,0 +1,48 @@
+package com.reservation.service.store;
+
+import com.reservation.service.store.feed.StoreChangeEvent;
+import com.reservation.service.store.feed.StoreChangeFeed;
+import com.reservation.service.store.feed.StoreChangeFollower;
+import org.springframework.stereotype.Component;
+
+/**
+ * 매장 변경 피드를 구독하여 이 서버의 자동완성 인덱스에 반영
+ * version 순서 확인과 유실 시 재적재는 StoreChangeFollower 참고
+ */
+@Component
+public class AutocompleteChangeListener extends StoreChangeFollower {
+
+    private final AutocompleteService autocompleteService;
+    private final AutocompleteLoader autocompleteLoader;
+
+    public AutocompleteChangeListener(
+            StoreChangeFeed storeChangeFeed,
+            AutocompleteService autocompleteService,
+            AutocompleteLoader autocompleteLoader) {
+
+        super(storeChangeFeed, "autocomplete");
+        this.autocompleteService = autocompleteService;
+        this.autocompleteLoader = autocompleteLoader;
+    }
+
+    @Override
+    protected void load() {
+        this.autocompleteLoader.load();
+    }
+
+    @Override
+    protected void reload() {
+        this.autocompleteLoader.reload();
+    }
+
+    @Override
+    protected void stored(StoreChangeEvent event) {
+        this.autocompleteService.putAutocompleteKeyword(
+                event.getStoreId(), event.getName(), event.getRating());
+    }
+
+    @Override
+    protected void deleted(Long storeId) {
+        this.autocompleteService.deleteAutocompleteKeyword(storeId);
+    }
+}
@@ -0,0 +1,29 @@
+package com.reservation.service.store;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * 자동완성 인덱스 적재 상태
+ * 적재가 끝나기 전에는 OUT_OF_SERVICE 와 함께 읽은 매장 수를 보여준다.
+ */
+@Component("autocomplete")
+@RequiredArgsConstructor
+public class AutocompleteHealthIndicator implements HealthIndicator {
+
+    private final AutocompleteService autocompleteService;
+    private final AutocompleteLoader autocompleteLoader;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = this.autocompleteService.isReady()
+                ? Health.up() : Health.outOfService();
+
+        return builder
+                .withDetail("loaded", this.autocompleteLoader.getLoadedCount())
+                .withDetail("indexed", this.autocompleteService.size())
+                .build();
+    }
+}
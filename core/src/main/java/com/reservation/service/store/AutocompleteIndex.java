@@ -0,0 +1,352 @@
+package com.reservation.service.store;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 자동완성 인덱스의 불변 스냅샷
+ * 1. nameTrie: 매장 이름 그대로의 접두사 검색
+ * 2. jamoTrie: 자모로 분해한 이름의 접두사 검색 ("스탑" -> "스타벅스")
+ * 3. chosungTrie: 초성의 접두사 검색 ("ㅅㅌㅂ" -> "스타벅스")
+ * <p>
+ * 세 trie 의 키는 매장이 아니라 서로 다른 매장 이름이며,
+ * 같은 이름의 매장들은 하나의 Completion 에 매장 id 로 묶인다.
+ * 따라서 체인점처럼 같은 이름이 많아도 상위 목록은 서로 다른 이름으로 채워진다.
+ * <p>
+ * 세 trie 모두 노드마다 가중치(그 이름의 매장 중 가장 높은 평점) 상위 topK 개의 이름을 미리 계산해 두므로
+ * 짧은 접두사로 수많은 매장이 일치해도 조회 비용이 일정하다.
+ * 만들어진 뒤에는 수정하지 않으므로 여러 스레드가 락 없이 동시에 읽을 수 있고,
+ * 변경은 apply 로 새 스냅샷을 만들어 교체한다.
+ * 새 스냅샷은 바뀐 이름의 trie 경로만 복사하고 나머지 노드는 이전 스냅샷과 공유하므로
+ * 변경 비용은 전체 매장 수가 아니라 바뀐 매장 수에 비례한다.
+ */
+public final class AutocompleteIndex {
+
+    private static final Comparator<Entry> STORE_RANKING = Comparator
+            .comparingDouble((Entry entry) -> entry.weight).reversed()
+            .thenComparing(entry -> entry.storeId);
+
+    private static final Comparator<Completion> RANKING = Comparator
+            .comparingDouble((Completion completion) -> completion.weight).reversed()
+            .thenComparing(completion -> completion.name);
+
+    // 변경이 이보다 많거나 매장 수의 1/8 을 넘으면 경로를 하나씩 고치는 것보다 새로 만드는 편이 빠르다.
+    private static final int REBUILD_THRESHOLD = 1024;
+
+    private final int topK;
+    private final PersistentLongMap<Entry> entries;
+    private final CompletionTrie<Completion> nameTrie;
+    private final CompletionTrie<Completion> jamoTrie;
+    private final CompletionTrie<Completion> chosungTrie;
+
+    private AutocompleteIndex(int topK, PersistentLongMap<Entry> entries,
+                              CompletionTrie<Completion> nameTrie,
+                              CompletionTrie<Completion> jamoTrie,
+                              CompletionTrie<Completion> chosungTrie) {
+        this.topK = topK;
+        this.entries = entries;
+        this.nameTrie = nameTrie;
+        this.jamoTrie = jamoTrie;
+        this.chosungTrie = chosungTrie;
+    }
+
+    /**
+     * entries 의 모든 매장으로 세 trie 를 새로 만든 스냅샷
+     */
+    private static AutocompleteIndex build(int topK, PersistentLongMap<Entry> entries) {
+        Map<String, List<Entry>> byName = new HashMap<>();
+        entries.forEach((storeId, entry) -> byName
+                .computeIfAbsent(entry.name, name -> new ArrayList<>(1)).add(entry));
+
+        List<Completion> completions = new ArrayList<>(byName.size());
+        List<String> names = new ArrayList<>(byName.size());
+        List<String> jamos = new ArrayList<>(byName.size());
+        List<String> chosungs = new ArrayList<>(byName.size());
+
+        byName.forEach((name, stores) -> {
+            completions.add(Completion.of(name, stores));
+            names.add(name);
+            jamos.add(HangulJamo.decompose(name));
+            chosungs.add(HangulJamo.chosung(name));
+        });
+
+        return new AutocompleteIndex(topK, entries,
+                CompletionTrie.build(names, completions, RANKING, topK),
+                CompletionTrie.build(jamos, completions, RANKING, topK),
+                CompletionTrie.build(chosungs, completions, RANKING, topK));
+    }
+
+    public static AutocompleteIndex empty(int topK) {
+        return new AutocompleteIndex(topK, PersistentLongMap.empty(),
+                CompletionTrie.empty(RANKING, topK),
+                CompletionTrie.empty(RANKING, topK),
+                CompletionTrie.empty(RANKING, topK));
+    }
+
+    /**
+     * 변경 사항을 순서대로 반영한 새 스냅샷
+     * 변경이 많다면 세 trie 를 새로 만들고, 적다면 바뀐 이름의 경로만 고친다.
+     */
+    public AutocompleteIndex apply(Collection<Mutation> mutations) {
+        PersistentLongMap<Entry> applied = this.entries;
+
+        for (Mutation mutation : mutations) {
+            applied = mutation.entry == null
+                    ? applied.without(mutation.storeId)
+                    : applied.with(mutation.storeId, mutation.entry);
+        }
+
+        if (mutations.size() >= Math.max(REBUILD_THRESHOLD, size() / 8)) {
+            return build(this.topK, applied);
+        }
+        return patch(applied, mutations);
+    }
+
+    /**
+     * 바뀐 매장이 속한 이름의 Completion 만 세 trie 에서 교체한 새 스냅샷
+     * 1. 바뀐 매장마다 변경 전 이름에서 빼고 변경 후 이름에 더해 이름별 매장 목록을 다시 계산
+     * 2. 이름마다 기존 Completion 을 빼고 새 Completion 을 넣음, 매장이 남지 않은 이름은 빼기만 한다.
+     */
+    private AutocompleteIndex patch(PersistentLongMap<Entry> applied, Collection<Mutation> mutations) {
+        Map<String, Map<Long, Entry>> byName = new HashMap<>();
+        Set<Long> storeIds = new HashSet<>();
+
+        for (Mutation mutation : mutations) {
+            if (!storeIds.add(mutation.storeId)) {
+                continue;
+            }
+
+            Entry before = this.entries.get(mutation.storeId);
+            Entry after = applied.get(mutation.storeId);
+            if (before != null) {
+                stores(byName, before.name).remove(mutation.storeId);
+            }
+            if (after != null) {
+                stores(byName, after.name).put(mutation.storeId, after);
+            }
+        }
+
+        CompletionTrie<Completion> nameTrie = this.nameTrie;
+        CompletionTrie<Completion> jamoTrie = this.jamoTrie;
+        CompletionTrie<Completion> chosungTrie = this.chosungTrie;
+
+        for (Map.Entry<String, Map<Long, Entry>> changed : byName.entrySet()) {
+            String name = changed.getKey();
+            String jamo = HangulJamo.decompose(name);
+            String chosung = HangulJamo.chosung(name);
+
+            Completion before = completion(name);
+            if (before != null) {
+                nameTrie = nameTrie.remove(name, before);
+                jamoTrie = jamoTrie.remove(jamo, before);
+                chosungTrie = chosungTrie.remove(chosung, before);
+            }
+
+            if (!changed.getValue().isEmpty()) {
+                Completion after = Completion.of(name, changed.getValue().values());
+                nameTrie = nameTrie.put(name, after);
+                jamoTrie = jamoTrie.put(jamo, after);
+                chosungTrie = chosungTrie.put(chosung, after);
+            }
+        }
+
+        return new AutocompleteIndex(this.topK, applied, nameTrie, jamoTrie, chosungTrie);
+    }
+
+    /**
+     * 이 스냅샷에서 name 에 속한 매장들, 처음 꺼낼 때 기존 Completion 으로 채움
+     */
+    private Map<Long, Entry> stores(Map<String, Map<Long, Entry>> byName, String name) {
+        return byName.computeIfAbsent(name, key -> {
+            Map<Long, Entry> stores = new HashMap<>();
+            Completion completion = completion(key);
+            if (completion != null) {
+                for (Entry entry : completion.stores) {
+                    stores.put(entry.storeId, entry);
+                }
+            }
+            return stores;
+        });
+    }
+
+    private Completion completion(String name) {
+        List<Completion> completions = this.nameTrie.get(name);
+        return completions.isEmpty() ? null : completions.get(0);
+    }
+
+    /**
+     * 현재 내용을 버리고 mutations 만 반영한 새 스냅샷
+     */
+    public AutocompleteIndex reset(Collection<Mutation> mutations) {
+        return empty(this.topK).apply(mutations);
+    }
+
+    /**
+     * keyword 로 시작하는 매장 이름과 그 이름의 매장 id 를 가중치가 큰 순서대로 최대 limit 개 조회
+     * 1. 이름 그대로 접두사 일치
+     * 2. 한글이 포함되어 있다면 자모 단위 접두사 일치
+     * 3. 자음으로만 이루어져 있다면 초성 접두사 일치
+     * 각 trie 의 상위 목록을 합쳐 다시 정렬하며, 여러 trie 에서 찾은 이름은 한 번만 담는다.
+     */
+    public Map<String, List<Long>> search(String keyword, int limit) {
+        List<Completion> candidates = new ArrayList<>(
+                this.nameTrie.complete(keyword, this.topK));
+
+        if (HangulJamo.containsHangul(keyword)) {
+            candidates.addAll(this.jamoTrie
+                    .complete(HangulJamo.decompose(keyword), this.topK));
+        }
+
+        if (HangulJamo.isChosungQuery(keyword)) {
+            candidates.addAll(this.chosungTrie.complete(keyword, this.topK));
+        }
+
+        candidates.sort(RANKING);
+        return toMap(candidates, limit);
+    }
+
+    /**
+     * 오타를 허용하여 keyword 와 비슷하게 시작하는 매장 이름과 매장 id 를 최대 limit 개 조회
+     * 한글이 포함되어 있다면 자모 단위로 편집 거리를 계산하여
+     * "스타벅" 대신 "스터벅" 처럼 모음 하나를 잘못 친 경우도 거리 1 로 본다.
+     * 짧은 검색어는 허용 거리를 줄여 엉뚱한 결과가 나오지 않게 한다.
+     */
+    public Map<String, List<Long>> searchFuzzy(String keyword, int limit) {
+        boolean hangul = HangulJamo.containsHangul(keyword);
+        String query = hangul ? HangulJamo.decompose(keyword) : keyword;
+        CompletionTrie<Completion> trie = hangul ? this.jamoTrie : this.nameTrie;
+
+        return toMap(trie.completeFuzzy(
+                query, maxDistance(query), this.topK), limit);
+    }
+
+    /**
+     * 순위대로 정렬된 이름을 최대 limit 개 담은 이름 -> 매장 id 목록
+     */
+    private static Map<String, List<Long>> toMap(List<Completion> completions, int limit) {
+        Map<String, List<Long>> result = new LinkedHashMap<>();
+
+        for (Completion completion : completions) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.putIfAbsent(completion.name, completion.storeIds);
+        }
+        return result;
+    }
+
+    /**
+     * 3글자(자모) 미만은 오타를 허용하지 않고, 9글자(한글 약 3음절) 미만은 1, 그 이상은 2
+     */
+    private static int maxDistance(String query) {
+        if (query.length() < 3) {
+            return 0;
+        }
+        return query.length() < 9 ? 1 : 2;
+    }
+
+    /**
+     * 스냅샷의 모든 매장을 방문
+     */
+    public void forEach(EntryVisitor visitor) {
+        this.entries.forEach((storeId, entry) ->
+                visitor.visit(entry.storeId, entry.name, entry.weight));
+    }
+
+    public int getTopK() {
+        return this.topK;
+    }
+
+    public int size() {
+        return this.entries.size();
+    }
+
+    public interface EntryVisitor {
+
+        void visit(Long storeId, String name, double weight);
+    }
+
+    /**
+     * 자동완성에 등록된 매장 하나
+     */
+    private static final class Entry {
+
+        private final Long storeId;
+        private final String name;
+        private final double weight;
+
+        private Entry(Long storeId, String name, double weight) {
+            this.storeId = storeId;
+            this.name = name;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * 자동완성 결과 하나, 같은 이름의 매장들
+     */
+    private static final class Completion {
+
+        private final String name;
+        private final double weight;
+        // 평점이 높은 순서
+        private final List<Long> storeIds;
+        private final List<Entry> stores;
+
+        private Completion(String name, List<Entry> stores) {
+            List<Long> storeIds = new ArrayList<>(stores.size());
+            stores.forEach(store -> storeIds.add(store.storeId));
+
+            this.name = name;
+            this.weight = stores.get(0).weight;
+            this.storeIds = Collections.unmodifiableList(storeIds);
+            this.stores = stores;
+        }
+
+        /**
+         * 매장 id 는 평점이 높은 순서로 담고, 이름의 가중치는 그중 가장 높은 평점이다.
+         */
+        private static Completion of(String name, Collection<Entry> stores) {
+            List<Entry> sorted = new ArrayList<>(stores);
+            sorted.sort(STORE_RANKING);
+            return new Completion(name, sorted);
+        }
+    }
+
+    /**
+     * 자동완성 변경 사항 (매장 추가, 변경, 삭제)
+     */
+    public static final class Mutation {
+
+        private final Long storeId;
+        private final Entry entry;
+
+        private Mutation(Long storeId, Entry entry) {
+            this.storeId = storeId;
+            this.entry = entry;
+        }
+
+        /**
+         * 매장 추가 또는 이름, 가중치 변경
+         */
+        public static Mutation put(Long storeId, String name, double weight) {
+            return new Mutation(storeId, new Entry(storeId, name, weight));
+        }
+
+        public static Mutation remove(Long storeId) {
+            return new Mutation(storeId, null);
+        }
+
+        public Long getStoreId() {
+            return this.storeId;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.reservation.service.store;
+
+import com.reservation.repository.store.StoreAutocompleteView;
+import com.reservation.repository.store.StoreRepository;
+import com.reservation.service.store.AutocompleteIndex.Mutation;
+import com.reservation.service.store.AutocompleteSnapshotStore.Snapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 자동완성 인덱스 적재
+ * 애플리케이션 시작 후, 또는 변경 이벤트를 잃었을 때 AutocompleteChangeListener 가 호출
+ * 1. 저장된 스냅샷 파일이 있다면 읽고, watermark 이후 변경된 매장만 DB 에서 조회
+ * 2. 스냅샷이 없다면 매장 id 순서대로 chunkSize 개씩 모든 매장을 조회
+ * 3. 읽은 매장으로 스냅샷을 한 번만 만들어 교체하고 조회를 허용
+ * 4. 스냅샷으로 시작했다면 DB 의 매장 id 를 훑어 그 사이 삭제된 매장을 제거
+ * <p>
+ * 진행 상황은 AutocompleteHealthIndicator 로 확인할 수 있다.
+ */
+@Slf4j
+@Component
+public class AutocompleteLoader {
+
+    private final StoreRepository storeRepository;
+    private final AutocompleteService autocompleteService;
+    private final AutocompleteSnapshotStore autocompleteSnapshotStore;
+    private final int chunkSize;
+
+    private final AtomicLong loadedCount = new AtomicLong();
+
+    public AutocompleteLoader(
+            StoreRepository storeRepository,
+            AutocompleteService autocompleteService,
+            AutocompleteSnapshotStore autocompleteSnapshotStore,
+            @Value("${reservation.autocomplete.load-chunk-size:1000}") int chunkSize) {
+
+        this.storeRepository = storeRepository;
+        this.autocompleteService = autocompleteService;
+        this.autocompleteSnapshotStore = autocompleteSnapshotStore;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 시작 시 적재, 저장된 스냅샷이 있다면 사용
+     */
+    public void load() {
+        Optional<Snapshot> snapshot = this.autocompleteSnapshotStore.read();
+
+        List<Mutation> loaded = new ArrayList<>();
+        if (snapshot.isPresent()) {
+            loaded.addAll(snapshot.get().getMutations());
+            this.loadedCount.addAndGet(loaded.size());
+            loadChanged(snapshot.get(), loaded);
+        } else {
+            loadAll(loaded);
+        }
+
+        try {
+            this.autocompleteService.load(loaded).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            log.error("autocomplete load failed -> {}", loaded.size(), e);
+            return;
+        }
+        log.info("\u001B[32mautocomplete load -> {}", loaded.size() + "\u001B[0m");
+
+        snapshot.ifPresent(this::removeDeleted);
+    }
+
+    /**
+     * 기존 스냅샷으로 조회를 계속 허용하면서 DB 에서 모든 매장을 다시 적재
+     */
+    public void reload() {
+        List<Mutation> loaded = new ArrayList<>();
+        this.loadedCount.set(0);
+
+        try {
+            this.autocompleteService.beginReload().get();
+            loadAll(loaded);
+            this.autocompleteService.load(loaded).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            log.error("autocomplete reload failed -> {}", loaded.size(), e);
+            return;
+        }
+        log.info("\u001B[32mautocomplete reload -> {}", loaded.size() + "\u001B[0m");
+    }
+
+    /**
+     * 지금까지 DB 나 스냅샷에서 읽은 매장 수
+     */
+    public long getLoadedCount() {
+        return this.loadedCount.get();
+    }
+
+    private void loadAll(List<Mutation> loaded) {
+        long lastId = 0L;
+
+        List<StoreAutocompleteView> views;
+        do {
+            views = this.storeRepository.findAutocompleteViewsAfter(
+                    lastId, PageRequest.of(0, this.chunkSize));
+            lastId = addAll(views, loaded, lastId);
+        } while (views.size() == this.chunkSize);
+    }
+
+    /**
+     * 스냅샷의 watermark 이후 변경된 매장만 조회
+     */
+    private void loadChanged(Snapshot snapshot, List<Mutation> loaded) {
+        long lastId = 0L;
+
+        List<StoreAutocompleteView> views;
+        do {
+            views = this.storeRepository.findAutocompleteViewsUpdatedAfter(
+                    snapshot.getWatermark(), lastId,
+                    PageRequest.of(0, this.chunkSize));
+            lastId = addAll(views, loaded, lastId);
+        } while (views.size() == this.chunkSize);
+    }
+
+    private long addAll(List<StoreAutocompleteView> views,
+                        List<Mutation> loaded, long lastId) {
+        for (StoreAutocompleteView view : views) {
+            loaded.add(Mutation.put(
+                    view.getId(), view.getName(), view.getRating()));
+            lastId = view.getId();
+        }
+        this.loadedCount.addAndGet(views.size());
+        return lastId;
+    }
+
+    /**
+     * 스냅샷에는 있지만 DB 에는 없는 매장 제거
+     * 조회를 허용한 뒤에 id 만 훑으므로 시작을 늦추지 않는다.
+     */
+    private void removeDeleted(Snapshot snapshot) {
+        long[] existing = new long[snapshot.size()];
+        int size = 0;
+        long lastId = 0L;
+
+        List<Long> storeIds;
+        do {
+            storeIds = this.storeRepository.findIdsAfter(
+                    lastId, PageRequest.of(0, this.chunkSize));
+            for (Long storeId : storeIds) {
+                if (size == existing.length) {
+                    existing = Arrays.copyOf(existing, Math.max(16, size * 2));
+                }
+                existing[size++] = storeId;
+                lastId = storeId;
+            }
+        } while (storeIds.size() == this.chunkSize);
+
+        // 훑는 도중에 삭제된 매장은 삭제 시점에 이미 반영된다.
+        int removed = 0;
+        for (Mutation mutation : snapshot.getMutations()) {
+            long storeId = mutation.getStoreId();
+            if (Arrays.binarySearch(existing, 0, size, storeId) < 0) {
+                this.autocompleteService.deleteAutocompleteKeyword(storeId);
+                removed++;
+            }
+        }
+        log.info("\u001B[32mautocomplete snapshot removed -> {}",
+                removed + "\u001B[0m");
+    }
+}
@@ -1,40 +1,199 @@
 package com.reservation.service.store;
 
-import lombok.RequiredArgsConstructor;
+import com.reservation.exception.extend.AutocompleteNotReadyException;
+import com.reservation.service.store.AutocompleteIndex.Mutation;
+import com.reservation.store.AutocompleteResponse;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.collections4.Trie;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * 매장 이름 자동완성
+ * 1. 조회는 현재 스냅샷(AutocompleteIndex)을 읽기만 하므로 락 없이 처리
+ * 2. 변경은 커밋된 매장 변경 이벤트를 받아 대기열에 넣음
+ * 3. 쓰기 전용 스레드 하나가 대기열에 쌓인 변경을 모아 새 스냅샷을 만들고 교체
+ * <p>
+ * 4. 시작 시 AutocompleteLoader 가 DB 의 매장을 모두 적재하기 전까지는 조회를 거절
+ * 매장 변경은 StoreChangeFeed 를 통해 모든 서버의 AutocompleteChangeListener 가 받아 반영한다.
+ * <p>
+ * 결과는 매장 평점이 높은 순서로 정렬되며 노드마다 미리 계산해 둔 상위 목록만 읽는다.
+ * 변경이 몰려도 스냅샷은 한 번에 모아서 만들며,
+ * 조회 스레드는 항상 완성된 스냅샷만 보게 된다.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class AutocompleteService {
 
-    private final Trie<String, String> trie;
+    private final AtomicReference<AutocompleteIndex> index;
 
-    public void addAutoCompleteKeyword(String keyword) {
-        this.trie.put(keyword, null);
-        log.info("\u001B[32mautocomplete add -> {}", keyword + "\u001B[0m");
+    private final BlockingQueue<Mutation> pending = new LinkedBlockingQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "autocomplete-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    // 적재 중에 반영한 변경, 적재 결과 위에 다시 반영 (쓰기 스레드에서만 접근)
+    private final List<Mutation> publishedWhileLoading = new ArrayList<>();
+    private boolean recording = true;
+    private volatile boolean ready;
+
+    public AutocompleteService(
+            @Value("${reservation.autocomplete.top-k:10}") int topK) {
+        this.index = new AtomicReference<>(AutocompleteIndex.empty(topK));
+    }
+
+    /**
+     * 매장 추가 또는 이름, 평점 변경
+     *
+     * @param storeId 매장 id
+     * @param name    매장 이름
+     * @param weight  자동완성 순위에 사용할 가중치 (매장 평점)
+     */
+    public void putAutocompleteKeyword(Long storeId, String name, double weight) {
+        enqueue(Mutation.put(storeId, name, weight));
+        log.info("\u001B[32mautocomplete put -> {}", name + "\u001B[0m");
     }
 
-    public List<String> getStoreNamesByKeyword(String keyword) {
+    /**
+     * keyword 로 시작하는 매장 이름을 평점이 높은 순서대로 조회
+     * 같은 이름의 매장은 하나로 묶어 매장 id 를 함께 반환하므로
+     * 클라이언트는 다시 검색하지 않고 매장을 바로 조회할 수 있다.
+     * fuzzy 라면 오타를 허용하며, 편집 거리가 가까운 순서가 먼저다.
+     *
+     * @param keyword 검색 키워드
+     * @param limit   최대 개수, 노드마다 유지하는 개수(topK)보다 클 수 없다.
+     * @param fuzzy   오타 허용 여부
+     */
+    public List<AutocompleteResponse> getStoreNamesByKeyword(
+            String keyword, int limit, boolean fuzzy) {
+        if (!this.ready) {
+            throw new AutocompleteNotReadyException();
+        }
+
         log.info("\u001B[32mautocomplete -> {}", keyword + "\u001B[0m");
-        return new ArrayList<>(this.trie.prefixMap(keyword).keySet());
+        AutocompleteIndex current = this.index.get();
+        int size = Math.max(1, Math.min(limit, current.getTopK()));
+
+        Map<String, List<Long>> completions = fuzzy
+                ? current.searchFuzzy(keyword, size)
+                : current.search(keyword, size);
+
+        List<AutocompleteResponse> responses = new ArrayList<>(completions.size());
+        completions.forEach((name, storeIds) -> responses.add(
+                AutocompleteResponse.builder()
+                        .name(name)
+                        .storeIds(storeIds)
+                        .build()));
+        return responses;
+    }
+
+    public void deleteAutocompleteKeyword(Long storeId) {
+        enqueue(Mutation.remove(storeId));
+        log.info("\u001B[32mautocomplete remove -> {}", storeId + "\u001B[0m");
+    }
+
+    /**
+     * 다시 적재하기 전에 호출, 이후 반영되는 변경을 기록하기 시작
+     * 다시 적재하는 동안에도 기존 스냅샷으로 조회할 수 있다.
+     *
+     * @return 기록을 시작하면 완료되는 Future, 완료된 뒤에 DB 를 읽어야 한다.
+     */
+    public Future<?> beginReload() {
+        return this.writer.submit(() -> {
+            this.publishedWhileLoading.clear();
+            this.recording = true;
+        });
+    }
+
+    /**
+     * DB 에서 읽은 매장 전체로 스냅샷을 만들고 조회를 허용
+     * 적재 중에 반영된 변경은 적재 결과보다 최신이므로 그 위에 다시 반영한다.
+     * 변경은 매장 단위로 덮어쓰므로 같은 변경을 두 번 반영해도 결과가 같다.
+     *
+     * @param loaded DB 에서 읽은 매장들
+     * @return 스냅샷 교체가 끝나면 완료되는 Future
+     */
+    public Future<?> load(List<Mutation> loaded) {
+        return this.writer.submit(() -> {
+            List<Mutation> mutations = new ArrayList<>(loaded);
+            mutations.addAll(this.publishedWhileLoading);
+
+            this.index.set(this.index.get().reset(mutations));
+            this.publishedWhileLoading.clear();
+            this.recording = false;
+            this.ready = true;
+        });
+    }
+
+    public boolean isReady() {
+        return this.ready;
+    }
+
+    /**
+     * 현재 스냅샷, 불변이므로 그대로 읽어도 안전하다.
+     */
+    public AutocompleteIndex snapshot() {
+        return this.index.get();
+    }
+
+    /**
+     * 현재 스냅샷의 매장 수
+     */
+    public int size() {
+        return this.index.get().size();
     }
 
-    public void updateAutocompleteKeyword(
-            String currentKeyword, String updateKeyword) {
-        this.trie.remove(currentKeyword);
-        this.trie.put(updateKeyword, null);
-        log.info("\u001B[32mautocomplete update {} -> {}",
-                currentKeyword, updateKeyword + "\u001B[0m");
+    @PreDestroy
+    public void shutdown() {
+        this.writer.shutdown();
     }
 
-    public void deleteAutocompleteKeyword(String keyword) {
-        this.trie.remove(keyword);
-        log.info("\u001B[32mautocomplete remove -> {}", keyword + "\u001B[0m");
+    private void enqueue(Mutation mutation) {
+        this.pending.add(mutation);
+
+        // 이미 예약된 반영 작업이 있다면 그 작업이 함께 처리
+        if (this.scheduled.compareAndSet(false, true)) {
+            this.writer.execute(this::publish);
+        }
+    }
+
+    /**
+     * 쓰기 스레드에서만 실행
+     * 대기열의 변경을 모두 반영한 새 스냅샷으로 교체
+     */
+    private void publish() {
+        // 비우기 전에 풀어야 그 사이 들어온 변경이 다음 작업으로 예약된다.
+        this.scheduled.set(false);
+
+        List<Mutation> mutations = new ArrayList<>();
+        this.pending.drainTo(mutations);
+        if (mutations.isEmpty()) {
+            return;
+        }
+
+        if (this.recording) {
+            this.publishedWhileLoading.addAll(mutations);
+        }
+
+        try {
+            this.index.set(this.index.get().apply(mutations));
+        } catch (RuntimeException e) {
+            log.error("autocomplete publish failed -> {}", mutations.size(), e);
+        }
     }
 }
@@ -0,0 +1,215 @@
+package com.reservation.service.store;
+
+import com.reservation.service.store.AutocompleteIndex.Mutation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 자동완성 인덱스를 파일로 저장하고 다시 읽는 저장소
+ * 1. 주기적으로 현재 스냅샷의 매장을 id 순서대로 파일에 기록
+ * 2. 임시 파일에 모두 쓴 뒤 이름을 바꾸므로 읽는 쪽은 항상 완성된 파일만 본다.
+ * 3. 시작 시 파일을 메모리 매핑하여 읽고, watermark 이후 변경분만 DB 에서 조회
+ * <p>
+ * 파일 형식: magic, version, watermark(초, 나노초), 매장 수,
+ * 매장마다 (id, 가중치, 이름의 UTF-8 길이, 이름)
+ * watermark 는 기록 시점보다 margin 만큼 이전으로 잡아
+ * 기록 중에 커밋되던 변경도 시작 시 다시 읽도록 한다.
+ */
+@Slf4j
+@Component
+public class AutocompleteSnapshotStore {
+
+    private static final int MAGIC = 0x41434D50;
+    private static final int VERSION = 1;
+
+    private final AutocompleteService autocompleteService;
+    private final Path path;
+    private final long marginMillis;
+
+    public AutocompleteSnapshotStore(
+            AutocompleteService autocompleteService,
+            @Value("${reservation.autocomplete.snapshot-path:}") String path,
+            @Value("${reservation.autocomplete.snapshot-margin-ms:300000}") long marginMillis) {
+
+        this.autocompleteService = autocompleteService;
+        this.path = path.isEmpty() ? null : Paths.get(path);
+        this.marginMillis = marginMillis;
+    }
+
+    /**
+     * 주기적으로 현재 스냅샷을 파일에 기록
+     * 적재가 끝나기 전에는 기록하지 않는다.
+     */
+    @Scheduled(fixedDelayString = "${reservation.autocomplete.snapshot-interval-ms:600000}")
+    public void write() {
+        if (this.path == null || !this.autocompleteService.isReady()) {
+            return;
+        }
+
+        LocalDateTime watermark =
+                LocalDateTime.now().minus(Duration.ofMillis(this.marginMillis));
+        AutocompleteIndex index = this.autocompleteService.snapshot();
+
+        List<Row> rows = new ArrayList<>(index.size());
+        index.forEach((storeId, name, weight) ->
+                rows.add(new Row(storeId, name, weight)));
+        rows.sort(Comparator.comparingLong(row -> row.storeId));
+
+        Path temp = null;
+        try {
+            Path parent = this.path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            temp = Files.createTempFile(parent, "autocomplete", ".tmp");
+
+            try (FileChannel channel = FileChannel.open(temp,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 DataOutputStream out = new DataOutputStream(
+                         new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(watermark.toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(watermark.getNano());
+                out.writeInt(rows.size());
+
+                for (Row row : rows) {
+                    byte[] name = row.name.getBytes(StandardCharsets.UTF_8);
+                    out.writeLong(row.storeId);
+                    out.writeDouble(row.weight);
+                    out.writeInt(name.length);
+                    out.write(name);
+                }
+                out.flush();
+                channel.force(true);
+            }
+
+            Files.move(temp, this.path,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("autocomplete snapshot write failed -> {}", this.path, e);
+            deleteQuietly(temp);
+            return;
+        }
+
+        log.info("\u001B[32mautocomplete snapshot write -> {}",
+                rows.size() + "\u001B[0m");
+    }
+
+    /**
+     * 저장된 스냅샷 읽기
+     * 파일이 없거나 형식이 맞지 않으면 빈 값을 반환하며, 이 때는 DB 에서 모두 적재한다.
+     */
+    public Optional<Snapshot> read() {
+        if (this.path == null || !Files.isRegularFile(this.path)) {
+            return Optional.empty();
+        }
+
+        try (FileChannel channel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(
+                    FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                log.warn("autocomplete snapshot format mismatch -> {}", this.path);
+                return Optional.empty();
+            }
+
+            LocalDateTime watermark = LocalDateTime.ofEpochSecond(
+                    buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+            int count = buffer.getInt();
+            if (count < 0) {
+                throw new IllegalArgumentException("negative count " + count);
+            }
+
+            List<Mutation> mutations = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long storeId = buffer.getLong();
+                double weight = buffer.getDouble();
+                byte[] name = new byte[buffer.getInt()];
+                buffer.get(name);
+
+                mutations.add(Mutation.put(storeId,
+                        new String(name, StandardCharsets.UTF_8), weight));
+            }
+            return Optional.of(new Snapshot(watermark, mutations));
+        } catch (IOException | BufferUnderflowException
+                 | IllegalArgumentException | DateTimeException e) {
+            log.warn("autocomplete snapshot read failed -> {}", this.path, e);
+            return Optional.empty();
+        }
+    }
+
+    private static void deleteQuietly(Path temp) {
+        if (temp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            log.warn("autocomplete snapshot temp delete failed -> {}", temp);
+        }
+    }
+
+    private static final class Row {
+
+        private final long storeId;
+        private final String name;
+        private final double weight;
+
+        private Row(long storeId, String name, double weight) {
+            this.storeId = storeId;
+            this.name = name;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * 파일에서 읽은 스냅샷 (매장 id 오름차순)
+     */
+    public static final class Snapshot {
+
+        private final LocalDateTime watermark;
+        private final List<Mutation> mutations;
+
+        private Snapshot(LocalDateTime watermark, List<Mutation> mutations) {
+            this.watermark = watermark;
+            this.mutations = mutations;
+        }
+
+        public LocalDateTime getWatermark() {
+            return this.watermark;
+        }
+
+        public List<Mutation> getMutations() {
+            return this.mutations;
+        }
+
+        public int size() {
+            return this.mutations.size();
+        }
+    }
+}
@@ -0,0 +1,622 @@
+package com.reservation.service.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 노드마다 순위 상위 topK 개의 완성 결과를 미리 계산해 둔 불변 trie
+ * 1. 키를 정렬한 뒤 같은 접두사끼리 묶어 노드를 만듦
+ * 2. 갈라지지 않고 이어지는 글자들은 노드 하나의 path 로 압축
+ * 3. 자식 노드의 상위 목록과 이 노드에서 끝나는 키의 값을 합쳐 상위 topK 개만 유지
+ * <p>
+ * 조회는 접두사 길이만큼 내려간 뒤 그 노드의 목록을 읽기만 하므로
+ * 일치하는 키가 아무리 많아도 O(접두사 길이 + K) 이다.
+ * 오타 허용 조회는 편집 거리 표의 행을 노드마다 한 줄씩 계산하며 내려가고,
+ * 행의 최소값이 허용 거리를 넘는 가지는 더 내려가지 않는다.
+ * <p>
+ * put, remove 는 키가 지나는 경로의 노드만 복사한 새 trie 를 반환하고 나머지 노드는 공유한다.
+ * 경로의 노드마다 상위 목록을 다시 계산하므로 비용은 O(키 길이 * (K + 자식 수)) 이며 전체 키 수와 관계없다.
+ *
+ * @param <T> 완성 결과
+ */
+public final class CompletionTrie<T> {
+
+    private static final Object[] NONE = new Object[0];
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Ranker ranker;
+    private final Node root;
+
+    private CompletionTrie(Ranker ranker, Node root) {
+        this.ranker = ranker;
+        this.root = root;
+    }
+
+    /**
+     * 빈 trie
+     *
+     * @param ranking 완성 결과의 순위, 앞에 올수록 먼저
+     * @param topK    노드마다 유지할 완성 결과 수
+     */
+    public static <T> CompletionTrie<T> empty(Comparator<? super T> ranking, int topK) {
+        return new CompletionTrie<>(new Ranker(ranking, topK),
+                new Node("", NO_LABELS, NO_CHILDREN, NONE, NONE));
+    }
+
+    /**
+     * keys[i] 로 찾을 수 있는 values[i] 로 trie 생성
+     * 많은 키를 한 번에 넣을 때는 put 을 반복하는 것보다 빠르다.
+     *
+     * @param ranking 완성 결과의 순위, 앞에 올수록 먼저
+     * @param topK    노드마다 유지할 완성 결과 수
+     */
+    public static <T> CompletionTrie<T> build(
+            List<String> keys, List<T> values, Comparator<? super T> ranking, int topK) {
+
+        Integer[] order = new Integer[keys.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(keys::get));
+
+        String[] sortedKeys = new String[order.length];
+        Object[] sortedValues = new Object[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedKeys[i] = keys.get(order[i]);
+            sortedValues[i] = values.get(order[i]);
+        }
+
+        Ranker ranker = new Ranker(ranking, topK);
+        if (sortedKeys.length == 0) {
+            return new CompletionTrie<>(ranker,
+                    new Node("", NO_LABELS, NO_CHILDREN, NONE, NONE));
+        }
+
+        Builder builder = new Builder(sortedKeys, sortedValues, ranker);
+        Node root = builder.build(0, sortedKeys.length, 0);
+        if (!root.path.isEmpty()) {
+            // 루트는 항상 빈 path 에서 시작해야 put 이 모든 키를 받을 수 있다.
+            root = new Node("", new char[]{root.path.charAt(0)},
+                    new Node[]{root.withPath(root.path.substring(1))},
+                    NONE, root.top);
+        }
+        return new CompletionTrie<>(ranker, root);
+    }
+
+    /**
+     * key 로 찾을 수 있는 value 를 추가한 새 trie
+     * 같은 키에 여러 값을 둘 수 있다.
+     */
+    public CompletionTrie<T> put(String key, T value) {
+        return new CompletionTrie<>(this.ranker, insert(this.root, key, 0, value));
+    }
+
+    /**
+     * key 의 value 를 뺀 새 trie, 값은 equals 로 비교하며 없다면 그대로 반환
+     */
+    public CompletionTrie<T> remove(String key, T value) {
+        Node removed = delete(this.root, key, 0, value, true);
+        return removed == this.root ? this : new CompletionTrie<>(this.ranker, removed);
+    }
+
+    /**
+     * 키가 정확히 key 인 값들
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> get(String key) {
+        Node node = this.root;
+        int i = 0;
+
+        while (true) {
+            if (!key.startsWith(node.path, i)) {
+                return new ArrayList<>();
+            }
+            i += node.path.length();
+            if (i == key.length()) {
+                List<T> values = new ArrayList<>(node.terminals.length);
+                for (Object value : node.terminals) {
+                    values.add((T) value);
+                }
+                return values;
+            }
+
+            node = node.child(key.charAt(i++));
+            if (node == null) {
+                return new ArrayList<>();
+            }
+        }
+    }
+
+    /**
+     * prefix 로 시작하는 키의 값을 순위대로 최대 limit 개 반환
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> complete(String prefix, int limit) {
+        Node node = find(prefix);
+        if (node == null) {
+            return new ArrayList<>();
+        }
+
+        int size = Math.min(limit, node.top.length);
+        List<T> completions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            completions.add((T) node.top[i]);
+        }
+        return completions;
+    }
+
+    /**
+     * 접두사가 query 와 편집 거리 maxDistance 이내인 키의 값을
+     * 거리가 가까운 순서, 같다면 순위대로 최대 limit 개 반환
+     * 일치하는 노드마다 미리 계산해 둔 상위 목록만 모으므로
+     * 방문하는 노드 수는 query 길이와 maxDistance 에만 의존한다.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> completeFuzzy(String query, int maxDistance, int limit) {
+        FuzzySearch search = new FuzzySearch(query, maxDistance);
+        search.visit(this.root, 0);
+
+        Map<Object, Integer> found = search.found;
+        List<Object> values = new ArrayList<>(found.keySet());
+        values.sort((a, b) -> {
+            int compared = Integer.compare(found.get(a), found.get(b));
+            return compared != 0 ? compared : this.ranker.ranking.compare(a, b);
+        });
+
+        int size = Math.min(limit, values.size());
+        List<T> completions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            completions.add((T) values.get(i));
+        }
+        return completions;
+    }
+
+    /**
+     * prefix 로 시작하는 키를 모두 포함하는 가장 얕은 노드
+     * prefix 가 노드의 path 중간에서 끝나도 그 노드를 반환
+     */
+    private Node find(String prefix) {
+        Node node = this.root;
+        int i = 0;
+
+        while (true) {
+            for (int j = 0; j < node.path.length(); j++, i++) {
+                if (i == prefix.length()) {
+                    return node;
+                }
+                if (prefix.charAt(i) != node.path.charAt(j)) {
+                    return null;
+                }
+            }
+            if (i == prefix.length()) {
+                return node;
+            }
+
+            node = node.child(prefix.charAt(i++));
+            if (node == null) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * node 아래에 key 의 value 를 추가한 새 노드
+     * node 로 들어오기까지 key 의 depth 글자를 지나왔다.
+     */
+    private Node insert(Node node, String key, int depth, Object value) {
+        int common = 0;
+        while (common < node.path.length() && depth + common < key.length()
+                && node.path.charAt(common) == key.charAt(depth + common)) {
+            common++;
+        }
+
+        // path 중간에서 갈라진다면 갈라지는 글자에서 노드를 나눔
+        if (common < node.path.length()) {
+            Node lower = node.withPath(node.path.substring(common + 1));
+            node = new Node(node.path.substring(0, common),
+                    new char[]{node.path.charAt(common)}, new Node[]{lower},
+                    NONE, lower.top);
+        }
+
+        int end = depth + node.path.length();
+        if (end == key.length()) {
+            Object[] terminals = Arrays.copyOf(node.terminals, node.terminals.length + 1);
+            terminals[node.terminals.length] = value;
+            return new Node(node.path, node.labels, node.children,
+                    terminals, this.ranker.with(node.top, value));
+        }
+
+        char label = key.charAt(end);
+        int index = Arrays.binarySearch(node.labels, label);
+        char[] labels;
+        Node[] children;
+
+        if (index >= 0) {
+            labels = node.labels;
+            children = node.children.clone();
+            children[index] = insert(node.children[index], key, end + 1, value);
+        } else {
+            int position = -index - 1;
+            labels = new char[node.labels.length + 1];
+            children = new Node[node.children.length + 1];
+            System.arraycopy(node.labels, 0, labels, 0, position);
+            System.arraycopy(node.children, 0, children, 0, position);
+            labels[position] = label;
+            children[position] = new Node(key.substring(end + 1),
+                    NO_LABELS, NO_CHILDREN, new Object[]{value}, new Object[]{value});
+            System.arraycopy(node.labels, position, labels, position + 1,
+                    node.labels.length - position);
+            System.arraycopy(node.children, position, children, position + 1,
+                    node.children.length - position);
+        }
+
+        return new Node(node.path, labels, children,
+                node.terminals, this.ranker.with(node.top, value));
+    }
+
+    /**
+     * node 아래에서 key 의 value 를 뺀 새 노드
+     * 값이 없다면 node 를 그대로, 빈 노드가 되면 null 을 반환
+     * 값이 없어진 노드는 자식이 하나뿐이라면 자식과 합쳐 path 를 다시 압축한다.
+     */
+    private Node delete(Node node, String key, int depth, Object value, boolean root) {
+        if (!key.startsWith(node.path, depth)) {
+            return node;
+        }
+
+        int end = depth + node.path.length();
+        Object[] terminals = node.terminals;
+        char[] labels = node.labels;
+        Node[] children = node.children;
+
+        if (end == key.length()) {
+            int index = indexOf(terminals, value);
+            if (index < 0) {
+                return node;
+            }
+            terminals = removeAt(terminals, index);
+        } else {
+            int index = Arrays.binarySearch(labels, key.charAt(end));
+            if (index < 0) {
+                return node;
+            }
+
+            Node child = delete(children[index], key, end + 1, value, false);
+            if (child == children[index]) {
+                return node;
+            }
+            if (child == null) {
+                labels = removeAt(labels, index);
+                children = removeAt(children, index);
+            } else {
+                children = children.clone();
+                children[index] = child;
+            }
+        }
+
+        if (!root && terminals.length == 0) {
+            if (children.length == 0) {
+                return null;
+            }
+            if (children.length == 1) {
+                Node child = children[0];
+                return new Node(node.path + labels[0] + child.path,
+                        child.labels, child.children, child.terminals, child.top);
+            }
+        }
+
+        // 뺀 값이 상위 목록에 없었다면 목록은 그대로
+        Object[] top = indexOf(node.top, value) < 0
+                ? node.top
+                : this.ranker.top(terminals, children);
+        return new Node(node.path, labels, children, terminals, top);
+    }
+
+    private static int indexOf(Object[] values, Object value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i].equals(value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Object[] removeAt(Object[] values, int index) {
+        if (values.length == 1) {
+            return NONE;
+        }
+        Object[] removed = new Object[values.length - 1];
+        System.arraycopy(values, 0, removed, 0, index);
+        System.arraycopy(values, index + 1, removed, index, removed.length - index);
+        return removed;
+    }
+
+    private static char[] removeAt(char[] labels, int index) {
+        char[] removed = new char[labels.length - 1];
+        System.arraycopy(labels, 0, removed, 0, index);
+        System.arraycopy(labels, index + 1, removed, index, removed.length - index);
+        return removed;
+    }
+
+    private static Node[] removeAt(Node[] children, int index) {
+        Node[] removed = new Node[children.length - 1];
+        System.arraycopy(children, 0, removed, 0, index);
+        System.arraycopy(children, index + 1, removed, index, removed.length - index);
+        return removed;
+    }
+
+    private static final class Node {
+
+        // 이 노드로 들어오는 글자 다음에 이어지는 글자들
+        private final String path;
+        private final char[] labels;
+        private final Node[] children;
+        // 키가 이 노드에서 끝나는 값
+        private final Object[] terminals;
+        // 이 노드 아래 값, 순위대로
+        private final Object[] top;
+
+        private Node(String path, char[] labels, Node[] children,
+                     Object[] terminals, Object[] top) {
+            this.path = path;
+            this.labels = labels;
+            this.children = children;
+            this.terminals = terminals;
+            this.top = top;
+        }
+
+        private Node child(char label) {
+            int index = Arrays.binarySearch(this.labels, label);
+            return index < 0 ? null : this.children[index];
+        }
+
+        private Node withPath(String path) {
+            return new Node(path, this.labels, this.children, this.terminals, this.top);
+        }
+    }
+
+    /**
+     * 노드의 상위 topK 목록 계산
+     * topK 가 작으므로 크기가 제한된 배열에 삽입 정렬로 유지
+     */
+    private static final class Ranker {
+
+        private final Comparator<Object> ranking;
+        private final int topK;
+
+        @SuppressWarnings("unchecked")
+        private Ranker(Comparator<?> ranking, int topK) {
+            this.ranking = (Comparator<Object>) ranking;
+            this.topK = topK;
+        }
+
+        /**
+         * 이 노드에서 끝나는 값과 자식들의 상위 목록 중 상위 topK 개
+         */
+        private Object[] top(Object[] terminals, Node[] children) {
+            Object[] top = new Object[this.topK];
+            int size = 0;
+
+            for (Object value : terminals) {
+                size = offer(top, size, value);
+            }
+            for (Node child : children) {
+                for (Object value : child.top) {
+                    // 자식의 목록은 이미 정렬되어 있으므로 들어가지 못하면 나머지도 건너뜀
+                    if (size == this.topK && !before(value, top[size - 1])) {
+                        break;
+                    }
+                    size = offer(top, size, value);
+                }
+            }
+            return size == 0 ? NONE : size == top.length ? top : Arrays.copyOf(top, size);
+        }
+
+        /**
+         * 상위 목록에 value 를 더한 새 목록, 들어가지 못한다면 그대로 반환
+         */
+        private Object[] with(Object[] top, Object value) {
+            if (top.length == this.topK && !before(value, top[top.length - 1])) {
+                return top;
+            }
+
+            Object[] next = Arrays.copyOf(top, Math.min(top.length + 1, this.topK));
+            offer(next, Math.min(top.length, this.topK - 1), value);
+            return next;
+        }
+
+        private int offer(Object[] top, int size, Object value) {
+            if (size == this.topK) {
+                if (!before(value, top[size - 1])) {
+                    return size;
+                }
+                size--;
+            }
+
+            int position = size;
+            while (position > 0 && before(value, top[position - 1])) {
+                top[position] = top[position - 1];
+                position--;
+            }
+            top[position] = value;
+            return size + 1;
+        }
+
+        private boolean before(Object a, Object b) {
+            return this.ranking.compare(a, b) < 0;
+        }
+    }
+
+    /**
+     * 편집 거리 표를 한 행씩 계산하며 trie 를 내려가는 탐색
+     * rows[d] 는 길이 d 의 키 접두사와 query 의 각 접두사 사이의 편집 거리이며,
+     * 대각선에서 maxDistance 보다 먼 칸은 maxDistance 를 넘을 수밖에 없으므로
+     * 대각선 주변 2 * maxDistance + 1 칸만 계산한다.
+     * 계산 범위는 depth 에만 의존하므로 범위 밖의 칸은 처음 채운 unreachable 로 남는다.
+     */
+    private static final class FuzzySearch {
+
+        private final String query;
+        private final int maxDistance;
+        private final int unreachable;
+        // 같은 값이 여러 노드에서 나오면 가장 가까운 거리만 남김
+        private final Map<Object, Integer> found = new IdentityHashMap<>();
+        private int[][] rows = new int[16][];
+
+        private FuzzySearch(String query, int maxDistance) {
+            this.query = query;
+            this.maxDistance = maxDistance;
+            this.unreachable = maxDistance + 1;
+
+            int[] first = row(0);
+            for (int i = 0; i <= query.length(); i++) {
+                first[i] = Math.min(i, this.unreachable);
+            }
+        }
+
+        /**
+         * rows[depth] 는 node 로 들어오는 글자까지 계산되어 있다.
+         */
+        private void visit(Node node, int depth) {
+            for (int j = 0; ; j++) {
+                int[] row = this.rows[depth];
+                int distance = row[this.query.length()];
+                int lowerBound = lowerBound(depth);
+
+                if (distance <= this.maxDistance) {
+                    for (Object value : node.top) {
+                        this.found.merge(value, distance, Math::min);
+                    }
+                }
+                // 더 내려가도 거리는 행의 최소값보다 작아질 수 없다.
+                if (lowerBound > this.maxDistance || distance == lowerBound) {
+                    return;
+                }
+                if (j == node.path.length()) {
+                    break;
+                }
+                next(depth++, node.path.charAt(j));
+            }
+
+            for (int i = 0; i < node.children.length; i++) {
+                next(depth, node.labels[i]);
+                visit(node.children[i], depth + 1);
+            }
+        }
+
+        /**
+         * rows[depth] 에 글자 c 를 더한 rows[depth + 1] 계산
+         */
+        private void next(int depth, char c) {
+            int[] previous = this.rows[depth];
+            int[] next = row(depth + 1);
+            int length = this.query.length();
+
+            int from = Math.max(1, depth + 1 - this.maxDistance);
+            int to = Math.min(length, depth + 1 + this.maxDistance);
+
+            next[0] = Math.min(previous[0] + 1, this.unreachable);
+            for (int i = from; i <= to; i++) {
+                int substitution = previous[i - 1]
+                        + (this.query.charAt(i - 1) == c ? 0 : 1);
+                int deletion = previous[i] + 1;
+                int insertion = next[i - 1] + 1;
+                next[i] = Math.min(this.unreachable,
+                        Math.min(substitution, Math.min(deletion, insertion)));
+            }
+        }
+
+        private int lowerBound(int depth) {
+            int[] row = this.rows[depth];
+            int from = Math.max(1, depth - this.maxDistance);
+            int to = Math.min(this.query.length(), depth + this.maxDistance);
+
+            int min = row[0];
+            for (int i = from; i <= to; i++) {
+                min = Math.min(min, row[i]);
+            }
+            return min;
+        }
+
+        private int[] row(int depth) {
+            if (depth >= this.rows.length) {
+                this.rows = Arrays.copyOf(this.rows, depth * 2);
+            }
+            if (this.rows[depth] == null) {
+                this.rows[depth] = new int[this.query.length() + 1];
+                Arrays.fill(this.rows[depth], this.unreachable);
+            }
+            return this.rows[depth];
+        }
+    }
+
+    /**
+     * 정렬된 키로 노드를 재귀적으로 생성
+     */
+    private static final class Builder {
+
+        private final String[] keys;
+        private final Object[] values;
+        private final Ranker ranker;
+
+        private Builder(String[] keys, Object[] values, Ranker ranker) {
+            this.keys = keys;
+            this.values = values;
+            this.ranker = ranker;
+        }
+
+        /**
+         * keys[from, to) 는 모두 길이 depth 의 같은 접두사를 가진다.
+         */
+        private Node build(int from, int to, int depth) {
+            // 범위의 모든 키가 공유하는 글자는 path 로 압축 (정렬되어 있으므로 처음과 끝만 비교)
+            String first = this.keys[from];
+            String last = this.keys[to - 1];
+            int end = depth;
+            while (end < first.length() && end < last.length()
+                    && first.charAt(end) == last.charAt(end)) {
+                end++;
+            }
+            String path = first.substring(depth, end);
+
+            // 정렬되어 있으므로 이 노드에서 끝나는 키가 앞에 온다.
+            int terminalEnd = from;
+            while (terminalEnd < to && this.keys[terminalEnd].length() == end) {
+                terminalEnd++;
+            }
+
+            int childCount = 0;
+            for (int i = terminalEnd; i < to; i++) {
+                if (i == terminalEnd || this.keys[i].charAt(end)
+                        != this.keys[i - 1].charAt(end)) {
+                    childCount++;
+                }
+            }
+
+            char[] labels = new char[childCount];
+            Node[] children = new Node[childCount];
+            int start = terminalEnd;
+            for (int child = 0; child < childCount; child++) {
+                char label = this.keys[start].charAt(end);
+                int next = start + 1;
+                while (next < to && this.keys[next].charAt(end) == label) {
+                    next++;
+                }
+                labels[child] = label;
+                children[child] = build(start, next, end + 1);
+                start = next;
+            }
+
+            Object[] terminals = from == terminalEnd
+                    ? NONE
+                    : Arrays.copyOfRange(this.values, from, terminalEnd);
+            return new Node(path, labels, children, terminals,
+                    this.ranker.top(terminals, children));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.reservation.service.store;
+
+import java.util.Locale;
+
+/**
+ * 한글 음절을 자모로 분해하는 유틸리티
+ * 모든 자모는 호환 자모(U+3131 ~ U+3163)로 표현하며,
+ * 겹받침(ㄺ -> ㄹㄱ)과 이중 모음(ㅘ -> ㅗㅏ)은 입력 순서대로 나누어
+ * 입력 중인 글자("스탑")도 완성된 이름("스타벅스")의 접두사가 되도록 한다.
+ */
+public final class HangulJamo {
+
+    private static final char SYLLABLE_BEGIN = '가';
+    private static final char SYLLABLE_END = '힣';
+    private static final int JUNGSUNG_COUNT = 21;
+    private static final int JONGSUNG_COUNT = 28;
+
+    private static final char JAMO_BEGIN = 'ㄱ';
+    private static final char CONSONANT_END = 'ㅎ';
+    private static final char JAMO_END = 'ㅣ';
+
+    private static final String[] CHOSUNG = {
+            "ㄱ", "ㄲ", "ㄴ", "ㄷ", "ㄸ", "ㄹ", "ㅁ", "ㅂ", "ㅃ", "ㅅ",
+            "ㅆ", "ㅇ", "ㅈ", "ㅉ", "ㅊ", "ㅋ", "ㅌ", "ㅍ", "ㅎ"
+    };
+
+    private static final String[] JUNGSUNG = {
+            "ㅏ", "ㅐ", "ㅑ", "ㅒ", "ㅓ", "ㅔ", "ㅕ", "ㅖ", "ㅗ", "ㅗㅏ",
+            "ㅗㅐ", "ㅗㅣ", "ㅛ", "ㅜ", "ㅜㅓ", "ㅜㅔ", "ㅜㅣ", "ㅠ", "ㅡ", "ㅡㅣ",
+            "ㅣ"
+    };
+
+    private static final String[] JONGSUNG = {
+            "", "ㄱ", "ㄲ", "ㄱㅅ", "ㄴ", "ㄴㅈ", "ㄴㅎ", "ㄷ", "ㄹ", "ㄹㄱ",
+            "ㄹㅁ", "ㄹㅂ", "ㄹㅅ", "ㄹㅌ", "ㄹㅍ", "ㄹㅎ", "ㅁ", "ㅂ", "ㅂㅅ", "ㅅ",
+            "ㅆ", "ㅇ", "ㅈ", "ㅊ", "ㅋ", "ㅌ", "ㅍ", "ㅎ"
+    };
+
+    // 호환 자모로 직접 입력한 겹자음, 이중 모음을 나누기 위한 표
+    private static final String COMPOUND_JAMO =
+            "ㄳㄵㄶㄺㄻㄼㄽㄾㄿㅀㅄㅘㅙㅚㅝㅞㅟㅢ";
+    private static final String[] COMPOUND_JAMO_SPLIT = {
+            "ㄱㅅ", "ㄴㅈ", "ㄴㅎ", "ㄹㄱ", "ㄹㅁ", "ㄹㅂ", "ㄹㅅ", "ㄹㅌ", "ㄹㅍ", "ㄹㅎ",
+            "ㅂㅅ", "ㅗㅏ", "ㅗㅐ", "ㅗㅣ", "ㅜㅓ", "ㅜㅔ", "ㅜㅣ", "ㅡㅣ"
+    };
+
+    private HangulJamo() {
+    }
+
+    /**
+     * 문자열을 자모 단위로 분해 ("스타벅스" -> "ㅅㅡㅌㅏㅂㅓㄱㅅㅡ")
+     * 한글이 아닌 문자는 소문자로 바꾸어 그대로 둔다.
+     */
+    public static String decompose(String text) {
+        String lowerCase = text.toLowerCase(Locale.ROOT);
+        StringBuilder builder = new StringBuilder(lowerCase.length() * 3);
+
+        for (int i = 0; i < lowerCase.length(); i++) {
+            char c = lowerCase.charAt(i);
+
+            if (isSyllable(c)) {
+                int offset = c - SYLLABLE_BEGIN;
+                builder.append(CHOSUNG[offset / (JUNGSUNG_COUNT * JONGSUNG_COUNT)])
+                        .append(JUNGSUNG[offset / JONGSUNG_COUNT % JUNGSUNG_COUNT])
+                        .append(JONGSUNG[offset % JONGSUNG_COUNT]);
+            } else if (COMPOUND_JAMO.indexOf(c) >= 0) {
+                builder.append(COMPOUND_JAMO_SPLIT[COMPOUND_JAMO.indexOf(c)]);
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 문자열의 초성만 추출 ("스타벅스" -> "ㅅㅌㅂㅅ")
+     * 한글이 아닌 문자는 소문자로 바꾸어 그대로 둔다.
+     */
+    public static String chosung(String text) {
+        String lowerCase = text.toLowerCase(Locale.ROOT);
+        StringBuilder builder = new StringBuilder(lowerCase.length());
+
+        for (int i = 0; i < lowerCase.length(); i++) {
+            char c = lowerCase.charAt(i);
+
+            if (isSyllable(c)) {
+                int offset = c - SYLLABLE_BEGIN;
+                builder.append(CHOSUNG[offset / (JUNGSUNG_COUNT * JONGSUNG_COUNT)]);
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 한글 자음으로만 이루어진 검색어인지 확인 ("ㅅㅌㅂ")
+     * 공백은 무시한다.
+     */
+    public static boolean isChosungQuery(String text) {
+        boolean hasConsonant = false;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            if (c >= JAMO_BEGIN && c <= CONSONANT_END) {
+                hasConsonant = true;
+            } else if (!Character.isWhitespace(c)) {
+                return false;
+            }
+        }
+        return hasConsonant;
+    }
+
+    /**
+     * 한글이 하나라도 포함되어 있는지 확인
+     */
+    public static boolean containsHangul(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isSyllable(c) || isJamo(c)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSyllable(char c) {
+        return c >= SYLLABLE_BEGIN && c <= SYLLABLE_END;
+    }
+
+    private static boolean isJamo(char c) {
+        return c >= JAMO_BEGIN && c <= JAMO_END;
+    }
+}
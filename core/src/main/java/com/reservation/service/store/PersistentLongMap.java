@@ -0,0 +1,143 @@
+package com.reservation.service.store;
+
+/**
+ * long 키의 불변 맵
+ * 키를 5비트씩 나누어 32갈래 트리로 내려가며, with, without 은 바뀐 경로의 노드만 복사한 새 맵을 반환한다.
+ * 변경 비용은 키 개수와 관계없이 일정하므로 스냅샷마다 전체 맵을 복사하지 않아도 된다.
+ *
+ * @param <V> 값, null 은 담을 수 없다.
+ */
+final class PersistentLongMap<V> {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    // 64 비트를 위에서부터 5비트씩: 60, 55, ..., 5, 0
+    private static final int TOP_SHIFT = 60;
+
+    private static final PersistentLongMap<?> EMPTY = new PersistentLongMap<>(null, 0);
+
+    private final Object[] root;
+    private final int size;
+
+    private PersistentLongMap(Object[] root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> PersistentLongMap<V> empty() {
+        return (PersistentLongMap<V>) EMPTY;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        Object[] node = this.root;
+
+        for (int shift = TOP_SHIFT; node != null; shift -= BITS) {
+            Object child = node[index(key, shift)];
+            if (shift == 0) {
+                return (V) child;
+            }
+            node = (Object[]) child;
+        }
+        return null;
+    }
+
+    /**
+     * key 의 값을 value 로 바꾼 새 맵
+     */
+    PersistentLongMap<V> with(long key, V value) {
+        V previous = get(key);
+        if (previous == value) {
+            return this;
+        }
+        return new PersistentLongMap<>(set(this.root, key, TOP_SHIFT, value),
+                previous == null ? this.size + 1 : this.size);
+    }
+
+    /**
+     * key 를 뺀 새 맵, 없다면 그대로 반환
+     */
+    PersistentLongMap<V> without(long key) {
+        if (get(key) == null) {
+            return this;
+        }
+        return new PersistentLongMap<>(clear(this.root, key, TOP_SHIFT), this.size - 1);
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * 키 순서대로 모든 값을 방문
+     */
+    void forEach(Visitor<? super V> visitor) {
+        if (this.root != null) {
+            forEach(this.root, 0L, TOP_SHIFT, visitor);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> void forEach(Object[] node, long prefix, int shift, Visitor<? super V> visitor) {
+        for (int i = 0; i < WIDTH; i++) {
+            Object child = node[i];
+            if (child == null) {
+                continue;
+            }
+
+            long key = prefix | ((long) i << shift);
+            if (shift == 0) {
+                visitor.visit(key, (V) child);
+            } else {
+                forEach((Object[]) child, key, shift - BITS, visitor);
+            }
+        }
+    }
+
+    private static Object[] set(Object[] node, long key, int shift, Object value) {
+        Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+        int index = index(key, shift);
+
+        copy[index] = shift == 0
+                ? value
+                : set((Object[]) copy[index], key, shift - BITS, value);
+        return copy;
+    }
+
+    /**
+     * key 를 뺀 노드의 복사본, 비게 된다면 null
+     */
+    private static Object[] clear(Object[] node, long key, int shift) {
+        int index = index(key, shift);
+        Object child = shift == 0
+                ? null
+                : clear((Object[]) node[index], key, shift - BITS);
+
+        if (child == null && isEmptyExcept(node, index)) {
+            return null;
+        }
+        Object[] copy = node.clone();
+        copy[index] = child;
+        return copy;
+    }
+
+    private static boolean isEmptyExcept(Object[] node, int except) {
+        for (int i = 0; i < WIDTH; i++) {
+            if (i != except && node[i] != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int index(long key, int shift) {
+        return (int) ((key >>> shift) & MASK);
+    }
+
+    interface Visitor<V> {
+
+        void visit(long key, V value);
+    }
+}
@@ -0,0 +1,45 @@
+package com.reservation.service.store;
+
+import com.reservation.service.store.feed.StoreChangeEvent;
+import com.reservation.service.store.feed.StoreChangeFeed;
+import com.reservation.service.store.feed.StoreChangeFollower;
+import org.springframework.stereotype.Component;
+
+/**
+ * 매장 변경 피드를 구독하여 이 서버의 매장 검색 인덱스에 반영
+ * 다른 서버에서 생성, 수정, 삭제한 매장도 검색 결과에 반영된다.
+ * version 순서 확인과 유실 시 재적재는 StoreChangeFollower 참고
+ */
+@Component
+public class StoreSearchChangeListener extends StoreChangeFollower {
+
+    private final StoreSearchIndex storeSearchIndex;
+
+    public StoreSearchChangeListener(
+            StoreChangeFeed storeChangeFeed, StoreSearchIndex storeSearchIndex) {
+
+        super(storeChangeFeed, "store-search");
+        this.storeSearchIndex = storeSearchIndex;
+    }
+
+    @Override
+    protected void load() {
+        this.storeSearchIndex.load();
+    }
+
+    @Override
+    protected void reload() {
+        this.storeSearchIndex.load();
+    }
+
+    @Override
+    protected void stored(StoreChangeEvent event) {
+        this.storeSearchIndex.put(
+                event.getStoreId(), event.getName(), event.getAddress());
+    }
+
+    @Override
+    protected void deleted(Long storeId) {
+        this.storeSearchIndex.remove(storeId);
+    }
+}
@@ -0,0 +1,480 @@
+package com.reservation.service.store;
+
+import com.reservation.repository.store.StoreRepository;
+import com.reservation.repository.store.StoreSearchView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 매장 이름과 주소에 대한 n-gram 역색인
+ * 1. 이름과 주소를 소문자로 바꾼 뒤 1글자, 2글자 조각(gram)으로 나눔
+ * 2. gram 마다 해당 gram 을 포함하는 매장 id 를 정렬된 long[] 로 유지
+ * 3. 검색어의 gram 들의 매장 id 목록을 교집합한 뒤 실제로 포함하는지 확인
+ * 4. 이름 접두사 일치, 이름 일치, 주소 일치 순서로 정렬
+ * <p>
+ * LIKE '%keyword%' 처럼 STORE 전체를 읽지 않고 검색할 수 있다.
+ * 시작 직후 적재가 끝나기 전(ready = false)에는 search 가 null 을 반환하며,
+ * 이 때는 StoreService 가 DB 로 검색한다.
+ * <p>
+ * 적재와 변경 반영은 StoreSearchChangeListener 가 매장 변경 피드를 따라가며 호출하므로
+ * 다른 서버에서 변경된 매장도 반영된다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StoreSearchIndex {
+
+    private static final int LOAD_CHUNK_SIZE = 1000;
+    private static final long[] EMPTY = new long[0];
+
+    private final StoreRepository storeRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, long[]> postings = new HashMap<>();
+
+    // 적재 중에 변경된 매장, 적재가 읽은 예전 값으로 덮어쓰지 않도록 건너뜀
+    private final Set<Long> changedWhileLoading = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+    private volatile boolean loading;
+
+    /**
+     * 매장 추가 또는 변경
+     * 트랜잭션 안이라면 커밋된 후에 반영
+     */
+    public void put(Long storeId, String name, String address) {
+        afterCommit(() -> {
+            if (!this.ready || this.loading) {
+                this.changedWhileLoading.add(storeId);
+            }
+            index(storeId, name, address);
+        });
+    }
+
+    /**
+     * 매장 삭제
+     * 트랜잭션 안이라면 커밋된 후에 반영
+     */
+    public void remove(Long storeId) {
+        afterCommit(() -> {
+            if (!this.ready || this.loading) {
+                this.changedWhileLoading.add(storeId);
+            }
+            this.lock.writeLock().lock();
+            try {
+                unindex(storeId);
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * keyword 를 이름이나 주소에 포함하는 매장 id 를 순위대로 반환
+     *
+     * @param keyword 검색 키워드
+     * @return 매장 id 목록, 아직 적재 중이라면 null
+     */
+    public List<Long> search(String keyword) {
+        if (!this.ready) {
+            return null;
+        }
+
+        String normalized = normalize(keyword);
+        if (normalized.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Document> matches = new ArrayList<>();
+        this.lock.readLock().lock();
+        try {
+            for (long storeId : candidates(normalized)) {
+                Document document = this.documents.get(storeId);
+                if (document != null && document.contains(normalized)) {
+                    matches.add(document);
+                }
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+
+        matches.sort(Comparator
+                .comparingInt((Document document) -> document.rank(normalized))
+                .thenComparingInt(document -> document.name.length())
+                .thenComparingLong(document -> document.id));
+
+        List<Long> storeIds = new ArrayList<>(matches.size());
+        for (Document document : matches) {
+            storeIds.add(document.id);
+        }
+        return storeIds;
+    }
+
+    public boolean isReady() {
+        return this.ready;
+    }
+
+    /**
+     * 매장을 id 순서대로 나누어 읽어 색인 전체를 새로 적재
+     * 1. 락 없이 gram 마다 늘어나는 버퍼에 매장 id 를 붙여 모음
+     * 2. gram 마다 한 번만 정렬하고 중복을 제거하여 long[] 로 만듦
+     * 3. 쓰기 락 안에서 적재 중에 반영된 변경과 합쳐 현재 색인을 한 번에 교체
+     * <p>
+     * 매장마다 posting 을 복사하지 않으므로 흔한 gram 이 많아도 적재 시간은 매장 수에 비례하며,
+     * 적재하는 동안에는 이전 색인으로 검색한다.
+     * 시작할 때와 변경 피드에서 이벤트를 잃었을 때 호출된다.
+     */
+    public synchronized void load() {
+        this.loading = true;
+        try {
+            Map<Long, Document> loaded = new HashMap<>();
+            Map<String, PostingBuffer> buffers = new HashMap<>();
+            long lastId = 0L;
+
+            List<StoreSearchView> views;
+            do {
+                views = this.storeRepository.findSearchViewsAfter(
+                        lastId, PageRequest.of(0, LOAD_CHUNK_SIZE));
+
+                for (StoreSearchView view : views) {
+                    if (!this.changedWhileLoading.contains(view.getId())) {
+                        Document document = new Document(view.getId(),
+                                normalize(view.getName()), normalize(view.getAddress()));
+                        loaded.put(document.id, document);
+                        for (String gram : document.grams()) {
+                            buffers.computeIfAbsent(gram, key -> new PostingBuffer())
+                                    .add(document.id);
+                        }
+                    }
+                    lastId = view.getId();
+                }
+            } while (views.size() == LOAD_CHUNK_SIZE);
+
+            Map<String, long[]> postings = new HashMap<>(buffers.size() * 2);
+            buffers.forEach((gram, buffer) -> postings.put(gram, buffer.toSortedArray()));
+
+            publish(loaded, postings);
+            log.info("\u001B[32mstore search index load -> {}", loaded.size() + "\u001B[0m");
+        } catch (RuntimeException e) {
+            // 이전 색인은 그대로 두고 다음 적재를 기다림
+            if (this.ready) {
+                this.loading = false;
+                this.changedWhileLoading.clear();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 적재한 색인으로 현재 색인을 교체
+     * 적재 중에 변경된 매장은 현재 색인의 값이 최신이므로 읽은 값을 버리고 현재 값을 옮긴다.
+     */
+    private void publish(Map<Long, Document> loaded, Map<String, long[]> postings) {
+        this.lock.writeLock().lock();
+        try {
+            List<Document> changed = new ArrayList<>();
+            for (Long storeId : this.changedWhileLoading) {
+                Document current = this.documents.get(storeId);
+                if (current != null) {
+                    changed.add(current);
+                }
+
+                Document stale = loaded.remove(storeId);
+                if (stale == null) {
+                    continue;
+                }
+                for (String gram : stale.grams()) {
+                    postings.computeIfPresent(gram, (key, posting) -> {
+                        long[] removed = delete(posting, storeId);
+                        return removed.length == 0 ? null : removed;
+                    });
+                }
+            }
+
+            this.documents.clear();
+            this.postings.clear();
+            this.documents.putAll(loaded);
+            this.postings.putAll(postings);
+            changed.forEach(this::add);
+
+            this.ready = true;
+            this.loading = false;
+            this.changedWhileLoading.clear();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private void index(Long storeId, String name, String address) {
+        Document document = new Document(storeId, normalize(name),
+                normalize(address));
+
+        this.lock.writeLock().lock();
+        try {
+            // 평점만 바뀐 변경은 색인할 내용이 같다.
+            if (!document.equals(this.documents.get(storeId))) {
+                unindex(storeId);
+                add(document);
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 쓰기 락 안에서 호출
+     */
+    private void add(Document document) {
+        this.documents.put(document.id, document);
+        for (String gram : document.grams()) {
+            this.postings.put(gram,
+                    insert(this.postings.getOrDefault(gram, EMPTY), document.id));
+        }
+    }
+
+    /**
+     * 쓰기 락 안에서 호출
+     */
+    private void unindex(Long storeId) {
+        Document document = this.documents.remove(storeId);
+        if (document == null) {
+            return;
+        }
+
+        for (String gram : document.grams()) {
+            long[] removed = delete(this.postings.get(gram), storeId);
+            if (removed.length == 0) {
+                this.postings.remove(gram);
+            } else {
+                this.postings.put(gram, removed);
+            }
+        }
+    }
+
+    /**
+     * 읽기 락 안에서 호출
+     * 검색어의 모든 gram 을 포함하는 매장 id, 짧은 목록부터 교집합
+     */
+    private long[] candidates(String keyword) {
+        Set<String> grams = grams(keyword);
+        long[][] lists = new long[grams.size()][];
+
+        int i = 0;
+        for (String gram : grams) {
+            long[] posting = this.postings.get(gram);
+            if (posting == null) {
+                return EMPTY;
+            }
+            lists[i++] = posting;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+
+        long[] result = lists[0];
+        for (i = 1; i < lists.length && result.length > 0; i++) {
+            result = intersect(result, lists[i]);
+        }
+        return result;
+    }
+
+    /**
+     * 작은 목록의 원소를 큰 목록에서 이진 탐색
+     */
+    private static long[] intersect(long[] small, long[] large) {
+        long[] result = new long[small.length];
+        int size = 0;
+        int from = 0;
+
+        for (long storeId : small) {
+            int index = Arrays.binarySearch(large, from, large.length, storeId);
+            if (index >= 0) {
+                result[size++] = storeId;
+                from = index + 1;
+            } else {
+                from = -index - 1;
+            }
+            if (from >= large.length) {
+                break;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * 매장 하나를 색인할 때 사용, 적재할 때는 PostingBuffer 로 모은다.
+     */
+    private static long[] insert(long[] posting, long storeId) {
+        int index = Arrays.binarySearch(posting, storeId);
+        if (index >= 0) {
+            return posting;
+        }
+
+        index = -index - 1;
+        long[] inserted = new long[posting.length + 1];
+        System.arraycopy(posting, 0, inserted, 0, index);
+        inserted[index] = storeId;
+        System.arraycopy(posting, index, inserted, index + 1,
+                posting.length - index);
+        return inserted;
+    }
+
+    private static long[] delete(long[] posting, long storeId) {
+        int index = posting == null ? -1 : Arrays.binarySearch(posting, storeId);
+        if (index < 0) {
+            return posting == null ? EMPTY : posting;
+        }
+
+        long[] deleted = new long[posting.length - 1];
+        System.arraycopy(posting, 0, deleted, 0, index);
+        System.arraycopy(posting, index + 1, deleted, index,
+                posting.length - index - 1);
+        return deleted;
+    }
+
+    /**
+     * 검색어는 2글자 조각으로, 1글자 검색어는 그 글자로 찾음
+     */
+    private static Set<String> grams(String keyword) {
+        Set<String> grams = new LinkedHashSet<>();
+        if (keyword.length() == 1) {
+            grams.add(keyword);
+            return grams;
+        }
+        for (int i = 0; i + 2 <= keyword.length(); i++) {
+            grams.add(keyword.substring(i, i + 2));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                });
+    }
+
+    /**
+     * 적재 중 gram 하나의 매장 id 를 모으는 버퍼, 가득 차면 두 배로 늘림
+     */
+    private static final class PostingBuffer {
+
+        private long[] storeIds = new long[4];
+        private int size;
+
+        private void add(long storeId) {
+            if (this.size == this.storeIds.length) {
+                this.storeIds = Arrays.copyOf(this.storeIds, this.size * 2);
+            }
+            this.storeIds[this.size++] = storeId;
+        }
+
+        /**
+         * id 순서대로 읽었으므로 대부분 이미 정렬되어 있지만, 한 번 정렬하고 중복을 제거
+         */
+        private long[] toSortedArray() {
+            long[] sorted = Arrays.copyOf(this.storeIds, this.size);
+            Arrays.sort(sorted);
+
+            int unique = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[unique++] = sorted[i];
+                }
+            }
+            return unique == sorted.length ? sorted : Arrays.copyOf(sorted, unique);
+        }
+    }
+
+    /**
+     * 색인된 매장 하나의 소문자 이름과 주소
+     */
+    private static final class Document {
+
+        private final long id;
+        private final String name;
+        private final String address;
+
+        private Document(long id, String name, String address) {
+            this.id = id;
+            this.name = name;
+            this.address = address;
+        }
+
+        private boolean contains(String keyword) {
+            return this.name.contains(keyword) || this.address.contains(keyword);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Document)) {
+                return false;
+            }
+            Document document = (Document) o;
+            return this.id == document.id && this.name.equals(document.name)
+                    && this.address.equals(document.address);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.id, this.name, this.address);
+        }
+
+        /**
+         * 이름 접두사 일치 0, 이름 일치 1, 주소 일치 2
+         */
+        private int rank(String keyword) {
+            if (this.name.startsWith(keyword)) {
+                return 0;
+            }
+            return this.name.contains(keyword) ? 1 : 2;
+        }
+
+        /**
+         * 이름과 주소의 1글자, 2글자 조각
+         */
+        private Set<String> grams() {
+            Set<String> grams = new LinkedHashSet<>();
+            for (String text : new String[]{this.name, this.address}) {
+                for (int i = 0; i < text.length(); i++) {
+                    grams.add(text.substring(i, i + 1));
+                    if (i + 2 <= text.length()) {
+                        grams.add(text.substring(i, i + 2));
+                    }
+                }
+            }
+            return grams;
+        }
+    }
+}
@@ -1,22 +1,38 @@
 package com.reservation.service.store;
 
+import com.reservation.config.CacheConfig;
 import com.reservation.entity.store.StoreEntity;
 import com.reservation.entity.user.UserEntity;
 import com.reservation.exception.extend.AlreadyExistStoreException;
+import com.reservation.exception.extend.InvalidAvailabilityRangeException;
 import com.reservation.exception.extend.NoExistStatusException;
 import com.reservation.exception.extend.NonExistStoreException;
 import com.reservation.exception.extend.NoStoreOwnerException;
 import com.reservation.repository.store.StoreRepository;
+import com.reservation.service.reservation.SlotOccupancyIndex;
+import com.reservation.service.store.feed.StoreChangePublisher;
+import com.reservation.store.RatingDistributionResponse;
+import com.reservation.store.SlotAvailabilityResponse;
+import com.reservation.store.StoreAvailabilityResponse;
 import com.reservation.store.StoreRequest;
 import com.reservation.store.StoreResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -26,14 +42,16 @@ import java.util.stream.Collectors;
 public class StoreService {
 
     private final StoreRepository storeRepository;
-    private final AutocompleteService autoCompleteService;
+    private final StoreChangePublisher storeChangePublisher;
+    private final SlotOccupancyIndex slotOccupancyIndex;
+    private final StoreSearchIndex storeSearchIndex;
 
     /**
      * 매장 등록
      * 1. 이미 존재하는 매장이 없는지 검증
      * 2. 생성하려는 매장의 엔티티 생성
      * 3. 매장 저장
-     * 4. 자동완성을 위한 매장 정보 추가
+     * 4. 매장 변경 발행 (각 서버의 자동완성, 검색 인덱스가 구독)
      *
      * @param userEntity 로그인한 유저의 엔티티
      * @param request    생성하려는 매장 정보
@@ -50,7 +68,7 @@ public class StoreService {
         StoreEntity storeEntity = buildStoreEntity(userEntity, request);
 
         this.storeRepository.save(storeEntity);
-        this.autoCompleteService.addAutoCompleteKeyword(storeEntity.getName());
+        this.storeChangePublisher.stored(storeEntity);
 
         log.info("\u001B[32mregister store -> {}", request.getName()
                 + "\u001B[0m");
@@ -59,7 +77,10 @@ public class StoreService {
 
     /**
      * keyword 로 매장 검색
-     * 매장 이름에서 일부분 일치하는 매장의 정보 모두 반환
+     * 매장 이름이나 주소에서 일부분 일치하는 매장의 정보를 페이지 단위로 반환
+     * 1. 검색 인덱스에서 순위대로 정렬된 매장 id 조회
+     * 2. 요청한 페이지의 id 에 해당하는 매장만 DB 에서 조회
+     * 3. 인덱스가 아직 적재 중이라면 DB 에서 LIKE 로 검색
      *
      * @param keyword  검색 키워드
      * @param pageable Pageable 정보
@@ -67,11 +88,98 @@ public class StoreService {
     @Transactional(readOnly = true)
     public Page<StoreResponse> getStore(String keyword, Pageable pageable) {
 
-        Page<StoreEntity> storeEntities =
-                this.storeRepository.findByNameContaining(keyword, pageable);
+        List<Long> storeIds = this.storeSearchIndex.search(keyword);
+
+        if (storeIds == null) {
+            log.info("\u001B[32mget store (db) -> {}", keyword + "\u001B[0m");
+            return this.storeRepository
+                    .findByNameContainingOrAddressContaining(
+                            keyword, keyword, pageable)
+                    .map(StoreResponse::from);
+        }
+
+        int from = (int) Math.min(pageable.getOffset(), storeIds.size());
+        int to = Math.min(from + pageable.getPageSize(), storeIds.size());
+        List<Long> pageIds = storeIds.subList(from, to);
+
+        // findAllById 는 순서를 보장하지 않으므로 인덱스의 순위대로 다시 정렬
+        Map<Long, StoreEntity> storeEntities = new HashMap<>();
+        for (StoreEntity storeEntity : this.storeRepository.findAllById(pageIds)) {
+            storeEntities.put(storeEntity.getId(), storeEntity);
+        }
+
+        List<StoreResponse> content = new ArrayList<>(pageIds.size());
+        for (Long storeId : pageIds) {
+            StoreEntity storeEntity = storeEntities.get(storeId);
+            if (storeEntity != null) {
+                content.add(StoreResponse.from(storeEntity));
+            }
+        }
 
         log.info("\u001B[32mget store -> {}", keyword + "\u001B[0m");
-        return storeEntities.map(StoreResponse::from);
+        return new PageImpl<>(content, pageable, storeIds.size());
+    }
+
+    /**
+     * 매장의 30분 단위 예약 가능 시간대 조회
+     * 예약을 DB 에서 불러오지 않고 메모리의 시간대 점유 현황으로 계산
+     * 1. 조회 기간이 점유 현황이 유지되는 범위 안인지 검사
+     * 2. 존재하는 매장인지 검사
+     * 3. 기간 내 모든 시간대의 예약 인원과 남은 인원 반환
+     *
+     * @param storeId 조회하려는 매장의 id
+     * @param from    조회 시작 날짜
+     * @param to      조회 끝 날짜(포함)
+     */
+    @Transactional(readOnly = true)
+    public StoreAvailabilityResponse getAvailability(
+            Long storeId, LocalDate from, LocalDate to) {
+
+        if (!this.slotOccupancyIndex.covers(from, to)) {
+            throw new InvalidAvailabilityRangeException();
+        }
+
+        if (!this.storeRepository.existsById(storeId)) {
+            throw new NonExistStoreException();
+        }
+
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        int capacity = this.slotOccupancyIndex.getCapacity();
+        int[] seats = this.slotOccupancyIndex.getSeats(storeId, from, days);
+
+        LocalDateTime startTime = from.atStartOfDay();
+        List<SlotAvailabilityResponse> slots = new ArrayList<>(seats.length);
+        for (int seat : seats) {
+            slots.add(SlotAvailabilityResponse.of(startTime, seat, capacity));
+            startTime = startTime.plusMinutes(SlotOccupancyIndex.SLOT_MINUTES);
+        }
+
+        log.info("\u001B[32mget availability -> {}", storeId + "\u001B[0m");
+        return StoreAvailabilityResponse.builder()
+                .storeId(storeId)
+                .from(from)
+                .to(to)
+                .capacity(capacity)
+                .slots(slots)
+                .build();
+    }
+
+    /**
+     * 매장의 평점 분포 조회
+     * review 테이블을 집계하지 않고 매장에 저장된 평점별 리뷰 수를 사용하며,
+     * 결과는 캐시하여 평점이 반영될 때 삭제된다.
+     *
+     * @param storeId 조회하려는 매장의 id
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.RATING_DISTRIBUTION, key = "#storeId")
+    public RatingDistributionResponse getRatingDistribution(Long storeId) {
+        StoreEntity storeEntity = this.storeRepository.findById(storeId)
+                .orElseThrow(NonExistStoreException::new);
+
+        log.info("\u001B[32mget rating distribution -> {}",
+                storeId + "\u001B[0m");
+        return RatingDistributionResponse.from(storeEntity);
     }
 
     /**
@@ -79,7 +187,7 @@ public class StoreService {
      * 1. storeId를 통해 유효한 매장인지 검사
      * 2. 현재 로그인된 엔티티가 업데이트 하려는 매장의 주인인지 검사
      * 3. 매장 정보 업데이트
-     * 4. 자동완성 업데이트
+     * 4. 매장 변경 발행 (각 서버의 자동완성, 검색 인덱스가 구독)
      *
      * @param userEntity 현재 로그인된 유저의 엔티티
      * @param storeId    업데이트하려는 매장의 id
@@ -106,8 +214,7 @@ public class StoreService {
                 // update 쿼리를 자동으로 실행
         );
 
-        this.autoCompleteService.updateAutocompleteKeyword(
-                storeEntity.getName(), request.getName());
+        this.storeChangePublisher.stored(storeEntity);
 
         log.info("\u001B[32mupdate store  -> {}", storeEntity.getName()
                 + "\u001B[0m");
@@ -118,11 +225,13 @@ public class StoreService {
      * 매장 삭제
      * 1. userEntity, storeId를 통해 유효한 매장인지 검사
      * 2. 매장 삭제
-     * 3. 자동완성 삭제
+     * 3. 매장 삭제 발행 (각 서버의 자동완성, 검색 인덱스가 구독)
+     * 4. 예약 시간대 점유 현황 삭제
      *
      * @param userEntity 로그인된 유저의 엔티티
      * @param storeId    삭제하려는 매장의 id
      */
+    @CacheEvict(cacheNames = CacheConfig.RATING_DISTRIBUTION, key = "#storeId")
     public String deleteStore(UserEntity userEntity, Long storeId) {
 
         StoreEntity storeEntity = this.storeRepository.findById(storeId)
@@ -133,8 +242,8 @@ public class StoreService {
         }
 
         this.storeRepository.delete(storeEntity);
-        this.autoCompleteService.deleteAutocompleteKeyword(
-                storeEntity.getName());
+        this.storeChangePublisher.deleted(storeId);
+        this.slotOccupancyIndex.evict(storeId);
 
         log.info("\u001B[32mdelete store  -> {}", storeEntity.getName()
                 + "\u001B[0m");
@@ -156,7 +265,8 @@ public class StoreService {
                 .name(request.getName())
                 .address(request.getAddress())
                 .description(request.getDescription())
-                .rating(0.0)
+                .ratingSum(0L)
+                .reviewCount(0L)
                 .build();
     }
 }
@@ -0,0 +1,73 @@
+package com.reservation.service.store.feed;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 단일 서버용 피드
+ * 1. version 부여와 전달 대기열에 넣는 것만 모니터 안에서 직렬화하여 순서를 보장
+ * 2. 구독자 호출은 모니터 밖에서 한 번에 한 스레드만 대기열 순서대로 실행
+ * <p>
+ * 구독자가 자기 락을 잡은 채 currentVersion 을 호출하거나 다시 발행해도
+ * 피드의 모니터와 엇갈려 교착 상태가 되지 않는다.
+ * 다른 스레드가 전달 중이라면 그 스레드가 이어서 전달하므로 publish 는 전달 전에 반환될 수 있다.
+ */
+@Component
+public class InMemoryStoreChangeFeed implements StoreChangeFeed {
+
+    private final List<Consumer<StoreChangeEvent>> subscribers =
+            new CopyOnWriteArrayList<>();
+    private final Queue<StoreChangeEvent> undelivered = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock delivering = new ReentrantLock();
+    private volatile long version;
+
+    @Override
+    public StoreChangeEvent publish(StoreChangeEvent event) {
+        StoreChangeEvent versioned;
+        synchronized (this) {
+            versioned = event.toBuilder()
+                    .version(this.version + 1)
+                    .build();
+            this.undelivered.add(versioned);
+            this.version = versioned.getVersion();
+        }
+
+        deliver();
+        return versioned;
+    }
+
+    @Override
+    public void subscribe(Consumer<StoreChangeEvent> subscriber) {
+        this.subscribers.add(subscriber);
+    }
+
+    @Override
+    public long currentVersion() {
+        return this.version;
+    }
+
+    /**
+     * 대기열의 이벤트를 비울 때까지 구독자에게 전달
+     * 락을 놓은 직후 들어온 이벤트가 남지 않도록 대기열을 다시 확인한다.
+     */
+    private void deliver() {
+        while (!this.undelivered.isEmpty() && this.delivering.tryLock()) {
+            try {
+                StoreChangeEvent event;
+                while ((event = this.undelivered.poll()) != null) {
+                    for (Consumer<StoreChangeEvent> subscriber : this.subscribers) {
+                        subscriber.accept(event);
+                    }
+                }
+            } finally {
+                this.delivering.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.reservation.service.store.feed;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 매장 변경 이벤트
+ * 다른 서버가 DB 를 다시 읽지 않아도 반영할 수 있도록 변경된 값을 함께 담는다.
+ * version 은 StoreChangeFeed 가 발행 순서대로 1 씩 증가시켜 부여한다.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class StoreChangeEvent {
+    private long version;
+    private StoreChangeType type;
+    private Long storeId;
+    private String name;
+    private String address;
+    private double rating;
+
+    public static StoreChangeEvent put(
+            Long storeId, String name, String address, double rating) {
+        return StoreChangeEvent.builder()
+                .type(StoreChangeType.PUT)
+                .storeId(storeId)
+                .name(name)
+                .address(address)
+                .rating(rating)
+                .build();
+    }
+
+    public static StoreChangeEvent delete(Long storeId) {
+        return StoreChangeEvent.builder()
+                .type(StoreChangeType.DELETE)
+                .storeId(storeId)
+                .build();
+    }
+}
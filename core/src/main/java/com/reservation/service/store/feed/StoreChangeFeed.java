@@ -0,0 +1,34 @@
+package com.reservation.service.store.feed;
+
+import java.util.function.Consumer;
+
+/**
+ * 매장 변경 이벤트를 모든 서버에 전달하는 피드
+ * 기본 구현은 단일 서버용 InMemoryStoreChangeFeed 이며,
+ * 여러 서버로 운영할 때는 Redis pub/sub 등으로 전달하는 구현을
+ * '@Primary' 빈으로 등록하여 교체한다.
+ * <p>
+ * 구현은 다음을 지켜야 한다.
+ * 1. version 은 모든 서버에 걸쳐 1 씩 증가 (예: Redis INCR)
+ * 2. 부여한 version 순서대로 전달 (예: INCR 와 PUBLISH 를 하나의 Lua 스크립트로 실행)
+ * 구독자는 version 이 건너뛰면 이벤트를 잃은 것으로 보고 DB 에서 다시 적재한다.
+ */
+public interface StoreChangeFeed {
+
+    /**
+     * version 을 부여하여 모든 구독자에게 발행
+     *
+     * @return version 이 부여된 이벤트
+     */
+    StoreChangeEvent publish(StoreChangeEvent event);
+
+    /**
+     * 이 서버에서 이벤트를 받을 구독자 등록
+     */
+    void subscribe(Consumer<StoreChangeEvent> subscriber);
+
+    /**
+     * 지금까지 발행된 마지막 version
+     */
+    long currentVersion();
+}
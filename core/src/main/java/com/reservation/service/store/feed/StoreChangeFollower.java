@@ -0,0 +1,112 @@
+package com.reservation.service.store.feed;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 매장 변경 피드를 version 순서대로 따라가며 이 서버의 메모리 인덱스에 반영하는 구독자
+ * 1. 적재를 시작하기 전에 피드의 마지막 version 을 기억
+ * 2. 그 이후의 이벤트는 version 순서대로 반영 (이전 이벤트는 DB 에서 읽었으므로 건너뜀)
+ * 3. version 이 건너뛰면 이벤트를 잃은 것이므로 DB 에서 다시 적재
+ */
+@Slf4j
+public abstract class StoreChangeFollower {
+
+    private final StoreChangeFeed storeChangeFeed;
+    private final String name;
+
+    private final AtomicBoolean resyncing = new AtomicBoolean();
+    private final ExecutorService resyncExecutor;
+
+    // 마지막으로 반영한 이벤트의 version
+    private long lastVersion;
+
+    protected StoreChangeFollower(StoreChangeFeed storeChangeFeed, String name) {
+        this.storeChangeFeed = storeChangeFeed;
+        this.name = name;
+        this.resyncExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-resync");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 처음 적재
+     */
+    protected abstract void load();
+
+    /**
+     * 이벤트를 잃었을 때 DB 에서 다시 적재, 적재하는 동안에도 조회는 이전 내용으로 응답해야 한다.
+     */
+    protected abstract void reload();
+
+    protected abstract void stored(StoreChangeEvent event);
+
+    protected abstract void deleted(Long storeId);
+
+    @PostConstruct
+    public void subscribe() {
+        this.storeChangeFeed.subscribe(this::onChange);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // 피드의 version 은 이 객체의 락 밖에서 읽어야 전달 중인 피드와 엇갈리지 않는다.
+        long version = this.storeChangeFeed.currentVersion();
+        synchronized (this) {
+            this.lastVersion = version;
+        }
+        load();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.resyncExecutor.shutdown();
+    }
+
+    private synchronized void onChange(StoreChangeEvent event) {
+        if (event.getVersion() <= this.lastVersion) {
+            return;
+        }
+
+        if (event.getVersion() != this.lastVersion + 1) {
+            log.warn("{} store change gap -> {} after {}",
+                    this.name, event.getVersion(), this.lastVersion);
+            resync();
+            return;
+        }
+
+        this.lastVersion = event.getVersion();
+        if (event.getType() == StoreChangeType.DELETE) {
+            deleted(event.getStoreId());
+        } else {
+            stored(event);
+        }
+    }
+
+    /**
+     * 지금 version 부터 다시 따라가면서 DB 에서 모두 다시 적재
+     * 피드를 전달하는 스레드를 막지 않도록 별도 스레드에서 실행
+     */
+    private void resync() {
+        this.lastVersion = this.storeChangeFeed.currentVersion();
+
+        if (this.resyncing.compareAndSet(false, true)) {
+            this.resyncExecutor.execute(() -> {
+                try {
+                    reload();
+                } finally {
+                    this.resyncing.set(false);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.reservation.service.store.feed;
+
+import com.reservation.entity.store.StoreEntity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 매장 변경을 트랜잭션이 커밋된 후 피드로 발행
+ * 롤백된 변경은 발행하지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StoreChangePublisher {
+
+    private final StoreChangeFeed storeChangeFeed;
+
+    public void stored(StoreEntity storeEntity) {
+        publishAfterCommit(StoreChangeEvent.put(storeEntity.getId(),
+                storeEntity.getName(), storeEntity.getAddress(),
+                storeEntity.getRating()));
+    }
+
+    public void deleted(Long storeId) {
+        publishAfterCommit(StoreChangeEvent.delete(storeId));
+    }
+
+    private void publishAfterCommit(StoreChangeEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(event);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        publish(event);
+                    }
+                });
+    }
+
+    private void publish(StoreChangeEvent event) {
+        try {
+            this.storeChangeFeed.publish(event);
+        } catch (RuntimeException e) {
+            // 이미 커밋된 변경이므로 요청은 성공으로 두고, 다른 서버는 다음 재적재 때 맞춘다.
+            log.error("store change publish failed -> {}", event.getStoreId(), e);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.reservation.service.store.feed;
+
+public enum StoreChangeType {
+    PUT,    // 매장 추가 또는 변경
+    DELETE  // 매장 삭제
+}
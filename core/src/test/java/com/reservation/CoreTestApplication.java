@@ -0,0 +1,10 @@
+package com.reservation;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * core 모듈 통합 테스트용 설정, server 모듈의 ReservationApplication 과 같은 범위를 스캔
+ */
+@SpringBootApplication
+public class CoreTestApplication {
+}
@@ -0,0 +1,128 @@
+package com.reservation.scheduler;
+
+import com.reservation.entity.scheduler.SchedulerLockEntity;
+import com.reservation.repository.scheduler.SchedulerLockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class JpaSchedulerLockTest {
+
+    private static final String NAME = "test-job";
+    private static final Duration LEASE = Duration.ofMinutes(5);
+    private static final int SERVERS = 8;
+
+    @Autowired
+    private SchedulerLockRepository schedulerLockRepository;
+
+    @AfterEach
+    void tearDown() {
+        this.schedulerLockRepository.deleteAll();
+    }
+
+    @Test
+    void onlyOneServerCreatesTheMissingLockRow() throws Exception {
+        assertThat(this.schedulerLockRepository.existsById(NAME)).isFalse();
+
+        assertThat(acquiredConcurrently()).isEqualTo(1);
+        assertThat(this.schedulerLockRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void onlyOneServerTakesOverAnExpiredLock() throws Exception {
+        SchedulerLock previous = server();
+        assertThat(previous.tryLock(NAME, LEASE)).isTrue();
+        previous.unlock(NAME);
+
+        assertThat(acquiredConcurrently()).isEqualTo(1);
+    }
+
+    @Test
+    void heldLockIsNotTakenUntilItsLeaseExpires() throws Exception {
+        SchedulerLock first = server();
+        SchedulerLock second = server();
+
+        assertThat(first.tryLock(NAME, Duration.ofMillis(200))).isTrue();
+        assertThat(second.tryLock(NAME, LEASE)).isFalse();
+
+        // unlock 없이 lease 가 지나면 다른 서버가 가져간다.
+        Thread.sleep(300);
+        assertThat(second.tryLock(NAME, LEASE)).isTrue();
+        assertThat(first.tryLock(NAME, LEASE)).isFalse();
+    }
+
+    @Test
+    void holderExtendsItsLeaseAndOthersCannotUnlockIt() {
+        SchedulerLock holder = server();
+        SchedulerLock other = server();
+
+        assertThat(holder.tryLock(NAME, Duration.ofSeconds(1))).isTrue();
+        LocalDateTime before = lockedUntil();
+        assertThat(holder.tryLock(NAME, LEASE)).isTrue();
+        assertThat(lockedUntil()).isAfter(before);
+
+        other.unlock(NAME);
+        assertThat(other.tryLock(NAME, LEASE)).isFalse();
+
+        holder.unlock(NAME);
+        assertThat(other.tryLock(NAME, LEASE)).isTrue();
+    }
+
+    private SchedulerLock server() {
+        return new JpaSchedulerLock(this.schedulerLockRepository);
+    }
+
+    private LocalDateTime lockedUntil() {
+        return this.schedulerLockRepository.findById(NAME)
+                .map(SchedulerLockEntity::getLockedUntil).orElseThrow();
+    }
+
+    /**
+     * 서버마다 다른 owner 로 동시에 락 획득을 시도하여 성공한 수
+     */
+    private int acquiredConcurrently() throws Exception {
+        List<SchedulerLock> servers = new ArrayList<>();
+        for (int i = 0; i < SERVERS; i++) {
+            servers.add(server());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(SERVERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (SchedulerLock server : servers) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return server.tryLock(NAME, LEASE);
+                }));
+            }
+            start.countDown();
+
+            int acquired = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(10, TimeUnit.SECONDS)) {
+                    acquired++;
+                }
+            }
+            return acquired;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
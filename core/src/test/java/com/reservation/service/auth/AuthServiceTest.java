@@ -0,0 +1,98 @@
+package com.reservation.service.auth;
+
+import com.reservation.auth.signin.SignInRequest;
+import com.reservation.auth.token.TokenResponse;
+import com.reservation.cache.PrincipalCache;
+import com.reservation.entity.user.UserEntity;
+import com.reservation.entity.user.UserRole;
+import com.reservation.exception.extend.MismatchPasswordException;
+import com.reservation.repository.user.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final RefreshTokenService refreshTokenService = mock(RefreshTokenService.class);
+
+    private PasswordHashExecutor passwordHashExecutor;
+    private AuthService authService;
+
+    private final UserEntity userEntity = UserEntity.builder()
+            .account("customer")
+            .password("encoded")
+            .name("customer")
+            .userRole(UserRole.CUSTOMER)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        this.passwordHashExecutor = new PasswordHashExecutor(
+                this.passwordEncoder, new SimpleMeterRegistry(), 1, 10, 1);
+        this.authService = new AuthService(this.userRepository, this.passwordHashExecutor,
+                this.refreshTokenService, new PrincipalCache(60_000L, 100));
+        when(this.userRepository.findByAccount("customer"))
+                .thenReturn(Optional.of(this.userEntity));
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.passwordHashExecutor.shutdown();
+    }
+
+    @Test
+    void refreshTokenIsIssuedOffTheHashThread() {
+        AtomicReference<String> hashThread = new AtomicReference<>();
+        AtomicReference<String> issueThread = new AtomicReference<>();
+        TokenResponse token = TokenResponse.builder().accessToken("access").build();
+        when(this.passwordEncoder.matches(anyString(), eq("encoded"))).thenAnswer(invocation -> {
+            hashThread.set(Thread.currentThread().getName());
+            return true;
+        });
+        when(this.refreshTokenService.issue(any())).thenAnswer(invocation -> {
+            issueThread.set(Thread.currentThread().getName());
+            return token;
+        });
+
+        assertThat(this.authService.login(signIn("password")).join()).isSameAs(token);
+
+        assertThat(hashThread.get()).startsWith("password-hash-");
+        assertThat(issueThread.get()).startsWith("password-after-hash-");
+    }
+
+    @Test
+    void mismatchedPasswordIsNotIssued() {
+        when(this.passwordEncoder.matches(anyString(), eq("encoded"))).thenReturn(false);
+
+        assertThatThrownBy(() -> this.authService.login(signIn("wrong")).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(MismatchPasswordException.class);
+        verify(this.refreshTokenService, never()).issue(any());
+    }
+
+    private static SignInRequest signIn(String password) {
+        SignInRequest request = new SignInRequest();
+        ReflectionTestUtils.setField(request, "account", "customer");
+        ReflectionTestUtils.setField(request, "password", password);
+        return request;
+    }
+}
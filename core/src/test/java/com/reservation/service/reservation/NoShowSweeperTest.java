@@ -0,0 +1,190 @@
+package com.reservation.service.reservation;
+
+import com.reservation.entity.reservation.ReservationStatus;
+import com.reservation.repository.reservation.ReservationRepository;
+import com.reservation.repository.reservation.ReservationSweepView;
+import com.reservation.scheduler.SchedulerLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NoShowSweeperTest {
+
+    private static final int BATCH_SIZE = 2;
+    private static final int MAX_BATCHES = 3;
+    private static final LocalDateTime TIME = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+    private final SlotOccupancyIndex slotOccupancyIndex = mock(SlotOccupancyIndex.class);
+    private final SchedulerLock schedulerLock = mock(SchedulerLock.class);
+    private final PlatformTransactionManager transactionManager =
+            mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private NoShowSweeper noShowSweeper;
+    private long nextId;
+
+    @BeforeEach
+    void setUp() {
+        when(this.transactionManager.getTransaction(any()))
+                .thenAnswer(invocation -> mock(TransactionStatus.class));
+        when(this.schedulerLock.tryLock(anyString(), any())).thenReturn(true);
+
+        this.noShowSweeper = new NoShowSweeper(this.reservationRepository,
+                this.slotOccupancyIndex, this.schedulerLock, this.transactionManager,
+                this.meterRegistry, 10, BATCH_SIZE, MAX_BATCHES, 300_000L);
+    }
+
+    @Test
+    void sweepStopsAtTheFirstPartialBatch() {
+        when(this.reservationRepository.findSweepViewsForUpdate(
+                eq(ReservationStatus.APPROVED), any(), any()))
+                .thenReturn(rows(BATCH_SIZE), rows(1), rows(BATCH_SIZE));
+
+        this.noShowSweeper.sweep();
+
+        verify(this.reservationRepository, times(2))
+                .findSweepViewsForUpdate(any(), any(), any());
+        verify(this.reservationRepository, times(2)).updateStatus(
+                any(), eq(ReservationStatus.APPROVED), eq(ReservationStatus.NO_SHOW), any());
+        verify(this.slotOccupancyIndex, times(3)).release(anyLong(), any(), anyInt());
+        assertThat(swept()).isEqualTo(3.0);
+    }
+
+    @Test
+    void sweepStopsAfterMaxBatches() {
+        when(this.reservationRepository.findSweepViewsForUpdate(any(), any(), any()))
+                .thenAnswer(invocation -> rows(BATCH_SIZE));
+
+        this.noShowSweeper.sweep();
+
+        verify(this.reservationRepository, times(MAX_BATCHES))
+                .findSweepViewsForUpdate(any(), any(), any());
+        assertThat(swept()).isEqualTo(BATCH_SIZE * MAX_BATCHES);
+        verify(this.schedulerLock).unlock(anyString());
+    }
+
+    @Test
+    void slotsAreReleasedOnlyAfterTheBatchCommits() {
+        List<ReservationSweepView> batch = rows(1);
+        when(this.reservationRepository.findSweepViewsForUpdate(any(), any(), any()))
+                .thenReturn(batch);
+
+        this.noShowSweeper.sweep();
+
+        InOrder inOrder = inOrder(this.reservationRepository,
+                this.transactionManager, this.slotOccupancyIndex);
+        inOrder.verify(this.reservationRepository).updateStatus(any(), any(), any(), any());
+        inOrder.verify(this.transactionManager).commit(any());
+        inOrder.verify(this.slotOccupancyIndex).release(
+                batch.get(0).getStoreId(), TIME, batch.get(0).getNumberOfPeople());
+    }
+
+    @Test
+    void rolledBackBatchKeepsItsSlots() {
+        when(this.reservationRepository.findSweepViewsForUpdate(any(), any(), any()))
+                .thenReturn(rows(BATCH_SIZE));
+        when(this.reservationRepository.updateStatus(any(), any(), any(), any()))
+                .thenThrow(new IllegalStateException("deadlock"));
+
+        assertThatThrownBy(this.noShowSweeper::sweep).isInstanceOf(IllegalStateException.class);
+
+        verify(this.transactionManager).rollback(any());
+        verify(this.slotOccupancyIndex, never()).release(anyLong(), any(), anyInt());
+        verify(this.schedulerLock).unlock(anyString());
+    }
+
+    @Test
+    void leaseIsExtendedBeforeEachFollowingBatch() {
+        when(this.reservationRepository.findSweepViewsForUpdate(any(), any(), any()))
+                .thenAnswer(invocation -> rows(BATCH_SIZE));
+
+        this.noShowSweeper.sweep();
+
+        // 처음 획득 한 번, 이후 배치마다 연장
+        verify(this.schedulerLock, times(MAX_BATCHES)).tryLock(anyString(), any());
+    }
+
+    @Test
+    void sweepStopsWhenTheLockIsLost() {
+        when(this.schedulerLock.tryLock(anyString(), any())).thenReturn(true, false);
+        when(this.reservationRepository.findSweepViewsForUpdate(any(), any(), any()))
+                .thenAnswer(invocation -> rows(BATCH_SIZE));
+
+        this.noShowSweeper.sweep();
+
+        verify(this.reservationRepository, times(1))
+                .findSweepViewsForUpdate(any(), any(), any());
+        assertThat(swept()).isEqualTo(BATCH_SIZE);
+    }
+
+    @Test
+    void sweepIsSkippedWhileAnotherServerHoldsTheLock() {
+        when(this.schedulerLock.tryLock(anyString(), any())).thenReturn(false);
+
+        this.noShowSweeper.sweep();
+
+        verify(this.reservationRepository, never()).findSweepViewsForUpdate(any(), any(), any());
+        verify(this.schedulerLock, never()).unlock(anyString());
+        assertThat(this.meterRegistry.get("reservation.no-show.skipped").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    private double swept() {
+        return this.meterRegistry.get("reservation.no-show.swept").summary().totalAmount();
+    }
+
+    private List<ReservationSweepView> rows(int count) {
+        List<ReservationSweepView> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(row(++this.nextId));
+        }
+        return Collections.unmodifiableList(rows);
+    }
+
+    private static ReservationSweepView row(long id) {
+        return new ReservationSweepView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getStoreId() {
+                return 1L;
+            }
+
+            @Override
+            public LocalDateTime getReservationTime() {
+                return TIME;
+            }
+
+            @Override
+            public Integer getNumberOfPeople() {
+                return 2;
+            }
+        };
+    }
+}
@@ -0,0 +1,200 @@
+package com.reservation.service.reservation;
+
+import com.reservation.entity.store.StoreEntity;
+import com.reservation.entity.user.UserEntity;
+import com.reservation.entity.user.UserRole;
+import com.reservation.exception.extend.AlreadyExistReservationException;
+import com.reservation.repository.reservation.ReservationRepository;
+import com.reservation.repository.store.StoreRepository;
+import com.reservation.repository.user.UserRepository;
+import com.reservation.reservation.ReservationRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReservationConcurrencyTest {
+
+    private static final int THREADS = 64;
+    private static final int ATTEMPTS = 300;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private SlotOccupancyIndex slotOccupancyIndex;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    private UserEntity customer;
+    private UserEntity partner;
+
+    @BeforeEach
+    void setUp() {
+        this.customer = this.userRepository.save(user("customer", UserRole.CUSTOMER));
+        this.partner = this.userRepository.save(user("partner", UserRole.PARTNER));
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.reservationRepository.deleteAll();
+        this.storeRepository.findAll().forEach(store ->
+                this.slotOccupancyIndex.evict(store.getId()));
+        this.storeRepository.deleteAll();
+        this.userRepository.deleteAll();
+    }
+
+    @Test
+    void simultaneousBookingsForOneSlotNeverExceedCapacity() throws Exception {
+        StoreEntity store = this.storeRepository.save(store("popular"));
+        LocalDateTime time = LocalDate.now().plusDays(1).atTime(12, 0);
+
+        AtomicInteger rejected = new AtomicInteger();
+        List<Callable<Boolean>> bookings = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            bookings.add(() -> {
+                try {
+                    this.reservationService.createReservation(
+                            this.customer, request(store.getId(), time));
+                    return true;
+                } catch (AlreadyExistReservationException e) {
+                    rejected.incrementAndGet();
+                    return false;
+                }
+            });
+        }
+
+        int succeeded = countSucceeded(runTogether(bookings));
+        int capacity = this.slotOccupancyIndex.getCapacity();
+
+        assertThat(succeeded).isEqualTo(capacity);
+        assertThat(rejected.get()).isEqualTo(ATTEMPTS - capacity);
+        assertThat(this.reservationRepository.count()).isEqualTo(capacity);
+    }
+
+    @Test
+    void bookingsForDifferentStoresAllSucceed() throws Exception {
+        LocalDateTime time = LocalDate.now().plusDays(1).atTime(19, 0);
+
+        List<Callable<Boolean>> bookings = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            StoreEntity store = this.storeRepository.save(store("store-" + i));
+            bookings.add(() -> {
+                this.reservationService.createReservation(
+                        this.customer, request(store.getId(), time));
+                return true;
+            });
+        }
+
+        assertThat(countSucceeded(runTogether(bookings))).isEqualTo(ATTEMPTS);
+        assertThat(this.reservationRepository.count()).isEqualTo(ATTEMPTS);
+    }
+
+    @Test
+    void driftedIndexIsConfirmedAgainstTheDatabase() {
+        StoreEntity store = this.storeRepository.save(store("drifted"));
+        LocalDateTime time = LocalDate.now().plusDays(1).atTime(13, 0);
+        int capacity = this.slotOccupancyIndex.getCapacity();
+
+        // 예약이 없는데도 인덱스는 시간대가 가득 찼다고 세고 있는 경우
+        this.slotOccupancyIndex.occupy(store.getId(), time, capacity);
+
+        this.reservationService.createReservation(
+                this.customer, request(store.getId(), time));
+
+        assertThat(this.reservationRepository.count()).isEqualTo(1);
+        assertThat(this.slotOccupancyIndex.hasCapacity(
+                store.getId(), time, capacity - 1)).isTrue();
+        assertThat(this.slotOccupancyIndex.hasCapacity(
+                store.getId(), time, capacity)).isFalse();
+    }
+
+    /**
+     * 모든 작업을 동시에 시작하여 끝날 때까지 기다림
+     */
+    private static List<Future<Boolean>> runTogether(List<Callable<Boolean>> tasks)
+            throws InterruptedException {
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (Callable<Boolean> task : tasks) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+        return results;
+    }
+
+    private static int countSucceeded(List<Future<Boolean>> results)
+            throws InterruptedException, ExecutionException {
+
+        int succeeded = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                succeeded++;
+            }
+        }
+        return succeeded;
+    }
+
+    private static UserEntity user(String account, UserRole userRole) {
+        return UserEntity.builder()
+                .account(account)
+                .password("password")
+                .name(account)
+                .userRole(userRole)
+                .build();
+    }
+
+    private StoreEntity store(String name) {
+        return StoreEntity.builder()
+                .userEntity(this.partner)
+                .name(name)
+                .address("address")
+                .ratingSum(0L)
+                .reviewCount(0L)
+                .build();
+    }
+
+    private static ReservationRequest request(Long storeId, LocalDateTime time) {
+        ReservationRequest request = new ReservationRequest();
+        ReflectionTestUtils.setField(request, "storeId", storeId);
+        ReflectionTestUtils.setField(request, "name", "customer");
+        ReflectionTestUtils.setField(request, "numberOfPeople", 1);
+        ReflectionTestUtils.setField(request, "reservationTime", time);
+        return request;
+    }
+}
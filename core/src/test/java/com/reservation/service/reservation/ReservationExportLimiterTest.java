@@ -0,0 +1,104 @@
+package com.reservation.service.reservation;
+
+import com.reservation.exception.extend.ReservationExportBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReservationExportLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReservationExportLimiter limiter =
+            new ReservationExportLimiter(this.meterRegistry, 2, 600_000L);
+
+    @Test
+    void exportsOverLimitAreRejected() {
+        this.limiter.acquire();
+        this.limiter.acquire();
+
+        assertThatThrownBy(this.limiter::acquire)
+                .isInstanceOf(ReservationExportBusyException.class);
+        assertThat(active()).isEqualTo(2.0);
+        assertThat(this.meterRegistry.get("reservation.export.rejected").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void writtenExportReleasesItsPermitOnce() throws Exception {
+        ReservationExport export = new ReservationExport(
+                (out, self) -> out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8)),
+                this.limiter.acquire(), 600_000L);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // 다 쓴 뒤 요청이 끝나면서 한 번 더 cancel
+        export.writeTo(out);
+        export.cancel();
+
+        assertThat(out.toString(StandardCharsets.UTF_8.name())).isEqualTo("{\"id\":1}\n");
+        assertThat(active()).isZero();
+    }
+
+    @Test
+    void exportCancelledBeforeWritingReleasesWithoutWriting() throws Exception {
+        ReservationExport export = new ReservationExport(
+                (out, self) -> out.write('x'), this.limiter.acquire(), 600_000L);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        export.cancel();
+        assertThat(active()).isZero();
+
+        export.writeTo(out);
+        assertThat(out.size()).isZero();
+        assertThat(active()).isZero();
+    }
+
+    @Test
+    void exportCancelledWhileWritingKeepsThePermitUntilWritingEnds() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch aborted = new CountDownLatch(1);
+        ReservationExport export = new ReservationExport((out, self) -> {
+            // 커넥션을 중단해야 풀리는 DB 읽기
+            self.onCancel(aborted::countDown);
+            writing.countDown();
+            try {
+                aborted.await(10, TimeUnit.SECONDS);
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            out.write('x');
+        }, this.limiter.acquire(), 600_000L);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        CompletableFuture<Void> written = CompletableFuture.runAsync(() -> {
+            try {
+                export.writeTo(out);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(writing.await(10, TimeUnit.SECONDS)).isTrue();
+
+        export.cancel();
+
+        assertThat(aborted.getCount()).isZero();
+        assertThat(export.isCancelled()).isTrue();
+        assertThat(active()).isEqualTo(1.0);
+
+        written.get(10, TimeUnit.SECONDS);
+        assertThat(active()).isZero();
+        assertThat(out.toByteArray()).containsExactly((byte) 'x');
+    }
+
+    private double active() {
+        return this.meterRegistry.get("reservation.export.active").gauge().value();
+    }
+}
@@ -0,0 +1,123 @@
+package com.reservation.service.reservation;
+
+import com.reservation.repository.reservation.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SlotOccupancyIndexTest {
+
+    private static final Long STORE_ID = 1L;
+
+    private ReservationRepository reservationRepository;
+    private SlotOccupancyIndex slotOccupancyIndex;
+
+    @BeforeEach
+    void setUp() {
+        this.reservationRepository = mock(ReservationRepository.class);
+        when(this.reservationRepository.findSlotViews(anyLong(), any(), any(), any()))
+                .thenReturn(Collections.emptyList());
+
+        this.slotOccupancyIndex = new SlotOccupancyIndex(this.reservationRepository);
+        ReflectionTestUtils.setField(this.slotOccupancyIndex, "capacity", 10);
+        ReflectionTestUtils.setField(this.slotOccupancyIndex, "horizonDays", 14);
+    }
+
+    @Test
+    void concurrentFirstAccessLoadsOnceAndKeepsEveryIncrement() throws Exception {
+        LocalDateTime time = LocalDate.now().plusDays(1).atTime(12, 0);
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    this.slotOccupancyIndex.occupy(STORE_ID, time, 1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        verify(this.reservationRepository, times(1))
+                .findSlotViews(anyLong(), any(), any(), any());
+        assertThat(seats(time)).isEqualTo(threads);
+    }
+
+    @Test
+    void correctOverwritesDriftedSlot() {
+        LocalDateTime time = LocalDate.now().plusDays(1).atTime(18, 0);
+        this.slotOccupancyIndex.occupy(STORE_ID, time, 10);
+        assertThat(this.slotOccupancyIndex.hasCapacity(STORE_ID, time, 1)).isFalse();
+
+        this.slotOccupancyIndex.correct(STORE_ID, time, 4);
+
+        assertThat(this.slotOccupancyIndex.hasCapacity(STORE_ID, time, 6)).isTrue();
+        assertThat(seats(time)).isEqualTo(4);
+    }
+
+    @Test
+    void slotOutsideHorizonIsLeftToTheDatabase() {
+        LocalDateTime time = LocalDate.now().plusDays(30).atTime(12, 0);
+
+        assertThat(this.slotOccupancyIndex.hasCapacity(STORE_ID, time, 1)).isFalse();
+    }
+
+    @Test
+    void failedLoadIsRetriedOnNextAccess() {
+        LocalDateTime time = LocalDate.now().plusDays(1).atTime(12, 0);
+        when(this.reservationRepository.findSlotViews(anyLong(), any(), any(), any()))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenReturn(Collections.emptyList());
+
+        assertThatThrownBy(() -> this.slotOccupancyIndex.hasCapacity(STORE_ID, time, 1))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(this.slotOccupancyIndex.hasCapacity(STORE_ID, time, 1)).isTrue();
+    }
+
+    @Test
+    void getSeatsOutsideLoadedWindowIsZeroFilled() {
+        LocalDate today = LocalDate.now();
+        LocalDateTime time = today.atTime(12, 0);
+        this.slotOccupancyIndex.occupy(STORE_ID, time, 3);
+
+        // covers 를 통과한 뒤 자정이 지나 어제부터 조회하게 된 경우
+        int[] seats = this.slotOccupancyIndex.getSeats(
+                STORE_ID, today.minusDays(1), 2);
+
+        assertThat(seats).hasSize(2 * SlotOccupancyIndex.SLOTS_PER_DAY);
+        assertThat(seats[SlotOccupancyIndex.SLOTS_PER_DAY + 24]).isEqualTo(3);
+        for (int i = 0; i < SlotOccupancyIndex.SLOTS_PER_DAY; i++) {
+            assertThat(seats[i]).isZero();
+        }
+    }
+
+    private int seats(LocalDateTime time) {
+        LocalDate day = time.toLocalDate();
+        int[] seats = this.slotOccupancyIndex.getSeats(STORE_ID, day, 1);
+        return seats[(int) (SlotOccupancyIndex.slotOf(time)
+                - SlotOccupancyIndex.slotOf(day.atStartOfDay()))];
+    }
+}
@@ -0,0 +1,125 @@
+package com.reservation.service.review;
+
+import com.reservation.config.CacheConfig;
+import com.reservation.entity.store.StoreEntity;
+import com.reservation.repository.store.StoreRepository;
+import com.reservation.service.store.feed.StoreChangeEvent;
+import com.reservation.service.store.feed.StoreChangeFeed;
+import com.reservation.service.store.feed.StoreChangePublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StoreRatingAggregatorTest {
+
+    private static final Long STORE_ID = 1L;
+
+    private StoreRepository storeRepository;
+    private StoreEntity store;
+    private StoreChangeFeed storeChangeFeed;
+    private StoreRatingAggregator storeRatingAggregator;
+
+    @BeforeEach
+    void setUp() {
+        this.storeRepository = mock(StoreRepository.class);
+        this.store = StoreEntity.builder()
+                .id(STORE_ID).ratingSum(0L).reviewCount(0L).build();
+        when(this.storeRepository.findByIdForUpdate(STORE_ID))
+                .thenReturn(Optional.of(this.store));
+        when(this.storeRepository.findRatingEpochById(STORE_ID))
+                .thenAnswer(invocation -> Optional.of(this.store.getRatingEpoch()));
+
+        PlatformTransactionManager transactionManager =
+                mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any()))
+                .thenReturn(new SimpleTransactionStatus());
+        CacheManager cacheManager =
+                new ConcurrentMapCacheManager(CacheConfig.RATING_DISTRIBUTION);
+
+        this.storeChangeFeed = mock(StoreChangeFeed.class);
+
+        this.storeRatingAggregator = new StoreRatingAggregator(
+                this.storeRepository, new StoreChangePublisher(this.storeChangeFeed),
+                transactionManager, cacheManager,
+                new SimpleMeterRegistry(), 100, 10);
+    }
+
+    @Test
+    void deltasOfTheSameEpochAreCoalescedAndApplied() {
+        this.storeRatingAggregator.ratingAdded(STORE_ID, 8);
+        this.storeRatingAggregator.ratingChanged(STORE_ID, 8, 6);
+        this.storeRatingAggregator.ratingAdded(STORE_ID, 4);
+
+        this.storeRatingAggregator.flush();
+
+        assertThat(this.store.getRatingSum()).isEqualTo(10L);
+        assertThat(this.store.getReviewCount()).isEqualTo(2L);
+    }
+
+    @Test
+    void deltaQueuedBeforeRecalculationIsDiscarded() {
+        // 다시 계산이 이 리뷰를 포함하여 평점 정보를 덮어쓴 경우
+        this.storeRatingAggregator.ratingAdded(STORE_ID, 8);
+        this.store.resetRating(histogram(8));
+
+        this.storeRatingAggregator.flush();
+
+        assertThat(this.store.getRatingSum()).isEqualTo(8L);
+        assertThat(this.store.getReviewCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void deltaQueuedAfterRecalculationIsApplied() {
+        this.store.resetRating(histogram(8));
+        this.storeRatingAggregator.ratingAdded(STORE_ID, 6);
+
+        this.storeRatingAggregator.flush();
+
+        assertThat(this.store.getRatingSum()).isEqualTo(14L);
+        assertThat(this.store.getReviewCount()).isEqualTo(2L);
+    }
+
+    @Test
+    void coalescedRatingChangeIsPublishedOncePerFlush() {
+        this.storeRatingAggregator.ratingAdded(STORE_ID, 8);
+        this.storeRatingAggregator.ratingAdded(STORE_ID, 6);
+
+        this.storeRatingAggregator.flush();
+
+        ArgumentCaptor<StoreChangeEvent> event =
+                ArgumentCaptor.forClass(StoreChangeEvent.class);
+        verify(this.storeChangeFeed).publish(event.capture());
+        assertThat(event.getValue().getStoreId()).isEqualTo(STORE_ID);
+        assertThat(event.getValue().getRating()).isEqualTo(3.5);
+    }
+
+    @Test
+    void unchangedRatingIsNotPublished() {
+        this.storeRatingAggregator.ratingAdded(STORE_ID, 8);
+        this.storeRatingAggregator.ratingRemoved(STORE_ID, 8);
+
+        this.storeRatingAggregator.flush();
+
+        verify(this.storeChangeFeed, never()).publish(any());
+    }
+
+    private static int[] histogram(int rating) {
+        int[] histogram = new int[11];
+        histogram[rating] = 1;
+        return histogram;
+    }
+}
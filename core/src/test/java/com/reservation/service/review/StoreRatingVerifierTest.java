@@ -0,0 +1,201 @@
+package com.reservation.service.review;
+
+import com.reservation.entity.review.ReviewEntity;
+import com.reservation.entity.store.StoreEntity;
+import com.reservation.entity.user.UserEntity;
+import com.reservation.entity.user.UserRole;
+import com.reservation.repository.review.ReviewRepository;
+import com.reservation.repository.scheduler.SchedulerLockRepository;
+import com.reservation.repository.store.StoreRepository;
+import com.reservation.repository.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StoreRatingVerifierTest {
+
+    @Autowired
+    private StoreRatingVerifier storeRatingVerifier;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private SchedulerLockRepository schedulerLockRepository;
+
+    @Autowired
+    private StoreRatingAggregator storeRatingAggregator;
+
+    @Autowired
+    private StoreRatingRecalculator storeRatingRecalculator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UserEntity partner;
+
+    @BeforeEach
+    void setUp() {
+        this.partner = this.userRepository.save(UserEntity.builder()
+                .account("partner")
+                .password("password")
+                .name("partner")
+                .userRole(UserRole.PARTNER)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.schedulerLockRepository.deleteAll();
+        this.reviewRepository.deleteAll();
+        this.storeRepository.deleteAll();
+        this.userRepository.deleteAll();
+    }
+
+    @Test
+    void histogramOnlyDriftIsDetectedAndRepaired() {
+        // 평점 4, 6 두 개의 리뷰, 합계와 리뷰 수는 맞지만 평점별 리뷰 수가 어긋난 매장
+        StoreEntity drifted = this.storeRepository.save(
+                store("drifted", histogram(5, 2)));
+        review(drifted, 4);
+        review(drifted, 6);
+
+        StoreEntity consistent = this.storeRepository.save(
+                store("consistent", histogram(8, 1)));
+        review(consistent, 8);
+
+        assertThat(this.storeRepository.findRatingDriftedStoreIds())
+                .containsExactly(drifted.getId());
+
+        this.storeRatingVerifier.verify();
+
+        assertThat(this.storeRepository.findRatingDriftedStoreIds()).isEmpty();
+        int[] repaired = this.storeRepository.findById(drifted.getId())
+                .orElseThrow(IllegalStateException::new)
+                .getRatingHistogram();
+        assertThat(repaired[4]).isEqualTo(1);
+        assertThat(repaired[5]).isZero();
+        assertThat(repaired[6]).isEqualTo(1);
+    }
+
+    @Test
+    void reviewCommittedDuringRecalculationIsCountedOnce() throws Exception {
+        StoreEntity store = this.storeRepository.save(store("busy", new int[11]));
+        CountDownLatch shareLocked = new CountDownLatch(1);
+
+        // 리뷰 트랜잭션이 매장 행의 읽기 락을 잡은 채 커밋하기 전에 다시 계산이 시작되는 경우
+        CompletableFuture<Void> review = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(this.transactionManager).executeWithoutResult(status -> {
+                    review(store, 8);
+                    this.storeRatingAggregator.ratingAdded(store.getId(), 8);
+                    shareLocked.countDown();
+                    sleep(200);
+                }));
+
+        assertThat(shareLocked.await(10, TimeUnit.SECONDS)).isTrue();
+        this.storeRatingRecalculator.recalculate(
+                Collections.singletonList(store.getId()));
+        review.get(10, TimeUnit.SECONDS);
+
+        this.storeRatingAggregator.flush();
+
+        StoreEntity recalculated = this.storeRepository.findById(store.getId())
+                .orElseThrow(IllegalStateException::new);
+        assertThat(recalculated.getRatingSum()).isEqualTo(8L);
+        assertThat(recalculated.getReviewCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void verifyIsSkippedWhileAnotherNodeHoldsTheLock() {
+        StoreEntity drifted = this.storeRepository.save(
+                store("drifted", histogram(5, 2)));
+        this.schedulerLockRepository.insert("store-rating-verify", "other-node",
+                LocalDateTime.now().plusMinutes(10));
+
+        this.storeRatingVerifier.verify();
+
+        assertThat(this.storeRepository.findRatingDriftedStoreIds())
+                .containsExactly(drifted.getId());
+    }
+
+    @Test
+    void applyRatingDeltaKeepsHistogramSumAndCountTogether() {
+        StoreEntity store = store("underflow", histogram(3, 1));
+
+        // 반영되지 않은 리뷰를 삭제하는 등으로 0 아래로 내려가는 변화량
+        int[] delta = new int[11];
+        delta[7] = -1;
+        store.applyRatingDelta(delta);
+
+        int[] histogram = store.getRatingHistogram();
+        long sum = 0;
+        long count = 0;
+        for (int value = 0; value < histogram.length; value++) {
+            sum += (long) value * histogram[value];
+            count += histogram[value];
+        }
+        assertThat(store.getRatingSum()).isEqualTo(sum);
+        assertThat(store.getReviewCount()).isEqualTo(count);
+    }
+
+    private StoreEntity store(String name, int[] histogram) {
+        long sum = 0;
+        long count = 0;
+        for (int value = 0; value < histogram.length; value++) {
+            sum += (long) value * histogram[value];
+            count += histogram[value];
+        }
+        return StoreEntity.builder()
+                .userEntity(this.partner)
+                .name(name)
+                .address("address")
+                .ratingSum(sum)
+                .reviewCount(count)
+                .ratingHistogram(histogram)
+                .build();
+    }
+
+    private void review(StoreEntity store, int rating) {
+        this.reviewRepository.save(ReviewEntity.builder()
+                .userEntity(this.partner)
+                .storeEntity(store)
+                .content("review")
+                .rating(rating)
+                .build());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int[] histogram(int rating, int count) {
+        int[] histogram = new int[11];
+        histogram[rating] = count;
+        return histogram;
+    }
+}
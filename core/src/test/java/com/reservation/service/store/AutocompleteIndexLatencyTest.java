@@ -0,0 +1,148 @@
+package com.reservation.service.store;
+
+import com.reservation.service.store.AutocompleteIndex.Mutation;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 매장 이름 10만 개 이상에서의 자동완성 조회 지연 시간 (초성, 자모, 오타 허용)
+ * 충분히 예열한 뒤 검색어마다 한 번씩 조회하여 p50, p99 를 측정하여 로그로 남기고,
+ * 키 입력마다 호출해도 되도록 p99 가 1ms 미만인지 확인한다.
+ * 장비에 따라 결과가 달라지므로 기본 test 에서는 제외하고 ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+class AutocompleteIndexLatencyTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AutocompleteIndexLatencyTest.class);
+
+    private static final int STORES = 120_000;
+    private static final int TOP_K = 10;
+    private static final int QUERIES = 20_000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final long P99_LIMIT_NANOS = 1_000_000L;
+
+    // 자주 쓰이는 음절로 이름을 만들어 접두사를 공유하는 매장이 많도록 함
+    private static final String SYLLABLES =
+            "가나다라마바사아자차카타파하스타벅커피국밥집식당치킨피자분식떡볶이김밥" +
+            "한우갈비곱창순대냉면칼국수초밥라멘돈까스카페베이커리빵도넛호프포차";
+
+    private static AutocompleteIndex index;
+    private static List<String> names;
+
+    @BeforeAll
+    static void buildIndex() {
+        Random random = new Random(42);
+        names = new ArrayList<>(STORES);
+        List<Mutation> mutations = new ArrayList<>(STORES);
+
+        for (long storeId = 1; storeId <= STORES; storeId++) {
+            String name = randomName(random);
+            names.add(name);
+            mutations.add(Mutation.put(storeId, name, random.nextDouble() * 10));
+        }
+        mutations.add(Mutation.put(STORES + 1L, "스타벅스", 10.0));
+
+        index = AutocompleteIndex.empty(TOP_K).apply(mutations);
+    }
+
+    @Test
+    void chosungLookupLatencyAt100kNames() {
+        long[] nanos = measure(name -> HangulJamo.chosung(
+                name.substring(0, Math.min(3, name.length()))));
+
+        report("chosung", nanos);
+        assertThat(percentile(nanos, 99)).isLessThan(P99_LIMIT_NANOS);
+    }
+
+    @Test
+    void partialSyllableLookupLatencyAt100kNames() {
+        // 마지막 음절의 받침이나 모음을 치는 중인 검색어 ("스탑" 처럼 자모 단위로 잘린 접두사)
+        long[] nanos = measure(name -> {
+            String jamo = HangulJamo.decompose(name);
+            return jamo.substring(0, Math.min(5, jamo.length()));
+        });
+
+        report("jamo", nanos);
+        assertThat(percentile(nanos, 99)).isLessThan(P99_LIMIT_NANOS);
+    }
+
+    @Test
+    void fuzzyLookupLatencyAt100kNames() {
+        // 이름 앞 세 음절 중 한 음절을 다른 음절로 잘못 친 검색어
+        Random random = new Random(11);
+        long[] nanos = measure(name -> {
+            StringBuilder typo = new StringBuilder(
+                    name.substring(0, Math.min(3, name.length())));
+            typo.setCharAt(random.nextInt(typo.length()),
+                    SYLLABLES.charAt(random.nextInt(SYLLABLES.length())));
+            return typo.toString();
+        }, keyword -> index.searchFuzzy(keyword, TOP_K));
+
+        report("fuzzy", nanos);
+        assertThat(percentile(nanos, 99)).isLessThan(P99_LIMIT_NANOS);
+    }
+
+    /**
+     * 저장된 이름에서 검색어를 만들어 예열 후 한 번씩 조회한 시간(ns)
+     */
+    private static long[] measure(Function<String, String> toQuery) {
+        return measure(toQuery, keyword -> index.search(keyword, TOP_K));
+    }
+
+    private static long[] measure(Function<String, String> toQuery,
+                                  Function<String, Map<String, List<Long>>> lookup) {
+        Random random = new Random(7);
+        String[] queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = toQuery.apply(names.get(random.nextInt(names.size())));
+        }
+
+        int found = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (String query : queries) {
+                found += lookup.apply(query).size();
+            }
+        }
+        assertThat(found).isPositive();
+
+        long[] nanos = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            long start = System.nanoTime();
+            lookup.apply(queries[i]);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+
+    private static void report(String name, long[] sorted) {
+        log.info("autocomplete {} latency at {} names -> p50 {}us, p99 {}us",
+                name, STORES, percentile(sorted, 50) / 1_000,
+                percentile(sorted, 99) / 1_000);
+    }
+
+    private static String randomName(Random random) {
+        int length = 2 + random.nextInt(5);
+        StringBuilder name = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            name.append(SYLLABLES.charAt(random.nextInt(SYLLABLES.length())));
+        }
+        return name.toString();
+    }
+}
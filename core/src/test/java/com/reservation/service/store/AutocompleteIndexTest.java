@@ -0,0 +1,224 @@
+package com.reservation.service.store;
+
+import com.reservation.service.store.AutocompleteIndex.Mutation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AutocompleteIndexTest {
+
+    private static final int TOP_K = 3;
+    private static final int BRANCHES = 20;
+
+    /**
+     * 평점이 높은 체인점 지점 BRANCHES 개와 평점이 낮은 다른 이름 두 개
+     */
+    private static AutocompleteIndex chainIndex() {
+        List<Mutation> mutations = new ArrayList<>();
+        for (long storeId = 1; storeId <= BRANCHES; storeId++) {
+            mutations.add(Mutation.put(storeId, "스타벅스", 4.0 + storeId / 100.0));
+        }
+        mutations.add(Mutation.put(100L, "스타일 카페", 3.0));
+        mutations.add(Mutation.put(101L, "스타 국밥", 2.0));
+        return AutocompleteIndex.empty(TOP_K).apply(mutations);
+    }
+
+    @Test
+    void chainBranchesDoNotCrowdOutOtherNames() {
+        Map<String, List<Long>> completions = chainIndex().search("스타", TOP_K);
+
+        assertThat(completions.keySet())
+                .containsExactly("스타벅스", "스타일 카페", "스타 국밥");
+        assertThat(completions.get("스타벅스")).hasSize(BRANCHES);
+        assertThat(completions.get("스타일 카페")).containsExactly(100L);
+    }
+
+    @Test
+    void branchIdsAreOrderedByRating() {
+        List<Long> expected = new ArrayList<>();
+        for (long storeId = BRANCHES; storeId >= 1; storeId--) {
+            expected.add(storeId);
+        }
+
+        assertThat(chainIndex().search("ㅅㅌㅂ", TOP_K).get("스타벅스"))
+                .containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void chosungAndPartialSyllableQueriesMatchHangulNames() {
+        AutocompleteIndex index = chainIndex();
+
+        assertThat(index.search("ㅅㅌㅂ", TOP_K)).containsKey("스타벅스");
+        assertThat(index.search("스탑", TOP_K)).containsKey("스타벅스");
+        assertThat(index.search("스타벅", TOP_K)).containsKey("스타벅스");
+    }
+
+    @Test
+    void removingOneBranchKeepsTheName() {
+        AutocompleteIndex index = chainIndex().apply(
+                Collections.singletonList(Mutation.remove(BRANCHES + 0L)));
+
+        List<Long> storeIds = index.search("스타벅", TOP_K).get("스타벅스");
+        assertThat(storeIds).hasSize(BRANCHES - 1).doesNotContain(BRANCHES + 0L);
+    }
+
+    @Test
+    void renamingLastBranchDropsTheName() {
+        List<Mutation> mutations = new ArrayList<>();
+        for (long storeId = 1; storeId <= BRANCHES; storeId++) {
+            mutations.add(Mutation.put(storeId, "투썸플레이스", 4.0));
+        }
+        AutocompleteIndex index = chainIndex().apply(mutations);
+
+        assertThat(index.search("스타", TOP_K)).doesNotContainKey("스타벅스");
+        assertThat(index.search("투썸", TOP_K).get("투썸플레이스")).hasSize(BRANCHES);
+        assertThat(index.size()).isEqualTo(BRANCHES + 2);
+    }
+
+    @Test
+    void fuzzyResultsAreDistinctNames() {
+        Map<String, List<Long>> completions = chainIndex().searchFuzzy("스터벅", TOP_K);
+
+        assertThat(completions.keySet()).containsExactly("스타벅스");
+        assertThat(completions.get("스타벅스")).hasSize(BRANCHES);
+    }
+
+    @Test
+    void fuzzyAllowsOneJamoTypoInMidLengthQueries() {
+        AutocompleteIndex index = index("스타벅스", 4.0);
+
+        // ㅅㅡㅌㅓㅂㅓㄱ (7 자모), 모음 하나 차이
+        assertThat(index.searchFuzzy("스터벅", TOP_K)).containsKey("스타벅스");
+        // ㅅㅡㅌㅓㅂㅏㄱ, 두 자모 차이는 허용하지 않음
+        assertThat(index.searchFuzzy("스터박", TOP_K)).isEmpty();
+    }
+
+    @Test
+    void fuzzyAllowsTwoJamoTyposInLongQueries() {
+        AutocompleteIndex index = index("스타벅스", 4.0);
+
+        // ㅅㅡㅌㅓㅂㅓㄱㅅㅓ (9 자모), 두 자모 차이
+        assertThat(index.searchFuzzy("스터벅서", TOP_K)).containsKey("스타벅스");
+        // ㅅㅡㅌㅓㅂㅏㄱㅅ (8 자모) 는 한 자모 차이까지만 허용
+        assertThat(index.searchFuzzy("스터박ㅅ", TOP_K)).isEmpty();
+    }
+
+    @Test
+    void fuzzyRequiresExactPrefixBelowThreeJamo() {
+        AutocompleteIndex index = index("스타벅스", 4.0);
+
+        // ㅅㅡ, ㅅㅓ (2 자모)
+        assertThat(index.searchFuzzy("스", TOP_K)).containsKey("스타벅스");
+        assertThat(index.searchFuzzy("서", TOP_K)).isEmpty();
+        // ㅅㅓㅌ (3 자모) 부터 한 자모 차이 허용
+        assertThat(index.searchFuzzy("서ㅌ", TOP_K)).containsKey("스타벅스");
+    }
+
+    @Test
+    void fuzzyComparesCharactersForNonHangulQueries() {
+        AutocompleteIndex index = index("starbucks", 4.0, "starlight", 3.0);
+
+        assertThat(index.searchFuzzy("sx", TOP_K)).isEmpty();
+        assertThat(index.searchFuzzy("stsr", TOP_K).keySet())
+                .containsExactly("starbucks", "starlight");
+        assertThat(index.searchFuzzy("starbukcs", TOP_K).keySet())
+                .containsExactly("starbucks");
+        assertThat(index.searchFuzzy("stxrbukcs", TOP_K)).isEmpty();
+    }
+
+    @Test
+    void fuzzyResultsAreOrderedByDistanceThenRating() {
+        AutocompleteIndex index = index(
+                "스타벅스", 3.0, "스터박스", 4.0, "스터벅 카페", 1.0, "스시", 5.0);
+
+        // 거리 0 인 이름이 평점이 낮아도 먼저, 거리가 같다면 평점 순서
+        assertThat(index.searchFuzzy("스터벅", TOP_K).keySet())
+                .containsExactly("스터벅 카페", "스터박스", "스타벅스");
+    }
+
+    /**
+     * 이름, 평점을 번갈아 받아 이름마다 매장 하나씩 등록한 인덱스
+     */
+    private static AutocompleteIndex index(Object... nameAndWeights) {
+        List<Mutation> mutations = new ArrayList<>();
+        for (int i = 0; i < nameAndWeights.length; i += 2) {
+            mutations.add(Mutation.put(i + 1L,
+                    (String) nameAndWeights[i], (Double) nameAndWeights[i + 1]));
+        }
+        return AutocompleteIndex.empty(TOP_K).apply(mutations);
+    }
+
+    /**
+     * 작은 변경을 여러 번 나누어 반영한 스냅샷이
+     * 최종 매장 목록으로 직접 계산한 이름 순위, 매장 순서와 같은지 확인
+     */
+    @Test
+    void incrementalBatchesMatchTheFinalStores() {
+        String[] names = {"스타벅스", "스타일 카페", "스타 국밥", "스시", "투썸플레이스", "투다리"};
+        Random random = new Random(7);
+        Map<Long, String> storeNames = new HashMap<>();
+        Map<Long, Double> weights = new HashMap<>();
+        AutocompleteIndex index = AutocompleteIndex.empty(TOP_K);
+
+        for (int batch = 0; batch < 200; batch++) {
+            List<Mutation> mutations = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                long storeId = random.nextInt(40);
+                if (random.nextInt(5) == 0) {
+                    storeNames.remove(storeId);
+                    weights.remove(storeId);
+                    mutations.add(Mutation.remove(storeId));
+                } else {
+                    String name = names[random.nextInt(names.length)];
+                    double weight = random.nextInt(1000) / 100.0;
+                    storeNames.put(storeId, name);
+                    weights.put(storeId, weight);
+                    mutations.add(Mutation.put(storeId, name, weight));
+                }
+            }
+            index = index.apply(mutations);
+        }
+
+        assertThat(index.size()).isEqualTo(storeNames.size());
+        for (String prefix : new String[]{"스", "스타", "투", "스시"}) {
+            Map<String, List<Long>> expected = expected(storeNames, weights, prefix);
+            Map<String, List<Long>> actual = index.search(prefix, TOP_K);
+
+            assertThat(new ArrayList<>(actual.keySet())).as(prefix)
+                    .isEqualTo(new ArrayList<>(expected.keySet()));
+            assertThat(actual).as(prefix).isEqualTo(expected);
+        }
+    }
+
+    private static Map<String, List<Long>> expected(
+            Map<Long, String> storeNames, Map<Long, Double> weights, String prefix) {
+
+        Comparator<Long> storeRanking = Comparator
+                .comparingDouble((Long storeId) -> weights.get(storeId)).reversed()
+                .thenComparing(storeId -> storeId);
+
+        Map<String, List<Long>> byName = storeNames.keySet().stream()
+                .filter(storeId -> storeNames.get(storeId).startsWith(prefix))
+                .sorted(storeRanking)
+                .collect(Collectors.groupingBy(storeNames::get, Collectors.toList()));
+
+        return byName.entrySet().stream()
+                .sorted(Comparator
+                        .comparingDouble((Map.Entry<String, List<Long>> entry) ->
+                                weights.get(entry.getValue().get(0))).reversed()
+                        .thenComparing(Map.Entry::getKey))
+                .limit(TOP_K)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue,
+                        (a, b) -> a, LinkedHashMap::new));
+    }
+}
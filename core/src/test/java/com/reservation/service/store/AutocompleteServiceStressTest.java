@@ -0,0 +1,193 @@
+package com.reservation.service.store;
+
+import com.reservation.store.AutocompleteResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 쓰기 스레드 여러 개가 매장을 추가, 변경, 삭제하는 동안 조회 스레드들이 계속 자동완성을 조회
+ * 1. 조회 중 예외가 나지 않고, 결과는 항상 검색어로 시작하는 이름만 담는다.
+ * 2. 조회 중 읽은 스냅샷은 매장 id 와 이름이 어긋나지 않는다.
+ * 3. 쓰기가 끝나면 마지막 스냅샷이 각 쓰기 스레드가 마지막으로 반영한 상태와 같다.
+ */
+class AutocompleteServiceStressTest {
+
+    private static final int TOP_K = 10;
+    private static final int WRITERS = 4;
+    private static final int READERS = 8;
+    private static final int STORES_PER_WRITER = 500;
+    private static final int WRITES_PER_WRITER = 20_000;
+    private static final String LETTERS = "abcdefghij";
+
+    private AutocompleteService autocompleteService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.autocompleteService = new AutocompleteService(TOP_K);
+        this.autocompleteService.load(Collections.emptyList()).get();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.autocompleteService.shutdown();
+    }
+
+    @Test
+    void readersSeeConsistentSnapshotsWhileWritersMutate() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch writersDone = new CountDownLatch(WRITERS);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+
+        List<Map<Long, String>> expected = new ArrayList<>();
+        for (int writer = 0; writer < WRITERS; writer++) {
+            Map<Long, String> stores = new HashMap<>();
+            expected.add(stores);
+
+            long firstId = (long) writer * STORES_PER_WRITER + 1;
+            Random random = new Random(writer);
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    write(random, firstId, stores);
+                } catch (Throwable e) {
+                    errors.add(e);
+                } finally {
+                    writersDone.countDown();
+                }
+            });
+        }
+
+        for (int reader = 0; reader < READERS; reader++) {
+            Random random = new Random(100 + reader);
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    while (writing.get()) {
+                        read(random);
+                        if (reads.incrementAndGet() % 500 == 0) {
+                            assertSnapshotConsistent(random);
+                        }
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            });
+        }
+
+        start.countDown();
+        assertThat(writersDone.await(60, TimeUnit.SECONDS)).isTrue();
+        writing.set(false);
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(errors).isEmpty();
+        assertThat(reads.get()).isPositive();
+
+        Map<Long, String> merged = new HashMap<>();
+        expected.forEach(merged::putAll);
+        assertThat(awaitSnapshot(merged)).isEqualTo(merged);
+    }
+
+    /**
+     * 자기 몫의 매장 id 만 변경하고 마지막 상태를 기록
+     */
+    private void write(Random random, long firstId, Map<Long, String> stores) {
+        for (int i = 0; i < WRITES_PER_WRITER; i++) {
+            long storeId = firstId + random.nextInt(STORES_PER_WRITER);
+
+            if (random.nextInt(4) == 0) {
+                this.autocompleteService.deleteAutocompleteKeyword(storeId);
+                stores.remove(storeId);
+            } else {
+                String name = "store-" + randomLetters(random, 3);
+                this.autocompleteService.putAutocompleteKeyword(
+                        storeId, name, random.nextDouble() * 5);
+                stores.put(storeId, name);
+            }
+        }
+    }
+
+    private void read(Random random) {
+        String keyword = "store-" + randomLetters(random, random.nextInt(3));
+        boolean fuzzy = random.nextInt(4) == 0;
+
+        List<AutocompleteResponse> responses = this.autocompleteService
+                .getStoreNamesByKeyword(keyword, TOP_K, fuzzy);
+
+        assertThat(responses).hasSizeLessThanOrEqualTo(TOP_K);
+        for (AutocompleteResponse response : responses) {
+            if (!fuzzy) {
+                assertThat(response.getName()).startsWith(keyword);
+            }
+            assertThat(response.getStoreIds()).isNotEmpty().doesNotHaveDuplicates();
+        }
+    }
+
+    /**
+     * 한 스냅샷 안에서 검색 결과의 매장 id 가 모두 그 이름으로 등록되어 있는지 확인
+     */
+    private static void assertSnapshotConsistent(AutocompleteIndex snapshot, String keyword) {
+        Map<Long, String> stores = contents(snapshot);
+
+        snapshot.search(keyword, TOP_K).forEach((name, storeIds) -> {
+            for (Long storeId : storeIds) {
+                assertThat(stores.get(storeId)).isEqualTo(name);
+            }
+        });
+    }
+
+    private void assertSnapshotConsistent(Random random) {
+        assertSnapshotConsistent(this.autocompleteService.snapshot(),
+                "store-" + randomLetters(random, 1));
+    }
+
+    /**
+     * 쓰기 스레드가 남은 변경을 모두 반영할 때까지 기다린 마지막 스냅샷 내용
+     */
+    private Map<Long, String> awaitSnapshot(Map<Long, String> expected)
+            throws InterruptedException {
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        Map<Long, String> current = contents(this.autocompleteService.snapshot());
+        while (!current.equals(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            current = contents(this.autocompleteService.snapshot());
+        }
+        return current;
+    }
+
+    private static Map<Long, String> contents(AutocompleteIndex snapshot) {
+        Map<Long, String> stores = new HashMap<>();
+        snapshot.forEach((storeId, name, weight) -> stores.put(storeId, name));
+        return stores;
+    }
+
+    private static String randomLetters(Random random, int length) {
+        StringBuilder letters = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            letters.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        }
+        return letters.toString();
+    }
+}
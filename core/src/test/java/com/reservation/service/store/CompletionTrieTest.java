@@ -0,0 +1,122 @@
+package com.reservation.service.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompletionTrieTest {
+
+    private static final int TOP_K = 3;
+    private static final Comparator<Integer> RANKING = Comparator.reverseOrder();
+
+    @Test
+    void putLeavesThePreviousTrieUnchanged() {
+        CompletionTrie<Integer> before = CompletionTrie.<Integer>empty(RANKING, TOP_K)
+                .put("abc", 1)
+                .put("abd", 2);
+        CompletionTrie<Integer> after = before.put("ab", 3);
+
+        assertThat(before.complete("ab", TOP_K)).containsExactly(2, 1);
+        assertThat(after.complete("ab", TOP_K)).containsExactly(3, 2, 1);
+        assertThat(after.complete("abc", TOP_K)).containsExactly(1);
+    }
+
+    @Test
+    void removingTheTopValueRecomputesTheAncestors() {
+        CompletionTrie<Integer> trie = CompletionTrie.build(
+                Arrays.asList("ab", "abc", "abd", "abde"),
+                Arrays.asList(1, 2, 3, 4), RANKING, TOP_K);
+
+        CompletionTrie<Integer> removed = trie.remove("abde", 4);
+
+        assertThat(removed.complete("a", TOP_K)).containsExactly(3, 2, 1);
+        assertThat(removed.complete("abde", TOP_K)).isEmpty();
+        assertThat(removed.get("abd")).containsExactly(3);
+        assertThat(trie.complete("a", TOP_K)).containsExactly(4, 3, 2);
+    }
+
+    @Test
+    void removingAMissingValueReturnsTheSameTrie() {
+        CompletionTrie<Integer> trie = CompletionTrie.<Integer>empty(RANKING, TOP_K)
+                .put("abc", 1);
+
+        assertThat(trie.remove("abc", 2)).isSameAs(trie);
+        assertThat(trie.remove("ab", 1)).isSameAs(trie);
+        assertThat(trie.remove("abcd", 1)).isSameAs(trie);
+    }
+
+    /**
+     * 무작위 put, remove 를 반복한 trie 와 같은 내용을 한 번에 만든 trie 가
+     * 모든 접두사에서 직접 계산한 결과와 같은지 확인
+     */
+    @Test
+    void patchedTrieMatchesBruteForce() {
+        Random random = new Random(42);
+        Map<Integer, String> keys = new HashMap<>();
+        CompletionTrie<Integer> trie = CompletionTrie.empty(RANKING, TOP_K);
+
+        for (int step = 0; step < 3000; step++) {
+            int value = random.nextInt(200);
+            String previous = keys.remove(value);
+            if (previous != null) {
+                trie = trie.remove(previous, value);
+            }
+            if (random.nextInt(4) != 0) {
+                String key = randomKey(random);
+                keys.put(value, key);
+                trie = trie.put(key, value);
+            }
+        }
+
+        CompletionTrie<Integer> built = CompletionTrie.build(
+                new ArrayList<>(keys.values()), new ArrayList<>(keys.keySet()),
+                RANKING, TOP_K);
+
+        for (String prefix : prefixes()) {
+            List<Integer> expected = keys.entrySet().stream()
+                    .filter(entry -> entry.getValue().startsWith(prefix))
+                    .map(Map.Entry::getKey)
+                    .sorted(RANKING)
+                    .limit(TOP_K)
+                    .collect(Collectors.toList());
+
+            assertThat(trie.complete(prefix, TOP_K)).as(prefix).isEqualTo(expected);
+            assertThat(built.complete(prefix, TOP_K)).as(prefix).isEqualTo(expected);
+        }
+    }
+
+    private static String randomKey(Random random) {
+        StringBuilder key = new StringBuilder();
+        int length = random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            key.append((char) ('a' + random.nextInt(3)));
+        }
+        return key.toString();
+    }
+
+    /**
+     * 길이 4 이하의 모든 a, b, c 조합
+     */
+    private static List<String> prefixes() {
+        List<String> prefixes = new ArrayList<>();
+        prefixes.add("");
+        for (int i = 0; i < prefixes.size(); i++) {
+            String prefix = prefixes.get(i);
+            if (prefix.length() < 4) {
+                prefixes.add(prefix + 'a');
+                prefixes.add(prefix + 'b');
+                prefixes.add(prefix + 'c');
+            }
+        }
+        return prefixes;
+    }
+}
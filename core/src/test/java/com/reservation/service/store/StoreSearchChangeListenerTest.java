@@ -0,0 +1,116 @@
+package com.reservation.service.store;
+
+import com.reservation.repository.store.StoreRepository;
+import com.reservation.repository.store.StoreSearchView;
+import com.reservation.service.store.feed.StoreChangeEvent;
+import com.reservation.service.store.feed.StoreChangeFeed;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StoreSearchChangeListenerTest {
+
+    private StoreRepository storeRepository;
+    private StoreSearchIndex storeSearchIndex;
+    private StoreSearchChangeListener listener;
+    private Consumer<StoreChangeEvent> subscriber;
+    private final List<StoreSearchView> stores = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        this.storeRepository = mock(StoreRepository.class);
+        when(this.storeRepository.findSearchViewsAfter(anyLong(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    long afterId = invocation.getArgument(0);
+                    return afterId == 0L ? new ArrayList<>(this.stores)
+                            : Collections.emptyList();
+                });
+        this.storeSearchIndex = new StoreSearchIndex(this.storeRepository);
+
+        StoreChangeFeed feed = mock(StoreChangeFeed.class);
+        this.listener = new StoreSearchChangeListener(feed, this.storeSearchIndex);
+        this.listener.subscribe();
+
+        ArgumentCaptor<Consumer<StoreChangeEvent>> captor =
+                ArgumentCaptor.forClass(Consumer.class);
+        verify(feed).subscribe(captor.capture());
+        this.subscriber = captor.getValue();
+
+        this.stores.add(view(1L, "역전 커피", "서울시"));
+        this.listener.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.listener.shutdown();
+    }
+
+    @Test
+    void changesFromOtherServersAreIndexed() {
+        this.subscriber.accept(put(1L, 2L, "커피 공방"));
+        this.subscriber.accept(put(2L, 1L, "역전 국밥"));
+
+        assertThat(this.storeSearchIndex.search("커피")).containsExactly(2L);
+        assertThat(this.storeSearchIndex.search("국밥")).containsExactly(1L);
+
+        this.subscriber.accept(StoreChangeEvent.delete(2L).toBuilder()
+                .version(3L).build());
+
+        assertThat(this.storeSearchIndex.search("커피")).isEmpty();
+    }
+
+    @Test
+    void versionGapReloadsFromTheDatabase() throws InterruptedException {
+        // 2번 매장을 추가한 version 1 의 이벤트를 잃음
+        this.stores.add(view(2L, "커피 공방", "서울시"));
+        this.subscriber.accept(put(2L, 3L, "합정 국밥"));
+
+        // 다시 적재는 피드를 전달하는 스레드 밖에서 실행된다.
+        long deadline = System.currentTimeMillis() + 5000;
+        while (this.storeSearchIndex.search("커피").size() < 2
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(this.storeSearchIndex.search("커피")).containsExactly(2L, 1L);
+    }
+
+    private static StoreChangeEvent put(long version, Long storeId, String name) {
+        return StoreChangeEvent.put(storeId, name, "서울시", 0.0).toBuilder()
+                .version(version)
+                .build();
+    }
+
+    private static StoreSearchView view(Long id, String name, String address) {
+        return new StoreSearchView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getAddress() {
+                return address;
+            }
+        };
+    }
+}
@@ -0,0 +1,144 @@
+package com.reservation.service.store;
+
+import com.reservation.repository.store.StoreRepository;
+import com.reservation.repository.store.StoreSearchView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StoreSearchIndexTest {
+
+    private StoreRepository storeRepository;
+    private StoreSearchIndex storeSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        this.storeRepository = mock(StoreRepository.class);
+        this.storeSearchIndex = new StoreSearchIndex(this.storeRepository);
+    }
+
+    @Test
+    void searchFallsBackUntilLoaded() {
+        assertThat(this.storeSearchIndex.search("커피")).isNull();
+    }
+
+    @Test
+    void loadRanksNamePrefixThenNameThenAddress() {
+        List<StoreSearchView> stores = new ArrayList<>();
+        stores.add(view(1L, "역전 커피", "서울시 중구"));
+        stores.add(view(2L, "커피 하우스", "서울시 종로구"));
+        stores.add(view(3L, "분식집", "커피거리 12"));
+        stores.add(view(4L, "국밥집", "부산시"));
+        serve(stores);
+
+        this.storeSearchIndex.load();
+
+        assertThat(this.storeSearchIndex.search("커피")).containsExactly(2L, 1L, 3L);
+        assertThat(this.storeSearchIndex.search("집")).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void storesChangedWhileLoadingKeepTheirNewValues() {
+        List<StoreSearchView> stores = new ArrayList<>();
+        stores.add(view(1L, "예전 이름", "서울시"));
+        stores.add(view(2L, "그대로", "서울시"));
+
+        // 첫 조회 결과를 돌려주기 전에 1번 매장이 바뀌고 3번 매장이 추가됨
+        when(this.storeRepository.findSearchViewsAfter(anyLong(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    long afterId = invocation.getArgument(0);
+                    if (afterId == 0L) {
+                        this.storeSearchIndex.put(1L, "새 이름", "서울시");
+                        this.storeSearchIndex.put(3L, "새 매장", "서울시");
+                        return stores;
+                    }
+                    return new ArrayList<>();
+                });
+
+        this.storeSearchIndex.load();
+
+        assertThat(this.storeSearchIndex.search("예전")).isEmpty();
+        assertThat(this.storeSearchIndex.search("새")).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(this.storeSearchIndex.search("서울"))
+                .containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    void reloadDropsStoresDeletedElsewhere() {
+        List<StoreSearchView> stores = new ArrayList<>();
+        stores.add(view(1L, "커피 하우스", "서울시"));
+        stores.add(view(2L, "커피 공방", "서울시"));
+        serve(stores);
+        this.storeSearchIndex.load();
+
+        // 다른 서버에서 2번 매장이 삭제된 뒤 이벤트를 잃어 다시 적재
+        stores.remove(1);
+        this.storeSearchIndex.load();
+
+        assertThat(this.storeSearchIndex.search("커피")).containsExactly(1L);
+    }
+
+    @Test
+    void coldLoadOfManyStoresSharingGramsIsLinear() {
+        int count = 100_000;
+        List<StoreSearchView> stores = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            stores.add(view(id, "맛있는 식당 " + id, "서울시 강남구 " + (id % 100) + "번지"));
+        }
+        serve(stores);
+
+        // 매장마다 posting 을 복사한다면 "식당", "서울" 등의 gram 에서 수십억 번 복사한다.
+        assertTimeoutPreemptively(Duration.ofSeconds(10), this.storeSearchIndex::load);
+
+        assertThat(this.storeSearchIndex.search("식당")).hasSize(count);
+        assertThat(this.storeSearchIndex.search("식당 99999")).containsExactly(99999L);
+    }
+
+    /**
+     * 저장소가 id 순서대로 1000 개씩 나누어 돌려주도록 설정
+     */
+    private void serve(List<StoreSearchView> stores) {
+        when(this.storeRepository.findSearchViewsAfter(anyLong(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    long afterId = invocation.getArgument(0);
+                    Pageable pageable = invocation.getArgument(1);
+                    List<StoreSearchView> chunk = new ArrayList<>();
+                    for (StoreSearchView store : stores) {
+                        if (store.getId() > afterId && chunk.size() < pageable.getPageSize()) {
+                            chunk.add(store);
+                        }
+                    }
+                    return chunk;
+                });
+    }
+
+    private static StoreSearchView view(Long id, String name, String address) {
+        return new StoreSearchView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getAddress() {
+                return address;
+            }
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package com.reservation.service.store;
+
+import com.reservation.entity.store.StoreEntity;
+import com.reservation.entity.user.UserEntity;
+import com.reservation.entity.user.UserRole;
+import com.reservation.repository.store.StoreRepository;
+import com.reservation.repository.user.UserRepository;
+import com.reservation.service.review.StoreRatingAggregator;
+import com.reservation.store.StoreRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StoreServiceTest {
+
+    @Autowired
+    private StoreService storeService;
+
+    @Autowired
+    private StoreRatingAggregator storeRatingAggregator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    private UserEntity partner;
+
+    @BeforeEach
+    void setUp() {
+        this.partner = this.userRepository.save(UserEntity.builder()
+                .account("partner")
+                .password("password")
+                .name("partner")
+                .userRole(UserRole.PARTNER)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.storeRepository.deleteAll();
+        this.userRepository.deleteAll();
+    }
+
+    @Test
+    void updateStoreKeepsRatingFlushedAfterItsRead() {
+        StoreEntity store = this.storeRepository.save(StoreEntity.builder()
+                .userEntity(this.partner)
+                .name("before")
+                .address("address")
+                .ratingSum(0L)
+                .reviewCount(0L)
+                .build());
+
+        new TransactionTemplate(this.transactionManager).executeWithoutResult(status -> {
+            // 매장 정보 수정이 매장을 읽어 둔 뒤에 평점 변화량이 반영된 경우
+            this.storeRepository.findById(store.getId());
+            CompletableFuture.runAsync(() -> {
+                this.storeRatingAggregator.ratingAdded(store.getId(), 8);
+                this.storeRatingAggregator.flush();
+            }).join();
+
+            this.storeService.updateStore(
+                    this.partner, store.getId(), request("after"));
+        });
+
+        StoreEntity updated = this.storeRepository.findById(store.getId())
+                .orElseThrow(IllegalStateException::new);
+        assertThat(updated.getName()).isEqualTo("after");
+        assertThat(updated.getRatingSum()).isEqualTo(8L);
+        assertThat(updated.getReviewCount()).isEqualTo(1L);
+        assertThat(updated.getRatingHistogram()[8]).isEqualTo(1);
+    }
+
+    private static StoreRequest request(String name) {
+        StoreRequest request = new StoreRequest();
+        ReflectionTestUtils.setField(request, "name", name);
+        ReflectionTestUtils.setField(request, "address", "address");
+        ReflectionTestUtils.setField(request, "description", "description");
+        return request;
+    }
+}
@@ -0,0 +1,84 @@
+package com.reservation.service.store.feed;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class InMemoryStoreChangeFeedTest {
+
+    private static final int PUBLISHERS = 8;
+    private static final int EVENTS_PER_PUBLISHER = 2_000;
+
+    private final InMemoryStoreChangeFeed feed = new InMemoryStoreChangeFeed();
+
+    @Test
+    void concurrentPublishesAreDeliveredOnceInVersionOrder() throws Exception {
+        List<Long> delivered = new ArrayList<>();
+        this.feed.subscribe(event -> delivered.add(event.getVersion()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(PUBLISHERS);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int publisher = 0; publisher < PUBLISHERS; publisher++) {
+            long storeId = publisher;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < EVENTS_PER_PUBLISHER; i++) {
+                    this.feed.publish(StoreChangeEvent.delete(storeId));
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        long total = (long) PUBLISHERS * EVENTS_PER_PUBLISHER;
+        assertThat(this.feed.currentVersion()).isEqualTo(total);
+        assertThat(delivered).hasSize((int) total);
+        for (int i = 0; i < delivered.size(); i++) {
+            assertThat(delivered.get(i)).isEqualTo(i + 1L);
+        }
+    }
+
+    /**
+     * 전달 중인 구독자가 기다리는 락을 잡은 채 currentVersion 을 읽어도
+     * 피드의 모니터와 엇갈려 멈추지 않는다.
+     */
+    @Test
+    void readingVersionWhileHoldingSubscriberLockDoesNotDeadlock() {
+        Object subscriberLock = new Object();
+        CountDownLatch delivering = new CountDownLatch(1);
+
+        this.feed.subscribe(event -> {
+            delivering.countDown();
+            synchronized (subscriberLock) {
+                assertThat(event.getVersion()).isEqualTo(1L);
+            }
+        });
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            Thread publisher = new Thread(() ->
+                    this.feed.publish(StoreChangeEvent.delete(1L)));
+
+            synchronized (subscriberLock) {
+                publisher.start();
+                delivering.await();
+                assertThat(this.feed.currentVersion()).isEqualTo(1L);
+            }
+            publisher.join();
+        });
+    }
+}
@@ -0,0 +1,61 @@
+package com.reservation.entity.auth;
+
+import com.reservation.entity.base.BaseEntity;
+import com.reservation.entity.user.UserEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 리프레시 토큰
+ * 토큰 원문은 저장하지 않고 SHA-256 해시만 저장하며, 한 번 사용하면 폐기(rotate)한다.
+ * 같은 로그인에서 이어진 토큰들은 familyId 가 같으며,
+ * 이미 사용한 토큰이 다시 들어오면 탈취로 보고 family 전체를 폐기한다.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity(name = "REFRESH_TOKEN")
+@Table(indexes = {
+        @Index(name = "uk_refresh_token_hash",
+                columnList = "tokenHash", unique = true),
+        @Index(name = "idx_refresh_token_family", columnList = "familyId")
+})
+public class RefreshTokenEntity extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false, length = 36)
+    private String familyId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private UserEntity userEntity;
+
+    // 이 토큰과 함께 발급한 액세스 토큰, family 를 폐기할 때 함께 폐기
+    @Column(nullable = false, length = 36)
+    private String accessTokenId;
+
+    @Column(nullable = false)
+    private LocalDateTime accessTokenExpiresAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false)
+    private boolean revoked;
+
+    public boolean isExpired(LocalDateTime now) {
+        return !this.expiresAt.isAfter(now);
+    }
+}
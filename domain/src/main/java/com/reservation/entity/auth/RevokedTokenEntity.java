@@ -0,0 +1,36 @@
+package com.reservation.entity.auth;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 폐기된 액세스 토큰의 id(jti)
+ * 각 서버는 이 테이블을 주기적으로 읽어 메모리의 폐기 목록에 반영하며,
+ * 토큰 검증 중에는 DB 를 조회하지 않는다.
+ * 토큰이 만료된 뒤에는 더 확인할 필요가 없으므로 삭제한다.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity(name = "REVOKED_TOKEN")
+@Table(indexes = {
+        @Index(name = "idx_revoked_token_expires", columnList = "expiresAt")
+})
+public class RevokedTokenEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 36)
+    private String tokenId;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -23,6 +23,17 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity(name = "RESERVATION")
+@Table(indexes = {
+        // 시간대 중복 확인, 매장의 예약 목록 조회 시 매장의 해당 기간 예약만 범위 스캔
+        @Index(name = "idx_reservation_store_time",
+                columnList = "store_id, reservationTime"),
+        // 회원의 예약 목록을 예약한 순서대로 페이징
+        @Index(name = "idx_reservation_user_created",
+                columnList = "user_id, createdAt"),
+        // 예약 시간이 지난 'APPROVED' 예약을 찾아 'NO_SHOW' 로 일괄 변경
+        @Index(name = "idx_reservation_status_time",
+                columnList = "reservationStatus, reservationTime")
+})
 public class ReservationEntity extends BaseEntity {
 
     @Id
@@ -1,6 +1,9 @@
 package com.reservation.entity.reservation;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * PENDING: 예약 대기 상태
@@ -18,6 +21,21 @@ public enum ReservationStatus {
     VISITED,
     NO_SHOW;
 
+    /**
+     * 예약 시간대를 점유하는 상태
+     * 거절, 취소, 노쇼된 예약은 다른 예약이 그 시간대를 사용할 수 있다.
+     */
+    private static final Set<ReservationStatus> SLOT_OCCUPYING =
+            Collections.unmodifiableSet(EnumSet.of(PENDING, APPROVED, VISITED));
+
+    public static Set<ReservationStatus> slotOccupying() {
+        return SLOT_OCCUPYING;
+    }
+
+    public boolean isSlotOccupying() {
+        return SLOT_OCCUPYING.contains(this);
+    }
+
     /**
      * 1. Enum 의 모든 값을 stream 으로 변환
      * 2. 이름이 일치하는 값 필터링(대문자로 변환)
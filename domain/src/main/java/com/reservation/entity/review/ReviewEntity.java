@@ -22,6 +22,11 @@ import javax.persistence.*;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity(name = "REVIEW")
+@Table(indexes = {
+        // 매장 리뷰 목록을 (created_at, id) 기준 seek 방식으로 조회
+        @Index(name = "idx_review_store_created",
+                columnList = "store_id, createdAt, id")
+})
 public class ReviewEntity extends BaseEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -52,6 +57,13 @@ public class ReviewEntity extends BaseEntity {
         return Rating.fromValue(this.rating).getRating();
     }
 
+    /**
+     * DB에 저장된 평점값(0~10)을 반환
+     */
+    public int getRatingValue() {
+        return this.rating;
+    }
+
     /**
      * 리뷰 내용과 평점을 수정
      */
@@ -0,0 +1,35 @@
+package com.reservation.entity.scheduler;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.time.LocalDateTime;
+
+/**
+ * 여러 서버 중 한 곳에서만 실행해야 하는 스케줄 작업의 락
+ * 작업 이름마다 행 하나를 두고, lockedUntil 이 지나기 전까지는
+ * lockedBy 서버만 작업을 실행할 수 있다.
+ * 락을 잡은 서버가 중간에 죽더라도 lockedUntil 이 지나면 다른 서버가 가져간다.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity(name = "SCHEDULER_LOCK")
+public class SchedulerLockEntity {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(nullable = false, length = 100)
+    private String lockedBy;
+}
@@ -0,0 +1,43 @@
+package com.reservation.entity.store;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * 평점(0~10)별 리뷰 수 배열을 "0,1,0,..." 형태의 문자열로 저장
+ */
+@Converter
+public class RatingHistogramConverter implements AttributeConverter<int[], String> {
+
+    private static final String DELIMITER = ",";
+
+    @Override
+    public String convertToDatabaseColumn(int[] histogram) {
+        if (histogram == null) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < histogram.length; i++) {
+            if (i > 0) {
+                sb.append(DELIMITER);
+            }
+            sb.append(histogram[i]);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public int[] convertToEntityAttribute(String dbData) {
+        if (dbData == null || dbData.isEmpty()) {
+            return null;
+        }
+
+        String[] counts = dbData.split(DELIMITER);
+        int[] histogram = new int[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            histogram[i] = Integer.parseInt(counts[i].trim());
+        }
+        return histogram;
+    }
+}
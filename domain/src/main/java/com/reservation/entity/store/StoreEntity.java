@@ -2,12 +2,14 @@ package com.reservation.entity.store;
 
 import com.reservation.entity.base.BaseEntity;
 import com.reservation.entity.reservation.ReservationEntity;
+import com.reservation.entity.review.Rating;
 import com.reservation.entity.review.ReviewEntity;
 import com.reservation.entity.user.UserEntity;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
 import java.util.List;
@@ -16,12 +18,20 @@ import java.util.Set;
 
 /**
  * 매장 정보를 관리하는 엔티티
+ * 평점 정보는 StoreRatingAggregator 가 따로 갱신하므로, 매장 정보 수정이 읽어 둔 평점으로
+ * 덮어쓰지 않도록 변경된 컬럼만 UPDATE 한다.
+ * 스키마 변경은 resources/db 의 store_rating_*.sql 참고
  */
 @Getter
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
+@DynamicUpdate
 @Entity(name = "STORE")
+@Table(indexes = {
+        // 마지막 스냅샷 이후 변경된 매장만 조회
+        @Index(name = "idx_store_updated_at", columnList = "updatedAt")
+})
 public class StoreEntity extends BaseEntity {
 
     @Id
@@ -41,8 +51,21 @@ public class StoreEntity extends BaseEntity {
     @Column(columnDefinition = "TEXT")
     private String description;
 
+    // 리뷰 평점(0~10) 합계와 리뷰 수, 평균 평점은 이 둘로 계산
     @Column(nullable = false)
-    private Double rating;
+    private Long ratingSum;
+
+    @Column(nullable = false)
+    private Long reviewCount;
+
+    // 평점(0~10)별 리뷰 수, 인덱스가 Rating 의 value
+    @Convert(converter = RatingHistogramConverter.class)
+    private int[] ratingHistogram;
+
+    // review 테이블로부터 평점 정보를 다시 계산할 때마다 1 증가
+    // 이보다 앞선 값을 가진 평점 변화량은 다시 계산에 이미 포함되어 있으므로 버린다.
+    @Column(nullable = false)
+    private long ratingEpoch;
 
     @OneToMany(mappedBy = "storeEntity",
             cascade = CascadeType.ALL,
@@ -67,9 +90,67 @@ public class StoreEntity extends BaseEntity {
         this.description = description;
     }
 
-    // Patch
-    public void updateRating(Double rating) {
-        this.rating = rating;
+    /**
+     * 평점(0~10)별 리뷰 수 변화량을 반영
+     * 평점 합계와 리뷰 수도 변화량으로부터 함께 갱신
+     * 변경 감지를 위해 배열을 수정하지 않고 새로 만들어 교체
+     * 세 값이 같은 변화량으로 움직이도록 0 아래로 내려가도 보정하지 않으며,
+     * 어긋난 값은 StoreRatingVerifier 가 review 테이블로부터 다시 계산한다.
+     *
+     * @param histogramDelta 평점별 리뷰 수 변화량
+     */
+    public void applyRatingDelta(int[] histogramDelta) {
+        int[] histogram = getRatingHistogram();
+
+        for (int value = 0; value < histogramDelta.length; value++) {
+            histogram[value] += histogramDelta[value];
+            this.ratingSum += (long) value * histogramDelta[value];
+            this.reviewCount += histogramDelta[value];
+        }
+        this.ratingHistogram = histogram;
+    }
+
+    /**
+     * 평점(0~10)별 리뷰 수로 평점 정보를 다시 계산하고 ratingEpoch 증가
+     *
+     * @param histogram 평점별 리뷰 수
+     */
+    public void resetRating(int[] histogram) {
+        long sum = 0;
+        long count = 0;
+
+        for (int value = 0; value < histogram.length; value++) {
+            sum += (long) value * histogram[value];
+            count += histogram[value];
+        }
+        this.ratingHistogram = histogram.clone();
+        this.ratingSum = sum;
+        this.reviewCount = count;
+        this.ratingEpoch++;
+    }
+
+    /**
+     * 평점(0~10)별 리뷰 수의 복사본
+     */
+    public int[] getRatingHistogram() {
+        int[] histogram = new int[Rating.values().length];
+
+        if (this.ratingHistogram != null) {
+            System.arraycopy(this.ratingHistogram, 0, histogram, 0,
+                    Math.min(histogram.length, this.ratingHistogram.length));
+        }
+        return histogram;
+    }
+
+    /**
+     * 평균 평점(0.0~5.0)
+     * 리뷰의 평점은 0~10 의 값으로 저장되므로 2를 나눔
+     */
+    public Double getRating() {
+        if (this.reviewCount == null || this.reviewCount == 0) {
+            return 0.0;
+        }
+        return this.ratingSum / (this.reviewCount * 2.0);
     }
 
     public boolean isOwnedBy(Long userId) {
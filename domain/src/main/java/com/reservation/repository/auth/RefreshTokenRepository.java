@@ -0,0 +1,50 @@
+package com.reservation.repository.auth;
+
+import com.reservation.entity.auth.RefreshTokenEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity, Long> {
+
+    @Query("SELECT t FROM REFRESH_TOKEN t JOIN FETCH t.userEntity " +
+            "WHERE t.tokenHash = :tokenHash")
+    Optional<RefreshTokenEntity> findByTokenHash(@Param("tokenHash") String tokenHash);
+
+    /**
+     * 아직 사용하지 않은 토큰만 사용 처리
+     * 같은 토큰으로 동시에 요청해도 하나만 1 을 반환한다.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE REFRESH_TOKEN t SET t.revoked = true " +
+            "WHERE t.id = :id AND t.revoked = false")
+    int revokeIfActive(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE REFRESH_TOKEN t SET t.revoked = true " +
+            "WHERE t.familyId = :familyId AND t.revoked = false")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    /**
+     * family 에서 발급한 액세스 토큰 중 아직 만료되지 않은 것의 id
+     */
+    @Query("SELECT t FROM REFRESH_TOKEN t WHERE t.familyId = :familyId " +
+            "AND t.accessTokenExpiresAt > :now")
+    List<RefreshTokenEntity> findLiveAccessTokens(
+            @Param("familyId") String familyId, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM REFRESH_TOKEN t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
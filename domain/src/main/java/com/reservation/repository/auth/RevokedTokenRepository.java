@@ -0,0 +1,31 @@
+package com.reservation.repository.auth;
+
+import com.reservation.entity.auth.RevokedTokenEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenEntity, Long> {
+
+    /**
+     * afterId 이후에 폐기된 토큰 중 만료되지 않은 것을 id 순서대로 조회
+     */
+    @Query("SELECT t FROM REVOKED_TOKEN t " +
+            "WHERE t.id > :afterId AND t.expiresAt > :now ORDER BY t.id")
+    List<RevokedTokenEntity> findRevokedAfter(
+            @Param("afterId") Long afterId, @Param("now") LocalDateTime now,
+            Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM REVOKED_TOKEN t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
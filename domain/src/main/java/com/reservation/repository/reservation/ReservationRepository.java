@@ -1,17 +1,181 @@
 package com.reservation.repository.reservation;
 
 import com.reservation.entity.reservation.ReservationEntity;
+import com.reservation.entity.reservation.ReservationStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface ReservationRepository
         extends JpaRepository<ReservationEntity, Long> {
 
+    // 매장 예약 목록의 선택 조건, 값이 null 인 조건은 적용하지 않는다.
+    String STORE_VIEW_FILTER =
+            "AND (:from IS NULL OR r.reservationTime >= :from) " +
+            "AND (:to IS NULL OR r.reservationTime < :to) " +
+            "AND (:status IS NULL OR r.reservationStatus = :status) ";
+
     List<ReservationEntity> findByStoreEntity_Id(Long storeId);
 
+    /**
+     * 회원의 예약 목록을 최근 예약한 순서대로 조회
+     * (user_id, created_at) 인덱스 순서대로 읽으므로 정렬하지 않는다.
+     */
+    @Query(value = "SELECT r.id AS id, r.name AS name, " +
+            "r.numberOfPeople AS numberOfPeople, " +
+            "r.reservationTime AS reservationTime, " +
+            "r.reservationStatus AS reservationStatus " +
+            "FROM RESERVATION r " +
+            "WHERE r.userEntity.id = :userId " +
+            "ORDER BY r.createdAt DESC, r.id DESC",
+            countQuery = "SELECT COUNT(r) FROM RESERVATION r " +
+                    "WHERE r.userEntity.id = :userId")
+    Page<ReservationView> findViewsByUserId(
+            @Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * 매장의 예약 목록을 예약 시간 순서대로 조회
+     * (store_id, reservation_time) 인덱스를 범위 스캔하므로
+     * 기간을 지정하면 매장의 전체 예약 이력을 읽지 않는다.
+     *
+     * @param storeId 매장 id
+     * @param from    예약 시간 시작(포함), null 이면 처음부터
+     * @param to      예약 시간 끝(미포함), null 이면 끝까지
+     * @param status  예약 상태, null 이면 모든 상태
+     */
+    @Query(value = "SELECT r.id AS id, r.name AS name, " +
+            "r.numberOfPeople AS numberOfPeople, " +
+            "r.reservationTime AS reservationTime, " +
+            "r.reservationStatus AS reservationStatus " +
+            "FROM RESERVATION r " +
+            "WHERE r.storeEntity.id = :storeId " + STORE_VIEW_FILTER +
+            "ORDER BY r.reservationTime, r.id",
+            countQuery = "SELECT COUNT(r) FROM RESERVATION r " +
+                    "WHERE r.storeEntity.id = :storeId " + STORE_VIEW_FILTER)
+    Page<ReservationView> findViewsByStoreId(
+            @Param("storeId") Long storeId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("status") ReservationStatus status,
+            Pageable pageable);
+
+    /**
+     * findViewsByStoreId 와 같은 조건의 예약을 DB 커서로 하나씩 읽음
+     * MySQL 드라이버는 fetch size 가 Integer.MIN_VALUE 일 때 결과를 한 번에 받지 않고 행 단위로 읽는다.
+     * 읽기 전용 트랜잭션 안에서 사용하고 다 읽은 뒤 닫아야 한다.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT r.id AS id, r.name AS name, " +
+            "r.numberOfPeople AS numberOfPeople, " +
+            "r.reservationTime AS reservationTime, " +
+            "r.reservationStatus AS reservationStatus " +
+            "FROM RESERVATION r " +
+            "WHERE r.storeEntity.id = :storeId " + STORE_VIEW_FILTER +
+            "ORDER BY r.reservationTime, r.id")
+    Stream<ReservationView> streamViewsByStoreId(
+            @Param("storeId") Long storeId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("status") ReservationStatus status);
+
     Optional<ReservationEntity> findByIdAndStoreEntity_Id(
             Long reservationId, Long storeId
     );
+
+    /**
+     * 매장의 [from, to) 구간에 예약된 시간과 인원 조회
+     * (store_id, reservation_time) 복합 인덱스를 범위 스캔하므로
+     * 매장의 전체 예약 이력이 아닌 해당 구간의 예약만 읽는다.
+     *
+     * @param storeId  매장 id
+     * @param from     구간 시작(포함)
+     * @param to       구간 끝(미포함)
+     * @param statuses 시간대를 점유하는 예약 상태
+     */
+    @Query("SELECT r.reservationTime AS reservationTime, " +
+            "r.numberOfPeople AS numberOfPeople " +
+            "FROM RESERVATION r " +
+            "WHERE r.storeEntity.id = :storeId " +
+            "AND r.reservationTime >= :from " +
+            "AND r.reservationTime < :to " +
+            "AND r.reservationStatus IN :statuses")
+    List<ReservationSlotView> findSlotViews(
+            @Param("storeId") Long storeId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("statuses") Collection<ReservationStatus> statuses);
+
+    /**
+     * 매장의 [from, to) 구간에 예약된 인원 합계
+     *
+     * @param storeId  매장 id
+     * @param from     구간 시작(포함)
+     * @param to       구간 끝(미포함)
+     * @param statuses 시간대를 점유하는 예약 상태
+     */
+    @Query("SELECT COALESCE(SUM(r.numberOfPeople), 0) " +
+            "FROM RESERVATION r " +
+            "WHERE r.storeEntity.id = :storeId " +
+            "AND r.reservationTime >= :from " +
+            "AND r.reservationTime < :to " +
+            "AND r.reservationStatus IN :statuses")
+    long sumNumberOfPeople(
+            @Param("storeId") Long storeId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("statuses") Collection<ReservationStatus> statuses);
+
+    /**
+     * 예약 시간이 before 이전인 status 상태의 예약을 예약 시간 순서대로 조회하며 행을 잠금
+     * (reservation_status, reservation_time) 인덱스를 범위 스캔하므로 지난 예약 전체를 읽지 않으며,
+     * 트랜잭션이 끝날 때까지 다른 요청이 같은 예약의 상태를 바꾸지 못한다.
+     *
+     * @param status   예약 상태
+     * @param before   예약 시간 끝(미포함)
+     * @param pageable 한 번에 조회할 개수
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r.id AS id, r.storeEntity.id AS storeId, " +
+            "r.reservationTime AS reservationTime, " +
+            "r.numberOfPeople AS numberOfPeople " +
+            "FROM RESERVATION r " +
+            "WHERE r.reservationStatus = :status " +
+            "AND r.reservationTime < :before " +
+            "ORDER BY r.reservationTime")
+    List<ReservationSweepView> findSweepViewsForUpdate(
+            @Param("status") ReservationStatus status,
+            @Param("before") LocalDateTime before,
+            Pageable pageable);
+
+    /**
+     * ids 중 아직 from 상태인 예약을 UPDATE 한 번으로 to 상태로 변경
+     * 일괄 변경은 auditing 을 거치지 않으므로 updatedAt 도 함께 변경한다.
+     *
+     * @return 변경된 예약 수
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE RESERVATION r SET r.reservationStatus = :to, r.updatedAt = :now " +
+            "WHERE r.id IN :ids AND r.reservationStatus = :from")
+    int updateStatus(
+            @Param("ids") Collection<Long> ids,
+            @Param("from") ReservationStatus from,
+            @Param("to") ReservationStatus to,
+            @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,13 @@
+package com.reservation.repository.reservation;
+
+import java.time.LocalDateTime;
+
+/**
+ * 시간대 점유 현황 계산에 필요한 컬럼만 조회하기 위한 projection
+ */
+public interface ReservationSlotView {
+
+    LocalDateTime getReservationTime();
+
+    Integer getNumberOfPeople();
+}
@@ -0,0 +1,17 @@
+package com.reservation.repository.reservation;
+
+import java.time.LocalDateTime;
+
+/**
+ * 상태를 일괄 변경할 예약과, 변경 후 시간대 점유 현황 반영에 필요한 컬럼만 조회하기 위한 projection
+ */
+public interface ReservationSweepView {
+
+    Long getId();
+
+    Long getStoreId();
+
+    LocalDateTime getReservationTime();
+
+    Integer getNumberOfPeople();
+}
@@ -0,0 +1,22 @@
+package com.reservation.repository.reservation;
+
+import com.reservation.entity.reservation.ReservationStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * 예약 목록 응답에 필요한 컬럼만 조회하기 위한 projection
+ * 영속성 컨텍스트에 엔티티를 올리지 않으므로 변경 감지용 스냅샷도 만들지 않는다.
+ */
+public interface ReservationView {
+
+    Long getId();
+
+    String getName();
+
+    Integer getNumberOfPeople();
+
+    LocalDateTime getReservationTime();
+
+    ReservationStatus getReservationStatus();
+}
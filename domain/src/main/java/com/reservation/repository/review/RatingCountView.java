@@ -0,0 +1,13 @@
+package com.reservation.repository.review;
+
+/**
+ * 매장의 평점(0~10)별 리뷰 수 집계 결과
+ */
+public interface RatingCountView {
+
+    Long getStoreId();
+
+    Integer getRating();
+
+    Long getReviewCount();
+}
@@ -7,16 +7,53 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Page;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 
 public interface ReviewRepository extends JpaRepository<ReviewEntity, Long> {
 
     boolean existsByReservationEntity_Id(Long reservationId);
 
-    @Query(value = "SELECT COALESCE(AVG(rating), 0) " +
-            "FROM review " +
-            "WHERE store_id = :storeId",
-            nativeQuery = true)
-    Double calculateStoreAverageRating(@Param("storeId") Long storeId);
+    /**
+     * 매장별, 평점(0~10)별 리뷰 수 집계
+     *
+     * @param storeIds 집계할 매장 id
+     */
+    @Query("SELECT r.storeEntity.id AS storeId, r.rating AS rating, " +
+            "COUNT(r) AS reviewCount " +
+            "FROM REVIEW r " +
+            "WHERE r.storeEntity.id IN :storeIds " +
+            "GROUP BY r.storeEntity.id, r.rating")
+    List<RatingCountView> countRatingsByStoreIds(
+            @Param("storeIds") Collection<Long> storeIds);
+
+    /**
+     * 매장의 최신 리뷰부터 조회 (커서 방식의 첫 페이지)
+     * COUNT 쿼리 없이 pageable 의 크기만큼만 가져온다.
+     */
+    @Query("SELECT r FROM REVIEW r " +
+            "WHERE r.storeEntity.id = :storeId " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewEntity> findLatestByStoreId(
+            @Param("storeId") Long storeId, Pageable pageable);
+
+    /**
+     * (createdAt, id) 커서 이후의 리뷰 조회 (커서 방식의 다음 페이지)
+     * (store_id, created_at, id) 인덱스에서 커서 위치부터 바로 읽으므로
+     * 페이지가 깊어져도 앞의 행을 건너뛰는 비용이 없다.
+     */
+    @Query("SELECT r FROM REVIEW r " +
+            "WHERE r.storeEntity.id = :storeId " +
+            "AND (r.createdAt < :createdAt " +
+            "OR (r.createdAt = :createdAt AND r.id < :id)) " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewEntity> findByStoreIdAfterCursor(
+            @Param("storeId") Long storeId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable);
 
     @Query(value = "SELECT * FROM Review r " +
             "WHERE r.store_id = :storeId " +
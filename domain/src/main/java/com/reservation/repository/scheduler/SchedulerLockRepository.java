@@ -0,0 +1,45 @@
+package com.reservation.repository.scheduler;
+
+import com.reservation.entity.scheduler.SchedulerLockEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLockEntity, String> {
+
+    /**
+     * 락이 풀려 있거나 이미 owner 의 락이라면 until 까지 연장
+     * 여러 서버가 동시에 실행해도 하나만 1 을 반환한다.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE SCHEDULER_LOCK l SET l.lockedUntil = :until, l.lockedBy = :owner " +
+            "WHERE l.name = :name AND (l.lockedUntil <= :now OR l.lockedBy = :owner)")
+    int acquire(@Param("name") String name, @Param("owner") String owner,
+                @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    /**
+     * 락 행이 없을 때 처음 생성
+     * save 는 이미 있는 행을 덮어쓰므로 INSERT 를 직접 실행하며,
+     * 다른 서버가 먼저 만들었다면 DataIntegrityViolationException
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_lock (name, locked_until, locked_by) " +
+            "VALUES (:name, :until, :owner)", nativeQuery = true)
+    int insert(@Param("name") String name, @Param("owner") String owner,
+               @Param("until") LocalDateTime until);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE SCHEDULER_LOCK l SET l.lockedUntil = :now " +
+            "WHERE l.name = :name AND l.lockedBy = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner,
+                @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,26 @@
+package com.reservation.repository.store;
+
+/**
+ * 자동완성 인덱스 적재에 필요한 컬럼만 조회하기 위한 projection
+ */
+public interface StoreAutocompleteView {
+
+    Long getId();
+
+    String getName();
+
+    Long getRatingSum();
+
+    Long getReviewCount();
+
+    /**
+     * StoreEntity.getRating 과 같은 방식으로 계산한 평균 평점
+     */
+    default double getRating() {
+        Long reviewCount = getReviewCount();
+        if (reviewCount == null || reviewCount == 0) {
+            return 0.0;
+        }
+        return getRatingSum() / (reviewCount * 2.0);
+    }
+}
@@ -4,20 +4,127 @@ import com.reservation.entity.store.StoreEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface StoreRepository extends JpaRepository<StoreEntity, Long> {
 
+    // 리뷰가 없는 매장의 평점별 리뷰 수
+    String EMPTY_HISTOGRAM = "0,0,0,0,0,0,0,0,0,0,0";
+
     boolean existsByNameAndAddress(String name, String address);
 
     Optional<StoreEntity> findById(Long id);
 
     Page<StoreEntity> findByNameContaining(String keyword, Pageable pageable);
 
+    Page<StoreEntity> findByNameContainingOrAddressContaining(
+            String name, String address, Pageable pageable);
+
+    /**
+     * afterId 보다 큰 매장의 검색용 정보를 id 순서대로 조회
+     */
+    @Query("SELECT s.id AS id, s.name AS name, s.address AS address " +
+            "FROM STORE s WHERE s.id > :afterId ORDER BY s.id")
+    List<StoreSearchView> findSearchViewsAfter(
+            @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * afterId 보다 큰 매장의 자동완성용 정보를 id 순서대로 조회
+     */
+    @Query("SELECT s.id AS id, s.name AS name, " +
+            "s.ratingSum AS ratingSum, s.reviewCount AS reviewCount " +
+            "FROM STORE s WHERE s.id > :afterId ORDER BY s.id")
+    List<StoreAutocompleteView> findAutocompleteViewsAfter(
+            @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * updatedAt 이후에 변경된 매장 중 afterId 보다 큰 매장의 자동완성용 정보를
+     * id 순서대로 조회
+     */
+    @Query("SELECT s.id AS id, s.name AS name, " +
+            "s.ratingSum AS ratingSum, s.reviewCount AS reviewCount " +
+            "FROM STORE s WHERE s.updatedAt > :updatedAt AND s.id > :afterId " +
+            "ORDER BY s.id")
+    List<StoreAutocompleteView> findAutocompleteViewsUpdatedAfter(
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    /**
+     * 평점 정보를 갱신하기 위해 매장을 쓰기 락과 함께 조회
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM STORE s WHERE s.id = :storeId")
+    Optional<StoreEntity> findByIdForUpdate(@Param("storeId") Long storeId);
+
+    /**
+     * 평점 정보를 다시 계산하기 위해 매장들을 id 순서대로 쓰기 락과 함께 조회
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM STORE s WHERE s.id IN :storeIds ORDER BY s.id")
+    List<StoreEntity> findAllByIdForUpdate(
+            @Param("storeIds") Collection<Long> storeIds);
+
+    /**
+     * 리뷰 트랜잭션에서 매장을 읽기 락과 함께 조회
+     * 커밋할 때까지 평점 정보를 다시 계산하는 트랜잭션이 쓰기 락을 잡지 못한다.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT s FROM STORE s WHERE s.id = :storeId")
+    Optional<StoreEntity> findByIdForShare(@Param("storeId") Long storeId);
+
+    /**
+     * 매장의 평점 정보를 마지막으로 다시 계산한 횟수
+     */
+    @Query("SELECT s.ratingEpoch FROM STORE s WHERE s.id = :storeId")
+    Optional<Long> findRatingEpochById(@Param("storeId") Long storeId);
+
+    /**
+     * 매장 점주의 id, 매장 엔티티를 읽지 않고 소유 여부만 확인할 때 사용
+     */
+    @Query("SELECT s.userEntity.id FROM STORE s WHERE s.id = :storeId")
+    Optional<Long> findOwnerIdById(@Param("storeId") Long storeId);
+
+    /**
+     * afterId 보다 큰 매장 id 를 순서대로 조회
+     */
+    @Query("SELECT s.id FROM STORE s WHERE s.id > :afterId ORDER BY s.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 평점(0~10)별 리뷰 수, 평점 합계 또는 리뷰 수가 review 테이블과 어긋난 매장의 id 조회
+     * 평점별 리뷰 수는 RatingHistogramConverter 와 같은 "0,1,0,..." 형태로 만들어 비교
+     */
+    @Query(value = "SELECT s.id FROM store s " +
+            "LEFT JOIN (SELECT store_id, " +
+            "SUM(rating) AS rating_sum, COUNT(*) AS review_count, " +
+            "CONCAT(" +
+            "SUM(CASE WHEN rating = 0 THEN 1 ELSE 0 END), ',', " +
+            "SUM(CASE WHEN rating = 1 THEN 1 ELSE 0 END), ',', " +
+            "SUM(CASE WHEN rating = 2 THEN 1 ELSE 0 END), ',', " +
+            "SUM(CASE WHEN rating = 3 THEN 1 ELSE 0 END), ',', " +
+            "SUM(CASE WHEN rating = 4 THEN 1 ELSE 0 END), ',', " +
+            "SUM(CASE WHEN rating = 5 THEN 1 ELSE 0 END), ',', " +
+            "SUM(CASE WHEN rating = 6 THEN 1 ELSE 0 END), ',', " +
+            "SUM(CASE WHEN rating = 7 THEN 1 ELSE 0 END), ',', " +
+            "SUM(CASE WHEN rating = 8 THEN 1 ELSE 0 END), ',', " +
+            "SUM(CASE WHEN rating = 9 THEN 1 ELSE 0 END), ',', " +
+            "SUM(CASE WHEN rating = 10 THEN 1 ELSE 0 END)) AS rating_histogram " +
+            "FROM review GROUP BY store_id) r ON r.store_id = s.id " +
+            "WHERE s.rating_sum <> COALESCE(r.rating_sum, 0) " +
+            "OR s.review_count <> COALESCE(r.review_count, 0) " +
+            "OR COALESCE(s.rating_histogram, '" + EMPTY_HISTOGRAM + "') " +
+            "<> COALESCE(r.rating_histogram, '" + EMPTY_HISTOGRAM + "')",
+            nativeQuery = true)
+    List<Long> findRatingDriftedStoreIds();
 }
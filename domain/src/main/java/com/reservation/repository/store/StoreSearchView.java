@@ -0,0 +1,13 @@
+package com.reservation.repository.store;
+
+/**
+ * 매장 검색 인덱스 적재에 필요한 컬럼만 조회하기 위한 projection
+ */
+public interface StoreSearchView {
+
+    Long getId();
+
+    String getName();
+
+    String getAddress();
+}
@@ -0,0 +1,45 @@
+-- 매장 평점을 평균값(rating) 대신 평점 합계, 리뷰 수, 평점(0~10)별 리뷰 수로 관리하기 위한 스키마 변경 (MySQL)
+-- 스키마는 애플리케이션이 만들지 않으므로(ddl-auto 미사용) 아래 순서대로 직접 실행한다.
+--
+-- 1. 새 버전 배포 전: 컬럼 추가
+--    기본값이 있어 구 버전도 그대로 동작하며, 새 버전이 rating 없이 INSERT 할 수 있도록 NOT NULL 을 푼다.
+-- 2. 평점 채우기: 아래 두 방법 중 하나
+--    a. 리뷰 작성을 잠시 멈추고(구 버전 중지) 아래 UPDATE 를 실행한 뒤 새 버전 기동
+--    b. 새 버전으로 모두 교체한 뒤 한 서버만 reservation.rating.backfill=true 로 기동
+--       (StoreRatingBackfillJob, 쌓여 있는 평점 변화량과 겹치지 않게 다시 계산한다.)
+--    구 버전이 남아 있는 동안 작성된 리뷰는 새 컬럼에 반영되지 않으므로 채우기는 구 버전이 모두 내려간 뒤에 한다.
+--    남은 어긋남은 StoreRatingVerifier 가 주기적으로 바로잡는다.
+-- 3. 모든 서버가 새 버전이 된 뒤: rating 컬럼 삭제
+
+-- 1. 컬럼 추가
+ALTER TABLE store
+    ADD COLUMN rating_sum BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN review_count BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN rating_histogram VARCHAR(255) NULL,
+    MODIFY COLUMN rating DOUBLE NULL DEFAULT 0;
+
+-- 2-a. 평점 채우기, 평점별 리뷰 수는 RatingHistogramConverter 와 같은 "0,1,0,..." 형태
+UPDATE store s
+    LEFT JOIN (SELECT store_id,
+                      SUM(rating) AS rating_sum,
+                      COUNT(*)    AS review_count,
+                      CONCAT(
+                              SUM(CASE WHEN rating = 0 THEN 1 ELSE 0 END), ',',
+                              SUM(CASE WHEN rating = 1 THEN 1 ELSE 0 END), ',',
+                              SUM(CASE WHEN rating = 2 THEN 1 ELSE 0 END), ',',
+                              SUM(CASE WHEN rating = 3 THEN 1 ELSE 0 END), ',',
+                              SUM(CASE WHEN rating = 4 THEN 1 ELSE 0 END), ',',
+                              SUM(CASE WHEN rating = 5 THEN 1 ELSE 0 END), ',',
+                              SUM(CASE WHEN rating = 6 THEN 1 ELSE 0 END), ',',
+                              SUM(CASE WHEN rating = 7 THEN 1 ELSE 0 END), ',',
+                              SUM(CASE WHEN rating = 8 THEN 1 ELSE 0 END), ',',
+                              SUM(CASE WHEN rating = 9 THEN 1 ELSE 0 END), ',',
+                              SUM(CASE WHEN rating = 10 THEN 1 ELSE 0 END)) AS rating_histogram
+               FROM review
+               GROUP BY store_id) r ON r.store_id = s.id
+SET s.rating_sum       = COALESCE(r.rating_sum, 0),
+    s.review_count     = COALESCE(r.review_count, 0),
+    s.rating_histogram = COALESCE(r.rating_histogram, '0,0,0,0,0,0,0,0,0,0,0');
+
+-- 3. 모든 서버가 새 버전이 된 뒤
+-- ALTER TABLE store DROP COLUMN rating;
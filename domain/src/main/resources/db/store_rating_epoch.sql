@@ -0,0 +1,5 @@
+-- 평점 정보를 다시 계산하는 동안 커밋된 리뷰의 평점 변화량이 두 번 반영되지 않도록
+-- 매장마다 다시 계산한 횟수(rating_epoch)를 둔다. (MySQL)
+-- 기본값이 있어 구 버전도 그대로 동작하므로 새 버전 배포 전에 실행한다.
+ALTER TABLE store
+    ADD COLUMN rating_epoch BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,12 @@
+package com.reservation.auth.token;
+
+import lombok.Getter;
+
+import javax.validation.constraints.NotBlank;
+
+@Getter
+public class RefreshTokenRequest {
+
+    @NotBlank(message = "리프레시 토큰은 필수 입력값입니다.")
+    private String refreshToken;
+}
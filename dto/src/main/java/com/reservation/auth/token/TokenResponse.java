@@ -0,0 +1,11 @@
+package com.reservation.auth.token;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class TokenResponse {
+    private String accessToken;
+    private String refreshToken; // 한 번만 사용할 수 있으며, 사용하면 새 토큰으로 교체
+}
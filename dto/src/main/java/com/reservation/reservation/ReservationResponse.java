@@ -2,6 +2,7 @@ package com.reservation.reservation;
 
 import com.reservation.entity.reservation.ReservationEntity;
 import com.reservation.entity.reservation.ReservationStatus;
+import com.reservation.repository.reservation.ReservationView;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -25,4 +26,14 @@ public class ReservationResponse {
                 .reservationStatus(reservationEntity.getReservationStatus())
                 .build();
     }
+
+    public static ReservationResponse from(ReservationView reservationView) {
+        return ReservationResponse.builder()
+                .id(reservationView.getId())
+                .name(reservationView.getName())
+                .numberOfPeople(reservationView.getNumberOfPeople())
+                .reservationTime(reservationView.getReservationTime())
+                .reservationStatus(reservationView.getReservationStatus())
+                .build();
+    }
 }
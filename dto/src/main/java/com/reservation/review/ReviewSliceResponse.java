@@ -0,0 +1,13 @@
+package com.reservation.review;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class ReviewSliceResponse {
+    private List<ReviewResponse> reviews;
+    private String nextCursor; // 다음 페이지가 없다면 null
+}
@@ -0,0 +1,13 @@
+package com.reservation.store;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class AutocompleteResponse {
+    private String name;
+    private List<Long> storeIds; // 같은 이름의 매장들, 평점이 높은 순서
+}
@@ -0,0 +1,11 @@
+package com.reservation.store;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class RatingCountResponse {
+    private Double rating;
+    private Integer count;
+}
@@ -0,0 +1,38 @@
+package com.reservation.store;
+
+import com.reservation.entity.review.Rating;
+import com.reservation.entity.store.StoreEntity;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Builder
+public class RatingDistributionResponse {
+    private Long storeId;
+    private Double rating;
+    private Long reviewCount;
+    private List<RatingCountResponse> distribution;
+
+    public static RatingDistributionResponse from(StoreEntity storeEntity) {
+        int[] histogram = storeEntity.getRatingHistogram();
+
+        // 0.0 ~ 5.0 (0.5 단위) 평점별 리뷰 수
+        List<RatingCountResponse> distribution = new ArrayList<>();
+        for (Rating rating : Rating.values()) {
+            distribution.add(RatingCountResponse.builder()
+                    .rating(rating.getRating())
+                    .count(histogram[rating.getValue()])
+                    .build());
+        }
+
+        return RatingDistributionResponse.builder()
+                .storeId(storeEntity.getId())
+                .rating(storeEntity.getRating())
+                .reviewCount(storeEntity.getReviewCount())
+                .distribution(distribution)
+                .build();
+    }
+}
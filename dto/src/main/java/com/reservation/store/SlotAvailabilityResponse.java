@@ -0,0 +1,28 @@
+package com.reservation.store;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+public class SlotAvailabilityResponse {
+    private LocalDateTime startTime;
+    private Integer reservedSeats;
+    private Integer remainingSeats;
+    private Boolean available;
+
+    public static SlotAvailabilityResponse of(
+            LocalDateTime startTime, int reservedSeats, int capacity) {
+
+        int remainingSeats = Math.max(0, capacity - reservedSeats);
+
+        return SlotAvailabilityResponse.builder()
+                .startTime(startTime)
+                .reservedSeats(reservedSeats)
+                .remainingSeats(remainingSeats)
+                .available(remainingSeats > 0)
+                .build();
+    }
+}
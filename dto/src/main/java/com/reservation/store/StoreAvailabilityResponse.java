@@ -0,0 +1,17 @@
+package com.reservation.store;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Builder
+public class StoreAvailabilityResponse {
+    private Long storeId;
+    private LocalDate from;
+    private LocalDate to;
+    private Integer capacity;
+    private List<SlotAvailabilityResponse> slots;
+}